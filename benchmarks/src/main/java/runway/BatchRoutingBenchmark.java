@@ -0,0 +1,61 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Bulk route planning: 512 (start, end) requests drawn from 32 distinct starts, the
+// shape of a schedule batch (many flights, few runway exits and gates).
+//  - batch:      AirportBackend.findRoutes on a pool of `threads` workers (0 = all cores)
+//  - sequential: the same requests one uncached Dijkstra search at a time
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchRoutingBenchmark {
+    @Param({"10000", "100000"})
+    public int nodes;
+
+    @Param({"1", "0"})
+    public int threads;
+
+    private AirportBackend backend;
+    private ForkJoinPool pool;
+    private int[] starts, ends;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        backend = SyntheticAirfield.build(nodes, 7);
+        pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        Random rnd = new Random(11);
+        int[] sources = new int[32];
+        for (int i = 0; i < sources.length; i++) sources[i] = rnd.nextInt(nodes);
+        starts = new int[512];
+        ends = new int[512];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = sources[rnd.nextInt(sources.length)];
+            ends[i] = rnd.nextInt(nodes);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Route[] batch() {
+        return backend.findRoutes(starts, ends, pool);
+    }
+
+    @Benchmark
+    public Route[] sequential() {
+        Route[] routes = new Route[starts.length];
+        for (int i = 0; i < starts.length; i++) routes[i] = backend.findRoute(starts[i], ends[i], RoutingMode.DIJKSTRA);
+        return routes;
+    }
+}
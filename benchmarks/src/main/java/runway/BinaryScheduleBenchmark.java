@@ -0,0 +1,69 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Binary counterpart of CsvLoadBenchmark: the same schedule, pre-converted to .rws, fed
+// from the memory-mapped reader into a fresh controller. firstDispatch is the time from
+// opening the file to the first flight dispatched, independent of the file's size.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryScheduleBenchmark {
+    @Param({"10000", "100000"})
+    int rows;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("schedule", "." + BinarySchedule.EXTENSION);
+        Random rnd = new Random(3);
+        try (BinarySchedule.Writer writer = new BinarySchedule.Writer(file)) {
+            for (int i = 0; i < rows; i++) {
+                writer.add("AI-" + i, 1 + rnd.nextInt(3), 1 + rnd.nextInt(3), rnd.nextBoolean() ? 4 : 5,
+                        20 + rnd.nextInt(81), rnd.nextInt(3) == 0);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static TrafficController controller() {
+        SimulationEngine engine = new SimulationEngine();
+        TrafficController controller = new TrafficController(Main.createDefaultLayout(), new HeadlessSink(), engine);
+        engine.setController(controller);
+        Main.addDefaultRunways(controller);
+        return controller;
+    }
+
+    @Benchmark
+    public long load() throws IOException {
+        TrafficController controller = controller();
+        BinarySchedule.Reader reader = BinarySchedule.Reader.open(file);
+        reader.setGateCheck(controller::isKnownLocation);
+        return reader.load(controller::requestFlights).accepted;
+    }
+
+    @Benchmark
+    public int firstDispatch() throws IOException {
+        TrafficController controller = controller();
+        BinarySchedule.Reader reader = BinarySchedule.Reader.open(file);
+        reader.setGateCheck(controller::isKnownLocation);
+        reader.load(0, Math.min(reader.size(), CsvScheduleLoader.DEFAULT_BATCH), CsvScheduleLoader.DEFAULT_BATCH,
+                controller::requestFlights);
+        controller.processNextFlight();
+        return controller.getQueueSize();
+    }
+}
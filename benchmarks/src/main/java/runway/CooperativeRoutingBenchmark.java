@@ -0,0 +1,63 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Cooperative (reservation-aware) route planning on a synthetic airfield as traffic
+// density rises: each call clears one flight between a random pair, spacingMillis of
+// clock time after the previous one, so a smaller spacing means more aircraft taxiing
+// (and more live reservations) when the next one is planned.
+//  - plan:        space-time search against the reservation table, then reserve
+//  - staticRoute: the uncached A* route the same pair would get without reservations
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CooperativeRoutingBenchmark {
+    @Param({"1000", "10000"})
+    public int nodes;
+
+    @Param({"1000", "100", "10"})
+    public int spacingMillis;
+
+    private AirportBackend backend;
+    private int[] starts, ends;
+    private int next;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        backend = SyntheticAirfield.build(nodes, 7);
+        backend.setCooperativeRouting(true);
+        Random rnd = new Random(11);
+        starts = new int[4096];
+        ends = new int[4096];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = rnd.nextInt(nodes);
+            ends[i] = rnd.nextInt(nodes);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println("\n  " + backend.getReservations() + ", " + backend.getCooperativeFallbacks() + " fallbacks ("
+                + backend.getCooperativeConflicts() + " conflicting cells)");
+    }
+
+    @Benchmark
+    public Route plan() {
+        int i = next++ & (starts.length - 1);
+        now += spacingMillis;
+        return backend.planRoute(starts[i], ends[i], now);
+    }
+
+    @Benchmark
+    public Route staticRoute() {
+        int i = next++ & (starts.length - 1);
+        return backend.findRoute(starts[i], ends[i], RoutingMode.A_STAR);
+    }
+}
@@ -0,0 +1,47 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Streams an in-memory "id,priority,size,gate,fuel,turnaround" schedule into a fresh
+// controller (headless sink), i.e. the work behind "Load Schedule (CSV)".
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvLoadBenchmark {
+    @Param({"10000", "100000"})
+    int rows;
+
+    private byte[] csv;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random rnd = new Random(3);
+        StringBuilder sb = new StringBuilder(rows * 24);
+        for (int i = 0; i < rows; i++) {
+            sb.append("AI-").append(i).append(',')
+              .append(1 + rnd.nextInt(3)).append(',')
+              .append(1 + rnd.nextInt(3)).append(',')
+              .append(rnd.nextBoolean() ? 4 : 5).append(',')
+              .append(20 + rnd.nextInt(81)).append(',')
+              .append(rnd.nextInt(3) == 0).append('\n');
+        }
+        csv = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int load() throws Exception {
+        SimulationEngine engine = new SimulationEngine();
+        TrafficController controller = new TrafficController(Main.createDefaultLayout(), new HeadlessSink(), engine);
+        engine.setController(controller);
+        return CsvScheduleLoader.load(Channels.newChannel(new ByteArrayInputStream(csv)), controller);
+    }
+}
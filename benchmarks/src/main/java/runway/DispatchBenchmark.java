@@ -0,0 +1,40 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// One full flight lifecycle per operation on the demo airfield: requestFlight,
+// processNextFlight, then the virtual clock runs the deboarding / turnaround /
+// departure events. Output goes to a HeadlessSink instead of AirportGUI.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+    private SimulationEngine engine;
+    private TrafficController controller;
+    private HeadlessSink sink;
+    private int seq;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        AirportBackend backend = Main.createDefaultLayout();
+        engine = new SimulationEngine();
+        sink = new HeadlessSink();
+        controller = new TrafficController(backend, sink, engine);
+        engine.setController(controller);
+        Main.addDefaultRunways(controller);
+    }
+
+    @Benchmark
+    public long requestAndDispatch() {
+        int i = seq++;
+        controller.requestFlight("BM-" + i, "Landing", 1 + (i % 3), 1 + (i % 3), (i & 1) == 0 ? 4 : 5, 60, (i % 3) == 0);
+        controller.processNextFlight();
+        engine.runUntil(engine.now() + 10_000);
+        return sink.getCompleted();
+    }
+}
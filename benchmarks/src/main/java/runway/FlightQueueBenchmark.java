@@ -0,0 +1,42 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Holding-queue operations at a steady depth: each op dequeues the next flight and queues
+// a new one, and every 8th op a holding flight's fuel report re-ranks it (decrease-key).
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightQueueBenchmark {
+    @Param({"100", "10000"})
+    public int holding;
+
+    private FlightStore flights;
+    private FlightQueue queue;
+    private int seq;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        flights = new FlightStore();
+        queue = new FlightQueue(new SimulationEngine(), flights);
+        for (seq = 0; seq < holding; seq++) queue.add(flight(seq));
+    }
+
+    private int flight(int i) {
+        return flights.add("Q-" + i, FlightStore.LANDING, 2 + (i & 1), 1 + (i % 3), 4, 60, false, 0);
+    }
+
+    @Benchmark
+    public int pollAndAdd() {
+        int i = seq++;
+        if ((i & 7) == 0) queue.updateFuel("Q-" + (i - holding / 2), 10);
+        int next = queue.poll();
+        queue.add(flight(i));
+        return next;
+    }
+}
@@ -0,0 +1,45 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.JTable;
+import java.util.concurrent.TimeUnit;
+
+// Status updates on the flight board model behind AirportGUI.updateFlightStatus,
+// with a JTable attached so table-event dispatch is included. Pending events are
+// flushed every 256 updates, roughly one frame's worth under heavy traffic.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FlightTableBenchmark {
+    @Param({"10000", "50000"})
+    int rows;
+
+    private FlightTableModel model;
+    private String[] ids;
+    private int next;
+    private int updates;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = new FlightTableModel(false);
+        new JTable(model);
+        ids = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = "AI-" + i;
+            model.addFlightRow(ids[i], "12:00:00", "50%", "Waiting (Landing)", "Terminal 1");
+        }
+        model.flush();
+    }
+
+    @Benchmark
+    public void updateFlightStatus() {
+        int i = next;
+        next = (next + 7919) % rows; // spread updates over the whole board
+        model.updateFlightStatus(ids[i], (i & 1) == 0 ? "Holding" : "Landed -> Taxiing");
+        if ((++updates & 255) == 0) model.flush();
+    }
+}
@@ -0,0 +1,77 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Sustained flight requests per second through FlightIngestServer: a local load generator
+// streams landing requests over `connections` loopback sockets, the server decodes and
+// hands them to the controller in batches, and parallel dispatch drains the queue behind
+// it, so once the queue reaches the high-water mark the rate is whatever the slower side
+// sustains. An operation is one request, counted when it is in the flight store.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestBenchmark {
+    private static final int BURST = 10_000;
+
+    @Param({"1", "4"})
+    public int connections;
+
+    @Param({"1024", "128"})
+    public int batchSize;
+
+    private ScheduledClock clock;
+    private ExecutorService apply;
+    private FlightIngestServer server;
+    private ParallelDispatcher dispatcher;
+    private IngestLoadGenerator feed;
+    private FlightStore flights;
+    private long target;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        AirportBackend backend = Main.createDefaultLayout();
+        backend.setNodeCapacity(4, 10);
+        backend.setNodeCapacity(5, 10);
+        clock = new ScheduledClock(0);
+        TrafficController controller = new TrafficController(backend, new HeadlessSink(), clock);
+        for (int r = 1; r <= 4; r++) controller.addRunway(r, 3, (r - 1) % 2);
+        flights = controller.getFlightStore();
+
+        apply = Executors.newSingleThreadExecutor();
+        server = new FlightIngestServer(controller, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), apply,
+                                        batchSize, FlightIngestServer.DEFAULT_HIGH_WATER);
+        server.start();
+        dispatcher = new ParallelDispatcher(controller, 0);
+        dispatcher.start();
+        feed = new IngestLoadGenerator(server.getAddress(), connections, new int[]{4, 5});
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        feed.close();
+        server.close();
+        dispatcher.stop();
+        apply.shutdown();
+        clock.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public long ingest() throws InterruptedException {
+        target += BURST;
+        feed.send(BURST);
+        while (flights.size() < target) LockSupport.parkNanos(20_000);
+        return target;
+    }
+}
@@ -0,0 +1,63 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Journal write throughput: each op journals one flight's life (request, gate, runway,
+// two status changes, gate release, completion = 7 events). "async" leaves durability to
+// the group-commit flusher; "sync" waits for the msync covering the op.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+    @Param({"async", "sync"})
+    public String durability;
+
+    private Path dir;
+    private EventJournal journal;
+    private final FlightStore flights = new FlightStore();
+    private int seq;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("journal-bench");
+        journal = EventJournal.open(dir);
+        for (int i = 0; i < 1024; i++) flights.add("J-" + i, FlightStore.LANDING, 3, 2, 4, 60, false, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        delete(dir);
+    }
+
+    @Benchmark
+    public long lifecycle() throws InterruptedException {
+        int f = seq++ & 1023; // each lifecycle completes, so ids can be reused
+        String id = flights.getId(f);
+        journal.requested(flights, f);
+        journal.gateAcquired(flights.getGate(f));
+        journal.assigned(id, 1);
+        journal.statusChanged(id, FlightStatus.LANDED);
+        journal.statusChanged(id, FlightStatus.DOCKED);
+        journal.gateReleased(flights.getGate(f));
+        journal.completed(id);
+        if (durability.equals("sync")) journal.sync();
+        return journal.getAppended();
+    }
+
+    static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) Files.deleteIfExists(p);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Restart cost: open a journal written by a shift of `events` events (one flight in five
+// still active at the end) and replay it. snapshotEvery = 0 replays every event; with
+// snapshots, recovery is one snapshot load plus the tail written after it.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalRecoveryBenchmark {
+    @Param({"100000", "1000000"})
+    public int events;
+
+    @Param({"0", "50000"})
+    public int snapshotEvery;
+
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("journal-recovery");
+        try (EventJournal journal = EventJournal.open(dir, EventJournal.DEFAULT_SEGMENT_BYTES,
+                EventJournal.DEFAULT_COMMIT_MILLIS, snapshotEvery)) {
+            FlightStore flights = new FlightStore();
+            for (int i = 0; journal.getAppended() < events; i++) {
+                int f = flights.add("R-" + i, FlightStore.LANDING, 3, 1 + i % 3, 4 + (i & 1), 60, false, 0);
+                String id = flights.getId(f);
+                journal.requested(flights, f);
+                if (i % 5 == 0) continue; // still holding
+                journal.gateAcquired(flights.getGate(f));
+                journal.assigned(id, 1);
+                journal.statusChanged(id, FlightStatus.LANDED);
+                journal.gateReleased(flights.getGate(f));
+                journal.completed(id);
+            }
+            journal.sync();
+            Thread.sleep(500); // let the last snapshot land
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        JournalBenchmark.delete(dir);
+    }
+
+    @Benchmark
+    public int recover() throws IOException {
+        try (EventJournal journal = EventJournal.open(dir, EventJournal.DEFAULT_SEGMENT_BYTES,
+                EventJournal.DEFAULT_COMMIT_MILLIS, snapshotEvery)) {
+            return journal.getState().flights.size();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Airport layout files for generated airfields of 100k and 1M nodes:
+//  - readText / readBinary: parse a .layout / map a .rwl into columns
+//  - build:                 columns -> AirportBackend (bulk addLocations / addPaths) + controller
+//  - generate:              the seeded synthetic airfield itself
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class LayoutLoadBenchmark {
+    @Param({"100000", "1000000"})
+    public int nodes;
+
+    private Path dir, text, binary;
+    private AirportLayout layout;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("layout-bench");
+        text = dir.resolve("airfield." + AirportLayout.TEXT_EXTENSION);
+        binary = dir.resolve("airfield." + AirportLayout.BINARY_EXTENSION);
+        layout = AirportLayout.generate(nodes, 42);
+        layout.writeText(text);
+        layout.writeBinary(binary);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(text);
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public AirportLayout readText() throws IOException {
+        return AirportLayout.read(text);
+    }
+
+    @Benchmark
+    public AirportLayout readBinary() throws IOException {
+        return AirportLayout.read(binary);
+    }
+
+    @Benchmark
+    public TrafficController build() {
+        TrafficController atc = new TrafficController(layout.toBackend(), new HeadlessSink(), new SimulationEngine());
+        layout.addRunways(atc);
+        return atc;
+    }
+
+    @Benchmark
+    public AirportLayout generate() {
+        return AirportLayout.generate(nodes, 42);
+    }
+}
@@ -0,0 +1,61 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+// MapPanel paint cost on a synthetic airfield drawn into an offscreen 1200x900 frame,
+// either fitted (whole layout visible, dots without labels) or zoomed in to 2x on one
+// corner (viewport culling, labels):
+//  - fullRepaint: the static layer is rebuilt, as after a pan, zoom or highlight change
+//  - hitTest: node lookup under a screen position (tooltips, clicks)
+// Animation frames are measured by TaxiAnimationBenchmark.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MapRenderBenchmark {
+    private static final int WIDTH = 1200, HEIGHT = 900;
+
+    @Param({"1000", "100000"})
+    public int nodes;
+
+    @Param({"fit", "zoomed"})
+    public String view;
+
+    private MapPanel panel;
+    private Graphics2D screen;
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        AirportBackend backend = SyntheticAirfield.build(nodes, 42);
+        panel = new MapPanel(backend);
+        panel.setSize(WIDTH, HEIGHT);
+        screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB).createGraphics();
+        panel.fitToView();
+        if (view.equals("zoomed")) panel.zoomAt(0, 0, 2 / panel.getScale());
+        panel.paintComponent(screen);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        screen.dispose();
+    }
+
+    @Benchmark
+    public void fullRepaint() {
+        panel.clearHighlights();
+        panel.paintComponent(screen);
+    }
+
+    @Benchmark
+    public int hitTest() {
+        probe = (probe + 7919) % (WIDTH * HEIGHT);
+        return panel.nodeAt(probe % WIDTH, probe / WIDTH);
+    }
+}
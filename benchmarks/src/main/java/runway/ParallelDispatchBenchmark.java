@@ -0,0 +1,58 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Flights dispatched per second versus runway count: each invocation queues a batch of
+// landings, then one virtual-thread worker per runway drains it through
+// TrafficController.dispatchNext(). occupancyMicros is how long a movement holds its
+// runway (0 = pure dispatch overhead, contention on the shared queue dominates).
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelDispatchBenchmark {
+    private static final int BATCH = 2000;
+
+    @Param({"1", "2", "4", "8"})
+    public int runways;
+
+    @Param({"0", "50"})
+    public long occupancyMicros;
+
+    private ScheduledClock clock;
+    private HeadlessSink sink;
+    private ParallelDispatcher dispatcher;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        AirportBackend backend = Main.createDefaultLayout();
+        backend.setNodeCapacity(4, 2 * runways + 2);
+        backend.setNodeCapacity(5, 2 * runways + 2);
+        clock = new ScheduledClock(0);
+        sink = new HeadlessSink();
+        TrafficController controller = new TrafficController(backend, sink, clock);
+        for (int r = 1; r <= runways; r++) controller.addRunway(r, 3, (r - 1) % 2);
+        for (int i = 0; i < BATCH; i++) {
+            controller.requestFlight("PB-" + i, "Landing", 1 + (i % 3), 1 + (i % 3), (i & 1) == 0 ? 4 : 5, 60, false);
+        }
+        dispatcher = new ParallelDispatcher(controller, occupancyMicros);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws InterruptedException {
+        dispatcher.stop();
+        clock.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long drainBatch() throws InterruptedException {
+        dispatcher.start();
+        while (sink.getCompleted() < BATCH) Thread.onSpinWait();
+        return dispatcher.getDispatched();
+    }
+}
@@ -0,0 +1,74 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Route queries on synthetic airfields of 10 .. 100k nodes.
+//  - route:            uncached search with the selected algorithm (random pairs)
+//  - findShortestPath: public cached API over a small hot set of (exit, terminal) pairs
+//  - getPathList:      same hot set, node-list form
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutingBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    int nodes;
+
+    @Param({"DIJKSTRA", "A_STAR", "CONTRACTION_HIERARCHY"})
+    String algorithm; // RoutingMode name (generated JMH code lives outside package runway)
+
+    private RoutingMode mode;
+    private AirportBackend backend;
+    private int[] starts, ends;
+    private int[] hotStarts, hotEnds;
+    private int next, hotNext;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        mode = RoutingMode.valueOf(algorithm);
+        backend = SyntheticAirfield.build(nodes, 7);
+        backend.setRoutingMode(mode);
+        if (mode == RoutingMode.CONTRACTION_HIERARCHY) backend.buildContractionHierarchy();
+        if (mode == RoutingMode.A_STAR && backend.checkHeuristicAdmissibility(200, 3) != 0) {
+            throw new IllegalStateException("A* disagrees with Dijkstra on this airfield");
+        }
+
+        Random rnd = new Random(11);
+        starts = new int[4096];
+        ends = new int[4096];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = rnd.nextInt(nodes);
+            ends[i] = rnd.nextInt(nodes);
+        }
+        hotStarts = new int[64];
+        hotEnds = new int[64];
+        for (int i = 0; i < hotStarts.length; i++) {
+            hotStarts[i] = rnd.nextInt(nodes);
+            hotEnds[i] = rnd.nextInt(nodes);
+        }
+    }
+
+    @Benchmark
+    public Route route() {
+        int i = next++ & (starts.length - 1);
+        return backend.findRoute(starts[i], ends[i], mode);
+    }
+
+    @Benchmark
+    public String findShortestPath() {
+        int i = hotNext++ & (hotStarts.length - 1);
+        return backend.findShortestPath(hotStarts[i], hotEnds[i]);
+    }
+
+    @Benchmark
+    public List<Integer> getPathList() {
+        int i = hotNext++ & (hotStarts.length - 1);
+        return backend.getPathList(hotStarts[i], hotEnds[i]);
+    }
+}
@@ -0,0 +1,44 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// "Smallest adequate runway free at t" plus booking it, on airfields with a few to a
+// hundred runways of mixed size. The clock advances by a fixed step per movement, so
+// runways cycle through occupancy and wake separation as in a busy hour.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RunwaySelectionBenchmark {
+    @Param({"2", "24", "96"})
+    public int runways;
+
+    private RunwayIndex index;
+    private long now;
+    private int seq;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        index = new RunwayIndex();
+        for (int r = 1; r <= runways; r++) index.add(new Runway(r, 1 + r % 3, 0));
+        now = 0;
+        seq = 0;
+    }
+
+    @Benchmark
+    public Runway selectAndOccupy() {
+        int size = 1 + (seq++ % 3);
+        now += 600 / runways + 1;
+        Runway r = index.freeAt(size, now);
+        if (r == null) {
+            now = index.nextFree(size);
+            r = index.freeAt(size, now);
+        }
+        index.occupy(r, size, now);
+        return r;
+    }
+}
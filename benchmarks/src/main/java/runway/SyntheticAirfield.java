@@ -0,0 +1,28 @@
+package runway;
+
+import java.util.Random;
+
+// Grid-shaped taxiway network with jittered coordinates and some missing links,
+// sized by node count. Node 0 and the last node act as runway exit / terminal.
+final class SyntheticAirfield {
+    private SyntheticAirfield() {}
+
+    static AirportBackend build(int nodes, long seed) {
+        Random rnd = new Random(seed);
+        int width = Math.max(2, (int) Math.ceil(Math.sqrt(nodes)));
+        AirportBackend backend = new AirportBackend();
+        for (int i = 0; i < nodes; i++) {
+            int x = (i % width) * 20 + rnd.nextInt(5);
+            int y = (i / width) * 20 + rnd.nextInt(5);
+            backend.addLocation(i, "N" + i, x, y);
+        }
+        for (int i = 0; i < nodes; i++) {
+            boolean hasRight = i % width < width - 1 && i + 1 < nodes;
+            boolean hasDown = i + width < nodes;
+            // Keep the first column and row intact so the graph stays connected
+            if (hasRight && (i < width || rnd.nextInt(10) > 0)) backend.addPath(i, i + 1, 20 + rnd.nextInt(30));
+            if (hasDown && (i % width == 0 || rnd.nextInt(10) > 0)) backend.addPath(i, i + width, 20 + rnd.nextInt(30));
+        }
+        return backend;
+    }
+}
@@ -0,0 +1,75 @@
+package runway;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One 16 ms animation frame on a fitted 10k-node synthetic airfield with a steady number
+// of aircraft taxiing: advance every sprite, then repaint the frame's dirty rectangle
+// over the cached map layer. An aircraft that finishes its route is replaced by a new
+// one, so sprite slots are recycled throughout the run.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TaxiAnimationBenchmark {
+    private static final int NODES = 10_000, WIDTH = 1200, HEIGHT = 900, ROUTES = 512;
+
+    @Param({"10", "1000", "5000"})
+    public int aircraft;
+
+    private MapPanel panel;
+    private Graphics2D screen;
+    private List<List<Integer>> routes;
+    private long now;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        AirportBackend backend = SyntheticAirfield.build(NODES, 42);
+        Random rnd = new Random(7);
+        routes = new java.util.ArrayList<>(ROUTES);
+        while (routes.size() < ROUTES) {
+            int from = rnd.nextInt(NODES), to = Math.min(NODES - 1, from + 1 + rnd.nextInt(300));
+            List<Integer> path = backend.getPathList(from, to);
+            if (path.size() > 1) routes.add(path);
+        }
+        panel = new MapPanel(backend);
+        panel.setSize(WIDTH, HEIGHT);
+        panel.fitToView();
+        screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB).createGraphics();
+        panel.paintComponent(screen);
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        while (panel.getAnimatedCount() < aircraft) panel.addAircraft(routes.get(next++ % ROUTES), now);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        screen.dispose();
+    }
+
+    @Benchmark
+    public int frame() {
+        now += 16;
+        Rectangle dirty = panel.advanceFrame(now);
+        Graphics2D g = (Graphics2D) screen.create();
+        try {
+            if (dirty != null) g.clip(dirty);
+            panel.paintComponent(g);
+        } finally {
+            g.dispose();
+        }
+        while (panel.getAnimatedCount() < aircraft) panel.addAircraft(routes.get(next++ % ROUTES), now);
+        return panel.getAnimatedCount();
+    }
+}
@@ -0,0 +1,574 @@
+package runway;
+
+import java.awt.Point;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// ==========================================
+// AIRPORT LAYOUT FILES (.layout text, .rwl binary)
+// ==========================================
+
+// Nodes (id, coordinates, name), undirected paths, gate capacities and runways of an
+// airfield, held as columns so a layout of a million nodes is a few arrays until it is
+// turned into an AirportBackend with the bulk addLocations / addPaths calls.
+//
+// Text form, one record per line, fields separated by spaces or tabs ('#' starts a
+// comment; a name is the rest of its line):
+//
+//   node   <id> <x> <y> <name>
+//   path   <from> <to> <distance>
+//   gate   <node> <capacity>
+//   runway <id> <max size> <exit node>
+//
+// Binary form (big-endian), for layouts where text parsing dominates start-up:
+//
+//   header   32 bytes        magic "RWLY", version, node / path / gate / runway counts, name bytes
+//   nodes    4 x n ints      ids, xs, ys, then n + 1 name offsets into the UTF-8 bytes at the end
+//   paths    3 x m ints      from, to, distance
+//   gates    2 x g ints      node, capacity
+//   runways  3 x r ints      id, max size, exit node
+//   names    UTF-8 bytes
+//
+// read() tells the two apart by the magic number.
+final class AirportLayout {
+    static final int MAGIC = 0x52574C59; // "RWLY"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final String TEXT_EXTENSION = "layout", BINARY_EXTENSION = "rwl";
+
+    int[] nodeIds, xs, ys;
+    String[] names;
+    int[] pathFrom, pathTo, pathDistance;
+    int[] gateNodes, gateCapacities;
+    int[] runwayIds, runwaySizes, runwayExits;
+    // Source line of each record, so validate() can point at it; text input only
+    private int[] nodeLines, pathLines, gateLines, runwayLines;
+
+    private AirportLayout() {}
+
+    public int getNodeCount() { return nodeIds.length; }
+    public int getPathCount() { return pathFrom.length; }
+    public int getGateCount() { return gateNodes.length; }
+    public int getRunwayCount() { return runwayIds.length; }
+
+    // ==========================================
+    // Building the backend / controller
+    // ==========================================
+
+    public AirportBackend toBackend() {
+        AirportBackend backend = new AirportBackend(nodeIds.length);
+        backend.addLocations(nodeIds, names, xs, ys);
+        backend.addPaths(pathFrom, pathTo, pathDistance);
+        for (int i = 0; i < gateNodes.length; i++) backend.setNodeCapacity(gateNodes[i], gateCapacities[i]);
+        return backend;
+    }
+
+    public void addRunways(TrafficController atc) {
+        for (int i = 0; i < runwayIds.length; i++) atc.addRunway(runwayIds[i], runwaySizes[i], runwayExits[i]);
+    }
+
+    // Snapshot of a configured airfield (each undirected path once, at its u -> v weight)
+    static AirportLayout of(AirportBackend backend, List<Runway> runways) {
+        AirportLayout l = new AirportLayout();
+        Map<Integer, Point> coords = backend.getAllCoords();
+        l.nodeIds = coords.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int n = l.nodeIds.length;
+        l.xs = new int[n];
+        l.ys = new int[n];
+        l.names = new String[n];
+        for (int i = 0; i < n; i++) {
+            Point p = coords.get(l.nodeIds[i]);
+            l.xs[i] = p.x;
+            l.ys[i] = p.y;
+            l.names[i] = backend.getNodeName(l.nodeIds[i]);
+        }
+        IntColumns from = new IntColumns(), to = new IntColumns(), dist = new IntColumns();
+        for (int u : l.nodeIds) {
+            for (Edge e : backend.getAdjList().get(u)) {
+                if (e.targetNode <= u) continue;
+                from.add(u);
+                to.add(e.targetNode);
+                dist.add(e.weight);
+            }
+        }
+        l.pathFrom = from.toArray();
+        l.pathTo = to.toArray();
+        l.pathDistance = dist.toArray();
+        GateAllocator gates = backend.getGateAllocator();
+        IntColumns gateNodes = new IntColumns(), gateCaps = new IntColumns();
+        for (int id : l.nodeIds) {
+            if (!gates.hasCapacity(id)) continue;
+            gateNodes.add(id);
+            gateCaps.add(gates.getCapacity(id));
+        }
+        l.gateNodes = gateNodes.toArray();
+        l.gateCapacities = gateCaps.toArray();
+        l.runwayIds = runways.stream().mapToInt(r -> r.id).toArray();
+        l.runwaySizes = runways.stream().mapToInt(r -> r.maxSizeCapacity).toArray();
+        l.runwayExits = runways.stream().mapToInt(r -> r.exitNodeId).toArray();
+        return l;
+    }
+
+    // ==========================================
+    // Reading
+    // ==========================================
+
+    public static AirportLayout read(Path file) throws IOException {
+        int magic = 0;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4);
+            if (ch.read(head) == 4) magic = head.getInt(0);
+        }
+        AirportLayout layout = magic == MAGIC ? readBinary(file) : readText(file);
+        layout.validate(file);
+        layout.nodeLines = layout.pathLines = layout.gateLines = layout.runwayLines = null;
+        return layout;
+    }
+
+    private static AirportLayout readText(Path file) throws IOException {
+        IntColumns ids = new IntColumns(), xs = new IntColumns(), ys = new IntColumns();
+        List<String> names = new ArrayList<>();
+        IntColumns from = new IntColumns(), to = new IntColumns(), dist = new IntColumns();
+        IntColumns gates = new IntColumns(), caps = new IntColumns();
+        IntColumns runways = new IntColumns(), sizes = new IntColumns(), exits = new IntColumns();
+        IntColumns nodeLines = new IntColumns(), pathLines = new IntColumns();
+        IntColumns gateLines = new IntColumns(), runwayLines = new IntColumns();
+        int[] fields = new int[4];
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                int start = skipSpaces(line, 0);
+                if (start == line.length() || line.charAt(start) == '#') continue;
+                int end = skipToken(line, start);
+                if (end == line.length()) throw new IOException(file + ":" + lineNo + ": incomplete record");
+                String kind = line.substring(start, end);
+                try {
+                    switch (kind) {
+                        case "node": {
+                            int at = ints(line, end, fields, 3);
+                            at = skipSpaces(line, at);
+                            if (at == line.length()) throw new IOException(file + ":" + lineNo + ": node without a name");
+                            ids.add(fields[0]);
+                            xs.add(fields[1]);
+                            ys.add(fields[2]);
+                            names.add(line.substring(at).trim());
+                            nodeLines.add(lineNo);
+                            break;
+                        }
+                        case "path":
+                            ints(line, end, fields, 3);
+                            from.add(fields[0]);
+                            to.add(fields[1]);
+                            dist.add(fields[2]);
+                            pathLines.add(lineNo);
+                            break;
+                        case "gate":
+                            ints(line, end, fields, 2);
+                            gates.add(fields[0]);
+                            caps.add(fields[1]);
+                            gateLines.add(lineNo);
+                            break;
+                        case "runway":
+                            ints(line, end, fields, 3);
+                            runways.add(fields[0]);
+                            sizes.add(fields[1]);
+                            exits.add(fields[2]);
+                            runwayLines.add(lineNo);
+                            break;
+                        default:
+                            throw new IOException(file + ":" + lineNo + ": unknown record '" + kind + "'");
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + ":" + lineNo + ": " + e.getMessage());
+                }
+            }
+        }
+        AirportLayout l = new AirportLayout();
+        l.nodeIds = ids.toArray();
+        l.xs = xs.toArray();
+        l.ys = ys.toArray();
+        l.names = names.toArray(new String[0]);
+        l.pathFrom = from.toArray();
+        l.pathTo = to.toArray();
+        l.pathDistance = dist.toArray();
+        l.gateNodes = gates.toArray();
+        l.gateCapacities = caps.toArray();
+        l.runwayIds = runways.toArray();
+        l.runwaySizes = sizes.toArray();
+        l.runwayExits = exits.toArray();
+        l.nodeLines = nodeLines.toArray();
+        l.pathLines = pathLines.toArray();
+        l.gateLines = gateLines.toArray();
+        l.runwayLines = runwayLines.toArray();
+        return l;
+    }
+
+    private static int skipSpaces(String s, int i) {
+        while (i < s.length() && (s.charAt(i) == ' ' || s.charAt(i) == '\t')) i++;
+        return i;
+    }
+
+    private static int skipToken(String s, int i) {
+        while (i < s.length() && s.charAt(i) != ' ' && s.charAt(i) != '\t') i++;
+        return i;
+    }
+
+    // Parses `count` space-separated ints after position `from`; returns where it stopped
+    private static int ints(String s, int from, int[] out, int count) {
+        int i = from;
+        for (int k = 0; k < count; k++) {
+            i = skipSpaces(s, i);
+            boolean negative = i < s.length() && s.charAt(i) == '-';
+            if (negative) i++;
+            int digits = i;
+            long v = 0;
+            while (i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                v = v * 10 + (s.charAt(i++) - '0');
+                if (v > Integer.MAX_VALUE + 1L) break;
+            }
+            if (i == digits || (i < s.length() && s.charAt(i) != ' ' && s.charAt(i) != '\t') || v > Integer.MAX_VALUE + (negative ? 1L : 0L)) {
+                throw new NumberFormatException("expected " + count + " integers");
+            }
+            out[k] = (int) (negative ? -v : v);
+        }
+        return i;
+    }
+
+    private static AirportLayout readBinary(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) throw new IOException("Not a binary layout (too short): " + file);
+            if (size > Integer.MAX_VALUE) throw new IOException("Binary layout over 2 GB: " + file);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            short version = buf.getShort(4);
+            if (version != VERSION) throw new IOException("Unsupported binary layout version " + version + ": " + file);
+            int n = buf.getInt(8), m = buf.getInt(12), g = buf.getInt(16), r = buf.getInt(20), nameBytes = buf.getInt(24);
+            long expected = HEADER_BYTES + 4L * (4L * n + 1 + 3L * m + 2L * g + 3L * r) + nameBytes;
+            if (n < 0 || m < 0 || g < 0 || r < 0 || nameBytes < 0 || expected != size) {
+                throw new IOException("Corrupt binary layout header: " + file);
+            }
+
+            AirportLayout l = new AirportLayout();
+            buf.position(HEADER_BYTES);
+            l.nodeIds = ints(buf, n);
+            l.xs = ints(buf, n);
+            l.ys = ints(buf, n);
+            int[] offsets = ints(buf, n + 1);
+            l.pathFrom = ints(buf, m);
+            l.pathTo = ints(buf, m);
+            l.pathDistance = ints(buf, m);
+            l.gateNodes = ints(buf, g);
+            l.gateCapacities = ints(buf, g);
+            l.runwayIds = ints(buf, r);
+            l.runwaySizes = ints(buf, r);
+            l.runwayExits = ints(buf, r);
+            byte[] bytes = new byte[nameBytes];
+            buf.get(bytes);
+            l.names = new String[n];
+            for (int i = 0; i < n; i++) {
+                int from = offsets[i], to = offsets[i + 1];
+                if (from < 0 || to < from || to > nameBytes) throw new IOException("Corrupt binary layout name table: " + file);
+                l.names[i] = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+            }
+            return l;
+        }
+    }
+
+    // Bulk read of a column at the buffer's position
+    private static int[] ints(ByteBuffer buf, int count) {
+        int[] column = new int[count];
+        buf.asIntBuffer().get(column);
+        buf.position(buf.position() + count * 4);
+        return column;
+    }
+
+    // Every path, gate and runway must name a known node; ids must be unique
+    private void validate(Path file) throws IOException {
+        int[] sorted = nodeIds.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                int second = -1;
+                for (int k = 0, seen = 0; second < 0; k++) {
+                    if (nodeIds[k] == sorted[i] && seen++ == 1) second = k;
+                }
+                throw new IOException(at(file, nodeLines, "node", second) + ": duplicate node " + sorted[i]);
+            }
+        }
+        for (int i = 0; i < pathFrom.length; i++) {
+            requireNode(sorted, pathFrom[i], file, pathLines, "path", i);
+            requireNode(sorted, pathTo[i], file, pathLines, "path", i);
+            if (pathDistance[i] <= 0) {
+                throw new IOException(at(file, pathLines, "path", i) + ": path " + pathFrom[i] + "-" + pathTo[i] + " has distance " + pathDistance[i]);
+            }
+        }
+        for (int i = 0; i < gateNodes.length; i++) {
+            requireNode(sorted, gateNodes[i], file, gateLines, "gate", i);
+            if (gateCapacities[i] < 0) {
+                throw new IOException(at(file, gateLines, "gate", i) + ": gate " + gateNodes[i] + " has capacity " + gateCapacities[i]);
+            }
+        }
+        for (int i = 0; i < runwayIds.length; i++) {
+            requireNode(sorted, runwayExits[i], file, runwayLines, "runway", i);
+            if (runwaySizes[i] < 1 || runwaySizes[i] > 3) {
+                throw new IOException(at(file, runwayLines, "runway", i) + ": runway " + runwayIds[i] + " has size " + runwaySizes[i]);
+            }
+        }
+    }
+
+    private static void requireNode(int[] sorted, int id, Path file, int[] lines, String record, int i) throws IOException {
+        if (Arrays.binarySearch(sorted, id) < 0) throw new IOException(at(file, lines, record, i) + ": " + record + " refers to unknown node " + id);
+    }
+
+    // Where a record came from: "file:line" for text, "file: path #i" (0-based) for binary
+    private static String at(Path file, int[] lines, String record, int i) {
+        return lines != null ? file + ":" + lines[i] : file + ": " + record + " #" + i;
+    }
+
+    // ==========================================
+    // Writing
+    // ==========================================
+
+    public void writeText(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# Airport layout: " + this + "\n");
+            StringBuilder sb = new StringBuilder(64);
+            for (int i = 0; i < nodeIds.length; i++) {
+                sb.setLength(0);
+                sb.append("node ").append(nodeIds[i]).append(' ').append(xs[i]).append(' ').append(ys[i])
+                  .append(' ').append(names[i]).append('\n');
+                out.append(sb);
+            }
+            for (int i = 0; i < pathFrom.length; i++) {
+                sb.setLength(0);
+                sb.append("path ").append(pathFrom[i]).append(' ').append(pathTo[i]).append(' ').append(pathDistance[i]).append('\n');
+                out.append(sb);
+            }
+            for (int i = 0; i < gateNodes.length; i++) {
+                out.write("gate " + gateNodes[i] + " " + gateCapacities[i] + "\n");
+            }
+            for (int i = 0; i < runwayIds.length; i++) {
+                out.write("runway " + runwayIds[i] + " " + runwaySizes[i] + " " + runwayExits[i] + "\n");
+            }
+        }
+    }
+
+    public void writeBinary(Path file) throws IOException {
+        int n = nodeIds.length;
+        int[] offsets = new int[n + 1];
+        byte[][] encoded = new byte[n][];
+        long nameBytes = 0;
+        for (int i = 0; i < n; i++) {
+            encoded[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            offsets[i] = (int) nameBytes;
+            nameBytes += encoded[i].length;
+            if (nameBytes > Integer.MAX_VALUE) throw new IOException("Layout name table exceeds 2 GB");
+        }
+        offsets[n] = (int) nameBytes;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocateDirect(1 << 20);
+            out.putInt(MAGIC).putShort(VERSION).putShort((short) 0)
+               .putInt(n).putInt(pathFrom.length).putInt(gateNodes.length).putInt(runwayIds.length)
+               .putInt((int) nameBytes).putInt(0);
+            for (int[] column : new int[][]{nodeIds, xs, ys, offsets, pathFrom, pathTo, pathDistance,
+                                            gateNodes, gateCapacities, runwayIds, runwaySizes, runwayExits}) {
+                for (int v : column) {
+                    if (out.remaining() < 4) drain(ch, out);
+                    out.putInt(v);
+                }
+            }
+            for (byte[] name : encoded) {
+                if (out.remaining() < name.length) drain(ch, out);
+                if (name.length > out.capacity()) {
+                    ch.write(ByteBuffer.wrap(name));
+                    continue;
+                }
+                out.put(name);
+            }
+            drain(ch, out);
+        }
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) ch.write(out);
+        out.clear();
+    }
+
+    // ==========================================
+    // Demo: Main --layout [nodes] [seed] [dir]
+    // ==========================================
+
+    // Generates an airfield, writes it in both forms and times reading each one back and
+    // building the backend and controller from it
+    static void runDemo(String[] args) throws IOException {
+        int nodes = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        Path dir = args.length > 3 ? Path.of(args[3]) : Path.of(".");
+        Path text = dir.resolve("airfield-" + nodes + "." + TEXT_EXTENSION);
+        Path binary = dir.resolve("airfield-" + nodes + "." + BINARY_EXTENSION);
+
+        long t0 = System.nanoTime();
+        AirportLayout layout = generate(nodes, seed);
+        System.out.println("Generated " + layout + " in " + millis(t0) + " ms");
+        t0 = System.nanoTime();
+        layout.writeText(text);
+        System.out.println("  wrote " + text + " (" + Files.size(text) / 1024 + " KB) in " + millis(t0) + " ms");
+        t0 = System.nanoTime();
+        layout.writeBinary(binary);
+        System.out.println("  wrote " + binary + " (" + Files.size(binary) / 1024 + " KB) in " + millis(t0) + " ms");
+
+        for (Path file : new Path[]{text, binary}) {
+            t0 = System.nanoTime();
+            AirportLayout loaded = read(file);
+            String readMs = millis(t0);
+            t0 = System.nanoTime();
+            AirportBackend backend = loaded.toBackend();
+            TrafficController atc = new TrafficController(backend, new HeadlessSink(), new SimulationEngine());
+            loaded.addRunways(atc);
+            System.out.println("  " + file.getFileName() + ": read " + readMs + " ms, backend + controller " + millis(t0) + " ms");
+        }
+
+        AirportBackend backend = layout.toBackend();
+        t0 = System.nanoTime();
+        int lastGate = layout.gateNodes[layout.gateNodes.length - 1];
+        Route route = backend.findRoute(layout.runwayExits[0], lastGate, RoutingMode.A_STAR);
+        System.out.println("  Runway 1 -> " + backend.getNodeName(lastGate) + ": " + route.length() + " nodes, distance "
+                + route.getDistance() + " (" + millis(t0) + " ms incl. graph snapshot)");
+    }
+
+    private static String millis(long t0) {
+        return String.format("%.1f", (System.nanoTime() - t0) / 1e6);
+    }
+
+    // ==========================================
+    // Synthetic airfields
+    // ==========================================
+
+    // A seeded airfield of about `nodes` nodes (at least 10): a grid of taxiways with a few
+    // links missing, runway exits along the north edge feeding the first taxiway row, and
+    // terminals along the south edge. Runway k (1-based) exits at node k - 1, so runway 1
+    // is node 0 as in the demo layout; terminals follow, then taxiway intersections named
+    // by row letter and column ("Taxiway C12"). Distances are the straight-line length
+    // times 1.0 .. 1.3, so the A* heuristic stays admissible.
+    static AirportLayout generate(int nodes, long seed) {
+        nodes = Math.max(10, nodes);
+        Random rnd = new Random(seed);
+        int runways = Math.min(8, 2 + nodes / 100_000);
+        int terminals = Math.min(200, 2 + nodes / 5_000);
+        int taxi = nodes - runways - terminals;
+        int width = (int) Math.ceil(Math.sqrt(taxi * 3.0));
+        int rows = (taxi + width - 1) / width;
+        final int spacing = 40, originX = 60, originY = 120;
+
+        AirportLayout l = new AirportLayout();
+        l.nodeIds = new int[nodes];
+        l.xs = new int[nodes];
+        l.ys = new int[nodes];
+        l.names = new String[nodes];
+        for (int i = 0; i < nodes; i++) l.nodeIds[i] = i;
+        int firstTaxi = runways + terminals;
+        for (int i = 0; i < taxi; i++) {
+            int id = firstTaxi + i, c = i % width, r = i / width;
+            l.xs[id] = originX + c * spacing + rnd.nextInt(17) - 8;
+            l.ys[id] = originY + r * spacing + rnd.nextInt(17) - 8;
+            l.names[id] = "Taxiway " + rowName(r) + (c + 1);
+        }
+
+        IntColumns from = new IntColumns(), to = new IntColumns(), dist = new IntColumns();
+        for (int i = 0; i < taxi; i++) {
+            int c = i % width, r = i / width;
+            // Row 0 and column 0 are kept whole, and a node that loses its left link keeps
+            // its up link, so every intersection still connects back to the first one
+            boolean left = c > 0 && (r == 0 || rnd.nextInt(100) >= 8);
+            boolean up = r > 0 && (c == 0 || !left || rnd.nextInt(100) >= 8);
+            if (left) link(l, from, to, dist, rnd, firstTaxi + i - 1, firstTaxi + i);
+            if (up) link(l, from, to, dist, rnd, firstTaxi + i - width, firstTaxi + i);
+        }
+
+        l.runwayIds = new int[runways];
+        l.runwaySizes = new int[runways];
+        l.runwayExits = new int[runways];
+        for (int k = 0; k < runways; k++) {
+            int c = (int) ((k + 0.5) * Math.min(width, taxi) / runways);
+            l.xs[k] = originX + c * spacing;
+            l.ys[k] = originY - 80;
+            l.names[k] = "Runway " + (k + 1) + " Exit";
+            l.runwayIds[k] = k + 1;
+            l.runwaySizes[k] = k == 0 ? 3 : 1 + rnd.nextInt(3);
+            l.runwayExits[k] = k;
+            link(l, from, to, dist, rnd, k, firstTaxi + c);
+            if (c + 1 < Math.min(width, taxi)) link(l, from, to, dist, rnd, k, firstTaxi + c + 1); // rapid exit
+        }
+
+        l.gateNodes = new int[terminals];
+        l.gateCapacities = new int[terminals];
+        int lastRow = (taxi - 1) / width;
+        for (int k = 0; k < terminals; k++) {
+            int id = runways + k;
+            int c = (int) ((k + 0.5) * width / terminals);
+            int i = lastRow * width + c;
+            if (i >= taxi) i = lastRow > 0 ? i - width : taxi - 1; // short last row
+            l.xs[id] = l.xs[firstTaxi + i];
+            l.ys[id] = l.ys[firstTaxi + i] + 80;
+            l.names[id] = "Terminal " + (k + 1);
+            l.gateNodes[k] = id;
+            l.gateCapacities[k] = 2 + rnd.nextInt(30);
+            link(l, from, to, dist, rnd, firstTaxi + i, id);
+        }
+        l.pathFrom = from.toArray();
+        l.pathTo = to.toArray();
+        l.pathDistance = dist.toArray();
+        return l;
+    }
+
+    private static void link(AirportLayout l, IntColumns from, IntColumns to, IntColumns dist, Random rnd, int u, int v) {
+        double length = Math.hypot(l.xs[u] - l.xs[v], l.ys[u] - l.ys[v]);
+        from.add(u);
+        to.add(v);
+        dist.add((int) Math.max(1, Math.ceil(length * (1 + rnd.nextDouble() * 0.3))));
+    }
+
+    // A .. Z, AA .. AZ, BA .. for taxiway rows
+    private static String rowName(int r) {
+        StringBuilder sb = new StringBuilder();
+        for (r++; r > 0; r = (r - 1) / 26) sb.append((char) ('A' + (r - 1) % 26));
+        return sb.reverse().toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d nodes, %d paths, %d gates, %d runways",
+                nodeIds.length, pathFrom.length, gateNodes.length, runwayIds.length);
+    }
+
+    // Growable int column for parsing and generation
+    private static final class IntColumns {
+        private int[] values = new int[64];
+        private int size = 0;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        int[] toArray() { return Arrays.copyOf(values, size); }
+    }
+}
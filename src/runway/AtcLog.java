@@ -0,0 +1,224 @@
+package runway;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// ==========================================
+// ATC LOG PIPELINE
+// ==========================================
+
+// Lock-free multi-producer / single-consumer log.
+//
+// Producers (any thread) claim a slot with a CAS, store the message and its wall-clock
+// millis, then publish the slot's sequence number. They never block: if the ring is full
+// the message is dropped and counted. A single daemon consumer drains the ring once per
+// frame, formats timestamps (cached per second), appends the batch to an optional
+// rolling file, and hands one block of text per frame to the EDT, where the view is
+// trimmed to a fixed number of lines.
+final class AtcLog {
+    static final int FRAME_MILLIS = 16;
+
+    private final int capacity; // power of two
+    private final int mask;
+    private final String[] messages;
+    private final long[] times;
+    private final AtomicLongArray published; // sequence stored in each slot once readable
+    private final AtomicLong claimed = new AtomicLong(0);
+    private final AtomicLong consumed = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    private final JTextArea view;
+    private final int maxViewLines;
+    private int viewLines = 0; // EDT only
+
+    private RollingFile file;  // consumer thread only (set before start)
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    // Consumer-side timestamp cache
+    private long stampSecond = Long.MIN_VALUE;
+    private final char[] stamp = "[00:00:00] ".toCharArray();
+    private final java.util.TimeZone zone = java.util.TimeZone.getDefault();
+
+    AtcLog(int capacity, JTextArea view, int maxViewLines) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.messages = new String[cap];
+        this.times = new long[cap];
+        this.published = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) published.set(i, -1);
+        this.view = view;
+        this.maxViewLines = maxViewLines;
+        this.consumer = new Thread(this::drainLoop, "atc-log");
+        this.consumer.setDaemon(true);
+    }
+
+    // Also stream every line to path, rotating to path.1 .. path.N past maxBytes
+    public AtcLog withRollingFile(Path path, long maxBytes, int maxFiles) throws IOException {
+        this.file = new RollingFile(path, maxBytes, maxFiles);
+        return this;
+    }
+
+    public AtcLog start() {
+        consumer.start();
+        return this;
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(consumer);
+    }
+
+    public long getDropped() { return dropped.get(); }
+
+    // --- producer side (any thread, never blocks) ---
+
+    public boolean log(String message) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed.get() >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        int slot = (int) (seq & mask);
+        messages[slot] = message;
+        times[slot] = System.currentTimeMillis();
+        published.lazySet(slot, seq); // release: message/time are visible before the sequence
+        return true;
+    }
+
+    // --- consumer side ---
+
+    private void drainLoop() {
+        StringBuilder batch = new StringBuilder(4096);
+        while (running) {
+            drain(batch);
+            LockSupport.parkNanos(FRAME_MILLIS * 1_000_000L);
+        }
+        drain(batch);
+        if (file != null) file.close();
+    }
+
+    // Visible for headless callers/tests: drains whatever is published right now
+    void drain(StringBuilder batch) {
+        batch.setLength(0);
+        int lines = 0;
+        long seq = consumed.get();
+        while (true) {
+            int slot = (int) (seq & mask);
+            if (published.get(slot) != seq) break; // not yet written (or ring empty)
+            appendStamp(batch, times[slot]);
+            batch.append(messages[slot]).append('\n');
+            messages[slot] = null;
+            seq++;
+            lines++;
+            consumed.lazySet(seq); // frees the slot for producers
+        }
+        if (lines == 0) return;
+
+        if (file != null) file.write(batch);
+        if (view != null) {
+            String text = batch.toString();
+            int added = lines;
+            SwingUtilities.invokeLater(() -> appendToView(text, added));
+        }
+    }
+
+    private void appendStamp(StringBuilder sb, long millis) {
+        long second = Math.floorDiv(millis + zone.getOffset(millis), 1000);
+        if (second != stampSecond) {
+            stampSecond = second;
+            long s = Math.floorMod(second, 86400);
+            put2(1, (int) (s / 3600));
+            put2(4, (int) (s / 60 % 60));
+            put2(7, (int) (s % 60));
+        }
+        sb.append(stamp);
+    }
+
+    private void put2(int at, int v) {
+        stamp[at] = (char) ('0' + v / 10);
+        stamp[at + 1] = (char) ('0' + v % 10);
+    }
+
+    // EDT: one append per frame, then trim the oldest lines past the cap
+    private void appendToView(String text, int lines) {
+        view.append(text);
+        viewLines += lines;
+        if (viewLines > maxViewLines) {
+            try {
+                int cut = view.getLineStartOffset(viewLines - maxViewLines);
+                view.getDocument().remove(0, cut);
+                viewLines = maxViewLines;
+            } catch (BadLocationException e) {
+                view.setText("");
+                viewLines = 0;
+            }
+        }
+        view.setCaretPosition(view.getDocument().getLength());
+    }
+
+    // Size-based rotation: path -> path.1 -> ... -> path.N (oldest dropped)
+    private static final class RollingFile {
+        private final Path path;
+        private final long maxBytes;
+        private final int maxFiles;
+        private Writer out;
+        private long size;
+
+        RollingFile(Path path, long maxBytes, int maxFiles) throws IOException {
+            this.path = path;
+            this.maxBytes = maxBytes;
+            this.maxFiles = maxFiles;
+            open();
+        }
+
+        private void open() throws IOException {
+            size = Files.exists(path) ? Files.size(path) : 0;
+            out = new BufferedWriter(new OutputStreamWriter(
+                    Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                    StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        void write(CharSequence text) {
+            if (out == null) return;
+            try {
+                out.append(text);
+                out.flush();
+                size += text.length();
+                if (size >= maxBytes) rotate();
+            } catch (IOException e) {
+                close(); // logging must never take the tower down
+            }
+        }
+
+        private void rotate() throws IOException {
+            out.close();
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path from = Paths.get(path + "." + i);
+                if (Files.exists(from)) Files.move(from, Paths.get(path + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (maxFiles > 0) Files.move(path, Paths.get(path + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            else Files.deleteIfExists(path);
+            open();
+        }
+
+        void close() {
+            try {
+                if (out != null) out.close();
+            } catch (IOException ignored) {
+            }
+            out = null;
+        }
+    }
+}
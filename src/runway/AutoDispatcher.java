@@ -0,0 +1,142 @@
+package runway;
+
+// ==========================================
+// AUTO-DISPATCH (paced tick loop)
+// ==========================================
+
+// Calls TrafficController.processNextFlight() at a target rate instead of one click per
+// flight. Ticks are scheduled on the controller's clock (EDT timers in the GUI, virtual
+// time headless) at fixed-rate slots start + n * period, so slow ticks do not drift the
+// schedule; a tick that falls more than one period behind skips ahead instead of bursting.
+//
+// Each tick asks the controller why the next flight could or could not go:
+//  - READY:       dispatch it
+//  - RUNWAY_BUSY: sleep until the runway is out of occupancy / separation
+//  - GATE_FULL:   let the controller park it in the gate holds, where it waits for a gate
+//                 release instead of being retried every tick
+//  - EMPTY:       stop ticking until the controller reports a newly queued flight
+final class AutoDispatcher {
+    private static final int RATE_WINDOW = 64; // recent dispatches kept for the achieved rate
+
+    private final TrafficController controller;
+    private final SimClock clock;
+    private double targetPerMinute;
+    private long periodMillis;
+
+    private boolean running = false;
+    private boolean idle = false;    // waiting for the queue listener
+    private long generation = 0;     // invalidates ticks scheduled before pause / rate change
+    private long nextSlot;
+
+    private final long[] recent = new long[RATE_WINDOW];
+    private int recentCount = 0;
+    private long dispatched = 0, parked = 0, runwayWaits = 0;
+    private DispatchState lastState = DispatchState.EMPTY;
+    private Runnable onTick;
+
+    AutoDispatcher(TrafficController controller, SimClock clock, double targetPerMinute) {
+        this.controller = controller;
+        this.clock = clock;
+        setTargetRate(targetPerMinute);
+        controller.setQueueListener(this::flightQueued);
+    }
+
+    // Called after every tick on the clock's thread (e.g. to refresh a status label)
+    public void setTickListener(Runnable onTick) { this.onTick = onTick; }
+
+    public void setTargetRate(double perMinute) {
+        this.targetPerMinute = Math.max(0.1, perMinute);
+        this.periodMillis = Math.max(1, Math.round(60_000 / targetPerMinute));
+        if (running) restart(); // new pace from now on
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        restart();
+    }
+
+    public void pause() {
+        running = false;
+        idle = false;
+        generation++;
+        fireTick();
+    }
+
+    public boolean isRunning() { return running; }
+
+    private void restart() {
+        generation++;
+        idle = false;
+        nextSlot = clock.now();
+        scheduleAt(nextSlot);
+    }
+
+    private void scheduleAt(long time) {
+        long gen = generation;
+        clock.schedule(Math.max(0, time - clock.now()), () -> {
+            if (gen == generation && running) tick();
+        });
+    }
+
+    private void flightQueued() {
+        if (running && idle) restart();
+    }
+
+    private void tick() {
+        long now = clock.now();
+        lastState = controller.getDispatchState();
+        switch (lastState) {
+            case EMPTY:
+                idle = true; // resumed by flightQueued()
+                fireTick();
+                return;
+            case RUNWAY_BUSY:
+                runwayWaits++;
+                nextSlot = Math.max(nextSlot, controller.nextRunwayFree());
+                scheduleAt(nextSlot);
+                fireTick();
+                return;
+            case GATE_FULL:
+                controller.processNextFlight(); // parked until its gate frees
+                parked++;
+                break;
+            case READY:
+                controller.processNextFlight();
+                dispatched++;
+                recent[recentCount++ % RATE_WINDOW] = now;
+                break;
+        }
+        nextSlot += periodMillis;
+        if (nextSlot < now) nextSlot = now + periodMillis; // fell behind: skip, don't burst
+        scheduleAt(nextSlot);
+        fireTick();
+    }
+
+    private void fireTick() {
+        if (onTick != null) onTick.run();
+    }
+
+    // Dispatches per minute over the recent window (0 until two dispatches are seen)
+    public double getAchievedPerMinute() {
+        int n = Math.min(recentCount, RATE_WINDOW);
+        if (n < 2) return 0;
+        long newest = recent[(recentCount - 1) % RATE_WINDOW];
+        long oldest = recent[(recentCount - n) % RATE_WINDOW];
+        long span = Math.max(clock.now(), newest) - oldest;
+        return span <= 0 ? 0 : (n - 1) * 60_000.0 / span;
+    }
+
+    public double getTargetPerMinute() { return targetPerMinute; }
+    public long getDispatched() { return dispatched; }
+    public long getParked() { return parked; }
+    public long getRunwayWaits() { return runwayWaits; }
+    public DispatchState getLastState() { return lastState; }
+
+    @Override
+    public String toString() {
+        String state = !running ? "paused" : idle ? "idle" : lastState == DispatchState.GATE_FULL ? "gates full"
+                : lastState == DispatchState.RUNWAY_BUSY ? "runway busy" : "running";
+        return String.format("Auto: %.1f / %.0f per min (%s)", getAchievedPerMinute(), targetPerMinute, state);
+    }
+}
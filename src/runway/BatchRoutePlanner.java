@@ -0,0 +1,94 @@
+package runway;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// ==========================================
+// BATCH ROUTE PLANNING (fork-join)
+// ==========================================
+
+// Routes for many (start, end) requests at once, for bulk schedule loads and what-if
+// runs. Requests are grouped by start node and each distinct start gets one
+// single-source search (RouteSearch.searchFrom) whose tree answers all of its ends, so
+// a batch costs one search per runway exit or gate, not one per flight.
+//
+// The groups are split across a fork-join pool. Every leaf task has its own RouteSearch
+// scratch over the same TaxiwayGraph, which is immutable, so workers share nothing but
+// the result array (each slot written by exactly one task).
+final class BatchRoutePlanner {
+    private BatchRoutePlanner() {}
+
+    // routes[i] is the route from starts[i] to ends[i]
+    static Route[] plan(TaxiwayGraph graph, int[] starts, int[] ends, Map<Integer, String> names, ForkJoinPool pool) {
+        int n = starts.length;
+        if (ends.length != n) throw new IllegalArgumentException("starts and ends differ in length");
+        Route[] routes = new Route[n];
+        if (n == 0) return routes;
+
+        // Request indices sorted by start node: (start << 32 | index)
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) order[i] = ((long) starts[i] << 32) | i;
+        Arrays.sort(order);
+        int[] groupStart = new int[n + 1];
+        int groups = 0;
+        for (int k = 0; k < n; k++) {
+            if (k == 0 || (int) (order[k] >> 32) != (int) (order[k - 1] >> 32)) groupStart[groups++] = k;
+        }
+        groupStart[groups] = n;
+
+        // A few leaves per worker evens out sources whose trees differ in size; each leaf
+        // allocates one set of search arrays, so leaves are not made smaller than that
+        int grain = Math.max(1, groups / (pool.getParallelism() * 4));
+        Task root = new Task(graph, names, order, groupStart, 0, groups, grain, ends, routes);
+        if (groups <= grain) {
+            root.compute();
+        } else {
+            pool.invoke(root);
+        }
+        return routes;
+    }
+
+    private static final class Task extends RecursiveAction {
+        private final TaxiwayGraph graph;
+        private final Map<Integer, String> names;
+        private final long[] order;
+        private final int[] groupStart;
+        private final int from, to, grain;
+        private final int[] ends;
+        private final Route[] routes;
+
+        Task(TaxiwayGraph graph, Map<Integer, String> names, long[] order, int[] groupStart,
+             int from, int to, int grain, int[] ends, Route[] routes) {
+            this.graph = graph;
+            this.names = names;
+            this.order = order;
+            this.groupStart = groupStart;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.ends = ends;
+            this.routes = routes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Task(graph, names, order, groupStart, from, mid, grain, ends, routes),
+                          new Task(graph, names, order, groupStart, mid, to, grain, ends, routes));
+                return;
+            }
+            RouteSearch search = new RouteSearch(graph);
+            for (int g = from; g < to; g++) {
+                int start = (int) (order[groupStart[g]] >> 32);
+                int settled = search.searchFrom(start);
+                for (int k = groupStart[g]; k < groupStart[g + 1]; k++) {
+                    int i = (int) order[k];
+                    routes[i] = search.routeTo(ends[i], settled, names);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package runway;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+// ==========================================
+// BINARY SCHEDULE (.rws)
+// ==========================================
+
+// Fixed-width binary form of a CSV schedule, for multi-million-flight days where text
+// parsing dominates load time. Layout (big-endian):
+//
+//   header   32 bytes        magic "RWSC", version, flight count, string count, string table offset
+//   records  count x 12      id index (int), gate (int), priority, size, fuel, flags (bytes)
+//   strings  (n + 1) x int   offsets into the UTF-8 bytes that follow, one per distinct id
+//
+// Records are fixed width, so the reader maps the file and decodes fields in place;
+// only flight ids become objects. The writer interns ids: one that appears on several
+// rows (e.g. daily rotations) is stored once in the string table.
+final class BinarySchedule {
+    static final int MAGIC = 0x52575343; // "RWSC"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 12;
+    static final String EXTENSION = "rws";
+    private static final int FLAG_TURNAROUND = 1;
+
+    private BinarySchedule() {}
+
+    // CSV -> binary. Rows are validated by CsvScheduleLoader (gates are not checked, the
+    // file may be loaded against any layout); the report covers the CSV side.
+    public static CsvScheduleLoader.Report convert(Path csv, Path out) throws IOException {
+        try (Writer writer = new Writer(out)) {
+            CsvScheduleLoader loader = new CsvScheduleLoader();
+            IOException[] failure = new IOException[1];
+            CsvScheduleLoader.Report report = loader.load(csv, batch -> {
+                try {
+                    if (failure[0] == null) writer.add(batch);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) throw failure[0];
+            return report;
+        }
+    }
+
+    // --convert <schedule.csv> <schedule.rws>: converts, then compares a full CSV parse
+    // with a full binary read and times open -> first flight dispatched from the binary file
+    static void runDemo(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("usage: --convert <schedule.csv> <schedule." + EXTENSION + ">");
+            return;
+        }
+        Path csv = Path.of(args[1]), out = Path.of(args[2]);
+        long t0 = System.nanoTime();
+        CsvScheduleLoader.Report converted = convert(csv, out);
+        System.out.println("Converted " + converted + " in " + millis(t0) + " ms -> " + out
+                + " (" + java.nio.file.Files.size(out) / 1024 + " KB)");
+
+        long[] flights = new long[1];
+        t0 = System.nanoTime();
+        new CsvScheduleLoader().load(csv, b -> flights[0] += b.count);
+        System.out.println("  CSV parse:      " + flights[0] + " flights in " + millis(t0) + " ms");
+        flights[0] = 0;
+        t0 = System.nanoTime();
+        Reader.open(out).load(b -> flights[0] += b.count);
+        System.out.println("  binary read:    " + flights[0] + " flights in " + millis(t0) + " ms");
+
+        SimulationEngine engine = new SimulationEngine();
+        TrafficController atc = new TrafficController(Main.createDefaultLayout(), new HeadlessSink(), engine);
+        engine.setController(atc);
+        Main.addDefaultRunways(atc);
+        t0 = System.nanoTime();
+        Reader reader = Reader.open(out);
+        reader.setGateCheck(atc::isKnownLocation);
+        reader.load(0, Math.min(reader.size(), CsvScheduleLoader.DEFAULT_BATCH), CsvScheduleLoader.DEFAULT_BATCH,
+                atc::requestFlights);
+        atc.processNextFlight();
+        System.out.println("  open -> first dispatch: " + millis(t0) + " ms (" + reader.size() + " flights in file)");
+    }
+
+    private static String millis(long t0) {
+        return String.format("%.1f", (System.nanoTime() - t0) / 1e6);
+    }
+
+    // ==========================================
+    // Writer
+    // ==========================================
+
+    static final class Writer implements Closeable {
+        private final FileChannel ch;
+        private final ByteBuffer out = ByteBuffer.allocateDirect(1 << 20);
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        private long stringBytes = 0;
+        private long count = 0;
+
+        Writer(Path file) throws IOException {
+            ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ch.position(HEADER_BYTES);
+        }
+
+        public void add(ScheduleBatch b) throws IOException {
+            for (int i = 0; i < b.count; i++) {
+                add(b.ids[i], b.priority[i], b.size[i], b.gate[i], b.fuel[i], b.turnaround[i]);
+            }
+        }
+
+        public void add(String id, int priority, int size, int gate, int fuel, boolean turnaround) throws IOException {
+            Integer index = ids.get(id);
+            if (index == null) {
+                byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+                stringBytes += bytes.length;
+                if (stringBytes > Integer.MAX_VALUE) throw new IOException("Flight id table exceeds 2 GB");
+                index = strings.size();
+                strings.add(bytes);
+                ids.put(id, index);
+            }
+            if (out.remaining() < RECORD_BYTES) drain();
+            out.putInt(index).putInt(gate)
+               .put((byte) priority).put((byte) size).put((byte) fuel)
+               .put((byte) (turnaround ? FLAG_TURNAROUND : 0));
+            count++;
+        }
+
+        public long getCount() { return count; }
+
+        private void drain() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) ch.write(out);
+            out.clear();
+        }
+
+        // Appends the string table and writes the header
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+                long tableAt = ch.position();
+                int offset = 0;
+                for (byte[] s : strings) {
+                    if (out.remaining() < 4) drain();
+                    out.putInt(offset);
+                    offset += s.length;
+                }
+                if (out.remaining() < 4) drain();
+                out.putInt(offset);
+                for (byte[] s : strings) {
+                    if (out.remaining() < s.length) drain();
+                    if (s.length > out.capacity()) {
+                        ch.write(ByteBuffer.wrap(s));
+                        continue;
+                    }
+                    out.put(s);
+                }
+                drain();
+
+                out.putInt(MAGIC).putShort(VERSION).putShort((short) 0)
+                   .putLong(count).putInt(strings.size()).putInt(0).putLong(tableAt);
+                out.flip();
+                ch.write(out, 0);
+                out.clear();
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
+    // ==========================================
+    // Reader (memory-mapped)
+    // ==========================================
+
+    static final class Reader {
+        private final MappedByteBuffer buf;
+        private final int count;
+        private final int offsetsAt, bytesAt, stringCount;
+        private IntPredicate gateCheck = g -> true;
+        private CsvScheduleLoader.ProgressListener progress;
+
+        private Reader(MappedByteBuffer buf, int count, int stringCount, int offsetsAt) {
+            this.buf = buf;
+            this.count = count;
+            this.stringCount = stringCount;
+            this.offsetsAt = offsetsAt;
+            this.bytesAt = offsetsAt + (stringCount + 1) * 4;
+        }
+
+        // Maps the file and checks the header; records are not touched until read
+        public static Reader open(Path file) throws IOException {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = ch.size();
+                if (size < HEADER_BYTES) throw new IOException("Not a binary schedule (too short): " + file);
+                if (size > Integer.MAX_VALUE) throw new IOException("Binary schedule over 2 GB: " + file);
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (buf.getInt(0) != MAGIC) throw new IOException("Not a binary schedule (bad magic): " + file);
+                short version = buf.getShort(4);
+                if (version != VERSION) throw new IOException("Unsupported binary schedule version " + version + ": " + file);
+                long count = buf.getLong(8);
+                int strings = buf.getInt(16);
+                long tableAt = buf.getLong(24);
+                if (count < 0 || strings < 0 || tableAt != HEADER_BYTES + count * RECORD_BYTES
+                        || tableAt + (strings + 1L) * 4 > size) {
+                    throw new IOException("Corrupt binary schedule header: " + file);
+                }
+                Reader r = new Reader(buf, (int) count, strings, (int) tableAt);
+                // id() trusts the offsets, so they must be non-decreasing and inside the byte table
+                long byteTable = size - r.bytesAt;
+                int previous = 0;
+                for (int s = 0; s <= strings; s++) {
+                    int offset = buf.getInt(r.offsetsAt + s * 4);
+                    if (offset < previous || offset > byteTable) {
+                        throw new IOException("Corrupt binary schedule string table (id " + s + "): " + file);
+                    }
+                    previous = offset;
+                }
+                return r;
+            }
+        }
+
+        public void setGateCheck(IntPredicate check) { this.gateCheck = check; }
+        public void setProgressListener(CsvScheduleLoader.ProgressListener listener) { this.progress = listener; }
+
+        public int size() { return count; }
+
+        private static int record(int i) { return HEADER_BYTES + i * RECORD_BYTES; }
+
+        // Decoded on every call: a cache would keep millions of ids reachable for the
+        // reader's lifetime, which costs more in old-gen GC than decoding saves
+        public String id(int i) {
+            int s = buf.getInt(record(i));
+            int from = buf.getInt(offsetsAt + s * 4), to = buf.getInt(offsetsAt + s * 4 + 4);
+            byte[] bytes = new byte[to - from];
+            buf.get(bytesAt + from, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public int gate(int i) { return buf.getInt(record(i) + 4); }
+        public int priority(int i) { return buf.get(record(i) + 8); }
+        public int size(int i) { return buf.get(record(i) + 9); }
+        public int fuel(int i) { return buf.get(record(i) + 10); }
+        public boolean turnaround(int i) { return (buf.get(record(i) + 11) & FLAG_TURNAROUND) != 0; }
+
+        // Same contract as CsvScheduleLoader.load: batches go to the sink as they fill, so
+        // the first flights are queued while the rest of the file is still being read
+        public CsvScheduleLoader.Report load(Consumer<ScheduleBatch> sink) {
+            return load(0, count, CsvScheduleLoader.DEFAULT_BATCH, sink);
+        }
+
+        public CsvScheduleLoader.Report load(int from, int to, int batchSize, Consumer<ScheduleBatch> sink) {
+            CsvScheduleLoader.Report report = new CsvScheduleLoader.Report();
+            ScheduleBatch batch = new ScheduleBatch(batchSize);
+            for (int i = from; i < to; i++) {
+                report.lines++;
+                int s = buf.getInt(record(i));
+                int prio = priority(i), size = size(i), gate = gate(i), fuel = fuel(i);
+                String reason = null;
+                if (s < 0 || s >= stringCount) reason = "flight id " + s + " not in the string table";
+                else if (prio < 1 || prio > 3) reason = "priority out of range " + prio;
+                else if (size < 1 || size > 3) reason = "size out of range " + size;
+                else if (fuel < 0 || fuel > 100) reason = "fuel out of range " + fuel;
+                else if (!gateCheck.test(gate)) reason = "unknown gate " + gate;
+                if (reason != null) {
+                    report.rejected++;
+                    if (report.samples.size() < 100) report.samples.add("record " + i + ": " + reason);
+                    continue;
+                }
+                int n = batch.count++;
+                batch.ids[n] = id(i);
+                batch.priority[n] = prio;
+                batch.size[n] = size;
+                batch.gate[n] = gate;
+                batch.fuel[n] = fuel;
+                batch.turnaround[n] = turnaround(i);
+                report.accepted++;
+                if (batch.isFull()) {
+                    sink.accept(batch);
+                    batch = new ScheduleBatch(batchSize); // the consumer may keep the old one
+                    if (progress != null) progress.bytesRead((long) (i + 1) * RECORD_BYTES, (long) count * RECORD_BYTES);
+                }
+            }
+            if (batch.count > 0) sink.accept(batch);
+            if (progress != null) progress.bytesRead((long) to * RECORD_BYTES, (long) count * RECORD_BYTES);
+            return report;
+        }
+    }
+}
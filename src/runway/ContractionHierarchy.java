@@ -0,0 +1,476 @@
+package runway;
+
+import java.util.*;
+
+// ==========================================
+// CONTRACTION HIERARCHY (large airfield graphs)
+// ==========================================
+
+// Contraction hierarchy over a TaxiwayGraph snapshot.
+//
+// Nodes are contracted in greedy minimum-degree order and every contraction inserts
+// the full clique of its remaining neighbours, so the shortcut topology depends only
+// on the order. Shortcut weights are then derived from the original weights through
+// lower triangles ("customization"). That keeps weight changes cheap and exact: when
+// a single edge changes (e.g. a runway closure to Integer.MAX_VALUE) only the
+// shortcuts stacked on top of it are re-customized; no re-ordering is needed.
+//
+// Internally node index == rank. An arc belongs to its lower endpoint and stores the
+// cost in both directions: up = owner -> target, down = target -> owner.
+final class ContractionHierarchy {
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final int[] ids;       // rank -> node id
+    private final int[] rankOf;    // dense TaxiwayGraph index -> rank
+    private final TaxiwayGraph source;
+
+    // Upward arcs, CSR by owner rank; targets sorted ascending inside each owner
+    private final int[] upOff;
+    private final int[] upTarget;
+    private final int[] arcOwner;
+    private final int[] origUp, origDown; // original edge weights (INF = no edge / closed)
+    private final int[] wUp, wDown;       // customized weights
+    private final int[] midUp, midDown;   // lower triangle node giving the weight, -1 = original edge
+
+    // Downward view (for triangle lookups): lower owners of arcs into each node
+    private final int[] downOff;
+    private final int[] downOwner;
+    private final int[] downArc;
+
+    // Query scratch (generation-stamped, as in RouteSearch)
+    private final int[] distF, distB, parF, parB, stampF, stampB;
+    private final IndexedHeap heapF, heapB;
+    private final IntList pathScratch = new IntList(), arcScratch = new IntList(), unpackStack = new IntList();
+    private int generation;
+
+    private int lastUpdateArcs = 0;
+
+    private ContractionHierarchy(TaxiwayGraph g, int[] order, int[][] upLists) {
+        int n = g.size();
+        this.source = g;
+        this.ids = new int[n];
+        this.rankOf = new int[n];
+        for (int r = 0; r < n; r++) {
+            rankOf[order[r]] = r;
+            ids[r] = g.ids[order[r]];
+        }
+
+        upOff = new int[n + 1];
+        int arcs = 0;
+        for (int r = 0; r < n; r++) {
+            upOff[r] = arcs;
+            arcs += upLists[order[r]].length;
+        }
+        upOff[n] = arcs;
+        upTarget = new int[arcs];
+        arcOwner = new int[arcs];
+        for (int r = 0; r < n; r++) {
+            int[] list = upLists[order[r]];
+            int base = upOff[r];
+            for (int i = 0; i < list.length; i++) upTarget[base + i] = rankOf[list[i]];
+            Arrays.sort(upTarget, base, base + list.length);
+            Arrays.fill(arcOwner, base, base + list.length, r);
+        }
+
+        int[] inDegree = new int[n + 1];
+        for (int e = 0; e < arcs; e++) inDegree[upTarget[e]]++;
+        downOff = new int[n + 1];
+        for (int r = 0; r < n; r++) downOff[r + 1] = downOff[r] + inDegree[r];
+        downOwner = new int[arcs];
+        downArc = new int[arcs];
+        int[] fill = Arrays.copyOf(downOff, n);
+        for (int r = 0; r < n; r++) { // owners visited in rank order, so downOwner stays sorted
+            for (int e = upOff[r]; e < upOff[r + 1]; e++) {
+                int slot = fill[upTarget[e]]++;
+                downOwner[slot] = r;
+                downArc[slot] = e;
+            }
+        }
+
+        origUp = new int[arcs];
+        origDown = new int[arcs];
+        Arrays.fill(origUp, INF);
+        Arrays.fill(origDown, INF);
+        for (int a = 0; a < n; a++) {
+            for (int e = g.offsets[a]; e < g.offsets[a + 1]; e++) {
+                int b = g.targets[e];
+                if (a != b) setOriginal(rankOf[a], rankOf[b], Math.min(originalWeight(rankOf[a], rankOf[b]), g.weights[e]));
+            }
+        }
+        wUp = new int[arcs];
+        wDown = new int[arcs];
+        midUp = new int[arcs];
+        midDown = new int[arcs];
+        customize();
+
+        distF = new int[n]; distB = new int[n];
+        parF = new int[n];  parB = new int[n];
+        stampF = new int[n]; stampB = new int[n];
+        heapF = new IndexedHeap(n, distF);
+        heapB = new IndexedHeap(n, distB);
+    }
+
+    // --- preprocessing ---
+
+    static ContractionHierarchy build(TaxiwayGraph g) {
+        int n = g.size();
+        IntList[] adj = new IntList[n];
+        for (int v = 0; v < n; v++) adj[v] = new IntList();
+        for (int v = 0; v < n; v++) {
+            for (int e = g.offsets[v]; e < g.offsets[v + 1]; e++) {
+                int w = g.targets[e];
+                if (w == v) continue;
+                adj[v].add(w);
+                adj[w].add(v); // topology is undirected; directions live in the weights
+            }
+        }
+
+        int[] mark = new int[n];
+        int markGen = 0;
+        boolean[] contracted = new boolean[n];
+        int[] order = new int[n];
+        int[][] upLists = new int[n][];
+        PriorityQueue<Long> pq = new PriorityQueue<>();
+        for (int v = 0; v < n; v++) {
+            markGen++;
+            compact(adj[v], v, contracted, mark, markGen);
+            pq.add(((long) adj[v].size << 32) | v);
+        }
+
+        int next = 0;
+        while (!pq.isEmpty()) {
+            long top = pq.poll();
+            int v = (int) top;
+            if (contracted[v] || adj[v].size != (int) (top >>> 32)) continue; // stale entry
+
+            contracted[v] = true;
+            order[next++] = v;
+            markGen++;
+            compact(adj[v], v, contracted, mark, markGen);
+            int[] nbrs = adj[v].toArray();
+            upLists[v] = nbrs;
+
+            // Clique of the remaining neighbours (fill-in shortcuts)
+            for (int a : nbrs) {
+                markGen++;
+                compact(adj[a], a, contracted, mark, markGen);
+                for (int b : nbrs) {
+                    if (b != a && mark[b] != markGen) {
+                        adj[a].add(b);
+                        mark[b] = markGen;
+                    }
+                }
+                pq.add(((long) adj[a].size << 32) | a);
+            }
+            adj[v] = null;
+        }
+        return new ContractionHierarchy(g, order, upLists);
+    }
+
+    // Drops contracted nodes and duplicates; leaves the survivors marked with gen
+    private static void compact(IntList list, int self, boolean[] contracted, int[] mark, int gen) {
+        int k = 0;
+        for (int i = 0; i < list.size; i++) {
+            int w = list.data[i];
+            if (w == self || contracted[w] || mark[w] == gen) continue;
+            mark[w] = gen;
+            list.data[k++] = w;
+        }
+        list.size = k;
+    }
+
+    private void customize() {
+        System.arraycopy(origUp, 0, wUp, 0, wUp.length);
+        System.arraycopy(origDown, 0, wDown, 0, wDown.length);
+        Arrays.fill(midUp, -1);
+        Arrays.fill(midDown, -1);
+        // Arcs owned by x are final once all lower nodes are processed
+        for (int x = 0; x < ids.length; x++) {
+            for (int i = upOff[x]; i < upOff[x + 1]; i++) {
+                for (int j = i + 1; j < upOff[x + 1]; j++) {
+                    int u = upTarget[i], w = upTarget[j]; // u < w since targets are sorted
+                    int e = findArc(u, w);
+                    relax(e, x, i, j);
+                }
+            }
+        }
+    }
+
+    // Lower triangle through x: arcs i = {x,u}, j = {x,w}, e = {u,w} with x < u < w
+    private boolean relax(int e, int x, int i, int j) {
+        boolean changed = false;
+        long viaUp = (long) wDown[i] + wUp[j];   // u -> x -> w
+        if (viaUp < wUp[e]) { wUp[e] = (int) viaUp; midUp[e] = x; changed = true; }
+        long viaDown = (long) wDown[j] + wUp[i]; // w -> x -> u
+        if (viaDown < wDown[e]) { wDown[e] = (int) viaDown; midDown[e] = x; changed = true; }
+        return changed;
+    }
+
+    // --- partial re-customization ---
+
+    // Applies a new weight to the directed edge fromNode -> toNode and re-customizes
+    // only the arcs whose lower triangles (transitively) include it.
+    public void updateEdgeWeight(int fromNode, int toNode, int weight) {
+        int a = source.indexOf(fromNode), b = source.indexOf(toNode);
+        if (a < 0 || b < 0 || a == b) return;
+        int ra = rankOf[a], rb = rankOf[b];
+        int e = findArc(Math.min(ra, rb), Math.max(ra, rb));
+        if (e < 0) return;
+        setOriginal(ra, rb, weight);
+
+        // Arc ids are ordered by owner rank, which is exactly the dependency order
+        TreeSet<Integer> pending = new TreeSet<>();
+        pending.add(e);
+        lastUpdateArcs = 0;
+        while (!pending.isEmpty()) {
+            int arc = pending.pollFirst();
+            lastUpdateArcs++;
+            int u = arcOwner[arc], w = upTarget[arc];
+            int oldUp = wUp[arc], oldDown = wDown[arc];
+            recomputeArc(arc, u, w);
+            if (wUp[arc] == oldUp && wDown[arc] == oldDown) continue;
+
+            // {u,w} is a leg of the triangles u < w < y and u < y < w (owned by w or y)
+            for (int i = upOff[u]; i < upOff[u + 1]; i++) {
+                int y = upTarget[i];
+                if (y == w) continue;
+                int dep = y < w ? findArc(y, w) : findArc(w, y);
+                if (dep >= 0) pending.add(dep);
+            }
+        }
+    }
+
+    private void recomputeArc(int e, int u, int w) {
+        wUp[e] = origUp[e];
+        wDown[e] = origDown[e];
+        midUp[e] = -1;
+        midDown[e] = -1;
+        // Common lower neighbours of u and w (both down lists are sorted by owner)
+        int p = downOff[u], q = downOff[w];
+        while (p < downOff[u + 1] && q < downOff[w + 1]) {
+            int xu = downOwner[p], xw = downOwner[q];
+            if (xu < xw) p++;
+            else if (xw < xu) q++;
+            else { relax(e, xu, downArc[p], downArc[q]); p++; q++; }
+        }
+    }
+
+    private void setOriginal(int ra, int rb, int weight) {
+        int e = findArc(Math.min(ra, rb), Math.max(ra, rb));
+        if (ra < rb) origUp[e] = weight; else origDown[e] = weight;
+    }
+
+    private int originalWeight(int ra, int rb) {
+        int e = findArc(Math.min(ra, rb), Math.max(ra, rb));
+        return ra < rb ? origUp[e] : origDown[e];
+    }
+
+    private int findArc(int owner, int target) {
+        int idx = Arrays.binarySearch(upTarget, upOff[owner], upOff[owner + 1], target);
+        return idx >= 0 ? idx : -1;
+    }
+
+    // --- bidirectional query ---
+
+    // A shortest route: its distance always equals plain Dijkstra's, but where several
+    // paths tie the hierarchy may pick a different one than RouteSearch would
+    public Route query(int startNode, int endNode, Map<Integer, String> names) {
+        int si = source.indexOf(startNode), ti = source.indexOf(endNode);
+        if (si < 0 || ti < 0) return new Route(new int[0], INF, 0, names);
+        int s = rankOf[si], t = rankOf[ti];
+
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stampF, 0);
+            Arrays.fill(stampB, 0);
+            generation = 1;
+        }
+        heapF.clear();
+        heapB.clear();
+        stampF[s] = generation; distF[s] = 0; parF[s] = -1; heapF.push(s);
+        stampB[t] = generation; distB[t] = 0; parB[t] = -1; heapB.push(t);
+
+        long best = INF;
+        int meet = -1;
+        int expanded = 0;
+        while (!heapF.isEmpty() || !heapB.isEmpty()) {
+            boolean forward = heapB.isEmpty() || (!heapF.isEmpty() && distF[heapF.peek()] <= distB[heapB.peek()]);
+            IndexedHeap heap = forward ? heapF : heapB;
+            int[] dist = forward ? distF : distB;
+            if (dist[heap.peek()] >= best) { // this side can no longer improve the meeting point
+                heap.clear();
+                continue;
+            }
+            int v = heap.pop();
+            expanded++;
+
+            int[] otherStamp = forward ? stampB : stampF;
+            int[] otherDist = forward ? distB : distF;
+            if (otherStamp[v] == generation && (long) dist[v] + otherDist[v] < best) {
+                best = (long) dist[v] + otherDist[v];
+                meet = v;
+            }
+
+            int[] w = forward ? wUp : wDown; // forward climbs v -> target, backward target -> v
+            int[] stamp = forward ? stampF : stampB;
+            int[] par = forward ? parF : parB;
+            for (int e = upOff[v]; e < upOff[v + 1]; e++) {
+                if (w[e] == INF) continue;
+                int y = upTarget[e];
+                long sum = (long) dist[v] + w[e];
+                if (sum >= INF) continue; // too long to be a route, and dist[] must not wrap
+                int nd = (int) sum;
+                if (stamp[y] != generation) {
+                    stamp[y] = generation; dist[y] = nd; par[y] = e; heap.push(y);
+                } else if (nd < dist[y] && heap.contains(y)) {
+                    dist[y] = nd; par[y] = e; heap.decreased(y);
+                }
+            }
+        }
+
+        if (meet < 0) return new Route(new int[0], INF, expanded, names);
+
+        IntList path = pathScratch;
+        path.size = 0;
+        // s .. meet: walk parents down, then unpack each arc in travel order
+        IntList upArcs = arcScratch;
+        upArcs.size = 0;
+        for (int v = meet; parF[v] != -1; v = arcOwner[parF[v]]) upArcs.add(parF[v]);
+        path.add(s);
+        for (int i = upArcs.size - 1; i >= 0; i--) {
+            int e = upArcs.data[i];
+            unpack(arcOwner[e], upTarget[e], path);
+        }
+        // meet .. t: each backward parent arc is travelled target -> owner
+        for (int v = meet; parB[v] != -1; ) {
+            int e = parB[v];
+            int owner = arcOwner[e];
+            unpack(upTarget[e], owner, path);
+            v = owner;
+        }
+
+        int[] nodes = new int[path.size];
+        for (int i = 0; i < path.size; i++) nodes[i] = ids[path.data[i]];
+        return new Route(nodes, (int) best, expanded, names);
+    }
+
+    // Appends the original-edge expansion of a -> b (excluding a) to path
+    private void unpack(int a, int b, IntList path) {
+        IntList stack = unpackStack;
+        stack.size = 0;
+        stack.add(a); stack.add(b);
+        while (stack.size > 0) {
+            int to = stack.data[--stack.size];
+            int from = stack.data[--stack.size];
+            int e = from < to ? findArc(from, to) : findArc(to, from);
+            int mid = from < to ? midUp[e] : midDown[e];
+            if (mid < 0) {
+                path.add(to);
+            } else { // push second half first so from -> mid is expanded first
+                stack.add(mid); stack.add(to);
+                stack.add(from); stack.add(mid);
+            }
+        }
+    }
+
+    // --- stats ---
+
+    public int getNodeCount() { return ids.length; }
+    public int getArcCount() { return upTarget.length; }
+    public int getLastUpdateArcs() { return lastUpdateArcs; }
+
+    @Override
+    public String toString() {
+        return "CH: " + ids.length + " nodes, " + upTarget.length + " arcs ("
+                + (upTarget.length - source.edgeCount() / 2) + " beyond original)";
+    }
+}
+
+// Growable int array (avoids boxing in the preprocessing and unpacking loops)
+final class IntList {
+    int[] data = new int[8];
+    int size = 0;
+
+    void add(int v) {
+        if (size == data.length) data = Arrays.copyOf(data, size * 2);
+        data[size++] = v;
+    }
+
+    int[] toArray() { return Arrays.copyOf(data, size); }
+}
+
+// Indexed binary min-heap over node indices, keyed by an external int[] array
+final class IndexedHeap {
+    private final int[] heap;
+    private final int[] pos; // -1 = not in heap
+    private final int[] key;
+    private int size;
+
+    IndexedHeap(int capacity, int[] key) {
+        this.heap = new int[capacity];
+        this.pos = new int[capacity];
+        this.key = key;
+        Arrays.fill(pos, -1);
+    }
+
+    boolean isEmpty() { return size == 0; }
+    int peek() { return heap[0]; }
+    boolean contains(int v) { return pos[v] >= 0; }
+
+    void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    void push(int v) {
+        heap[size] = v;
+        pos[v] = size;
+        siftUp(size++);
+    }
+
+    void decreased(int v) { siftUp(pos[v]); }
+
+    int pop() {
+        int top = heap[0];
+        pos[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        int k = key[v];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int pv = heap[parent];
+            if (key[pv] <= k) break;
+            heap[i] = pv;
+            pos[pv] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        int k = key[v];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && key[heap[right]] < key[heap[child]]) child = right;
+            int cv = heap[child];
+            if (k <= key[cv]) break;
+            heap[i] = cv;
+            pos[cv] = i;
+            i = child;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+}
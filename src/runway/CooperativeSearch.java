@@ -0,0 +1,378 @@
+package runway;
+
+import java.util.Arrays;
+import java.util.Map;
+
+// ==========================================
+// COOPERATIVE SEARCH (space-time A*)
+// ==========================================
+
+// Space-time A* over a TaxiwayGraph against a ReservationTable: finds the earliest
+// arrival at the target that keeps clear of every reservation, waiting at a node for a
+// tick where the way ahead is taken, then reserves the result.
+//
+// A state is (node, tick); its cost is the tick itself, so a state is final as soon as it
+// is discovered and the search needs no decrease-key. The heuristic is the exact taxi
+// time to the target ignoring traffic, from a reverse Dijkstra over edge ticks that is
+// resumed only as far as the nodes the forward search asks about ("reverse resumable
+// A*"). With it the search runs straight down the free route and only spreads out where
+// it has to wait. The start and target are not reserved or checked: they are runway
+// exits and gates, which hold several aircraft and are managed by RunwayIndex /
+// GateAllocator.
+//
+// Scratch arrays grow with the largest search and are reused; one instance per graph
+// snapshot, used under AirportBackend's monitor.
+final class CooperativeSearch {
+    static final int MAX_EXPANSIONS = 50_000;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final TaxiwayGraph graph;
+    private final int[] edgeTicks;   // per CSR edge: ticks to traverse, -1 if closed
+    private final int[] inOffsets, inSources, inTicks; // reversed CSR (closures are one-way)
+
+    // Reverse search from the target: ticks to reach it, valid where toStamp == generation
+    private final int[] toTarget, toStamp, rHeap, rHeapPos;
+    private int rHeapSize;
+
+    // Discovered states, by index
+    private int[] node = new int[1024], time = new int[1024], parent = new int[1024], f = new int[1024];
+    private int states;
+    private int[] heap = new int[1024];
+    private int heapSize;
+
+    // (node, time) seen this search: open addressing, cleared per search by generation
+    private long[] seenKey = new long[4096];
+    private int[] seenStamp = new int[4096];
+    private int generation;
+
+    private long conflicts; // see reserveFixed
+
+    CooperativeSearch(TaxiwayGraph graph, long tickMillis) {
+        this.graph = graph;
+        int n = graph.size(), m = graph.edgeCount();
+        double unitsPerTick = TrafficController.TAXI_UNITS_PER_SECOND * tickMillis / 1000.0;
+        edgeTicks = new int[m];
+        for (int e = 0; e < m; e++) {
+            int w = graph.weights[e];
+            edgeTicks[e] = w == Integer.MAX_VALUE ? -1 : (int) Math.max(1, Math.ceil(w / unitsPerTick));
+        }
+
+        inOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) inOffsets[graph.targets[e] + 1]++;
+        for (int v = 0; v < n; v++) inOffsets[v + 1] += inOffsets[v];
+        inSources = new int[m];
+        inTicks = new int[m];
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int k = fill[graph.targets[e]]++;
+                inSources[k] = u;
+                inTicks[k] = edgeTicks[e];
+            }
+        }
+
+        toTarget = new int[n];
+        toStamp = new int[n];
+        rHeap = new int[n];
+        rHeapPos = new int[n];
+    }
+
+    TaxiwayGraph getGraph() { return graph; }
+
+    // Plans and reserves a route cleared at departMillis. Null if no conflict-free route
+    // reaches the target inside the table's horizon (or within MAX_EXPANSIONS); an
+    // unreachable target gives an unreachable Route, as RouteSearch does.
+    Route plan(int startNode, int endNode, long departMillis, ReservationTable table, Map<Integer, String> names) {
+        int s = graph.indexOf(startNode);
+        int t = graph.indexOf(endNode);
+        if (s < 0 || t < 0) return new Route(new int[0], Integer.MAX_VALUE, 0, names);
+
+        long t0 = table.tickOf(departMillis);
+        table.advanceTo(t0);
+        int limit = table.getHorizon() - 1;
+        int[] ids = graph.ids, offsets = graph.offsets, targets = graph.targets;
+
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            Arrays.fill(toStamp, 0);
+            generation = 1;
+        }
+        startReverse(t);
+        if (ticksToTarget(s) == UNREACHABLE) return new Route(new int[0], Integer.MAX_VALUE, 0, names);
+
+        states = 0;
+        heapSize = 0;
+        add(s, 0, -1);
+        int expanded = 0;
+        int goal = -1;
+        while (heapSize > 0 && expanded < MAX_EXPANSIONS) {
+            int k = pop();
+            expanded++;
+            int u = node[k], at = time[k];
+            if (u == t) {
+                goal = k;
+                break;
+            }
+            if (f[k] > limit) break; // nothing left can arrive inside the window
+            // Wait one tick where we are
+            if (u == s || table.isFree(ReservationTable.nodeKey(ids[u]), t0 + at + 1)) add(u, at + 1, k);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int d = edgeTicks[e];
+                if (d < 0) continue;
+                int v = targets[e];
+                if (v != t && !table.isFree(ReservationTable.nodeKey(ids[v]), t0 + at + d)) continue;
+                long edge = ReservationTable.edgeKey(ids[u], ids[v]);
+                boolean free = true;
+                for (int i = 0; i < d && free; i++) free = table.isFree(edge, t0 + at + i);
+                if (free) add(v, at + d, k);
+            }
+        }
+        return goal < 0 ? null : reserve(goal, t0, table, expanded, names);
+    }
+
+    // Collapses waits into arrival / departure times per node and books the route
+    private Route reserve(int goal, long t0, ReservationTable table, int expanded, Map<Integer, String> names) {
+        int hops = 0;
+        for (int k = goal; k != -1; k = parent[k]) {
+            if (parent[k] == -1 || node[parent[k]] != node[k]) hops++;
+        }
+        int[] nodes = new int[hops];
+        long[] arrive = new long[hops], leave = new long[hops];
+        int i = hops;
+        for (int k = goal; k != -1; k = parent[k]) {
+            if (i < hops && nodes[i] == graph.ids[node[k]]) {
+                arrive[i] = time[k]; // earlier state of the same stay
+                continue;
+            }
+            i--;
+            nodes[i] = graph.ids[node[k]];
+            arrive[i] = leave[i] = time[k];
+        }
+
+        long tick = table.getTickMillis();
+        int distance = 0;
+        for (i = 0; i < hops; i++) {
+            if (i > 0) distance += weight(nodes[i - 1], nodes[i]);
+            if (i > 0 && i < hops - 1) {
+                long key = ReservationTable.nodeKey(nodes[i]);
+                for (long at = arrive[i]; at <= leave[i]; at++) table.reserve(key, t0 + at);
+            }
+            if (i < hops - 1) {
+                long key = ReservationTable.edgeKey(nodes[i], nodes[i + 1]);
+                for (long at = leave[i]; at < arrive[i + 1]; at++) table.reserve(key, t0 + at);
+            }
+            arrive[i] *= tick;
+            leave[i] *= tick;
+        }
+        return new Route(nodes, distance, expanded, names, arrive, leave);
+    }
+
+    // Fallback when plan() finds nothing: books a fixed route (normally the static
+    // shortest path) at free-flow taxi times from departMillis, so later plans route
+    // around this flight as well. Cells that an earlier flight already holds are booked
+    // anyway and counted in getConflicts(). Null if the route is unreachable or uses a
+    // closed edge, or if the window cannot hold the whole trip.
+    Route reserveFixed(Route route, long departMillis, ReservationTable table, Map<Integer, String> names) {
+        if (!route.isReachable()) return null;
+        int hops = route.length();
+        int[] nodes = new int[hops], ticks = new int[hops];
+        for (int i = 0; i < hops; i++) {
+            nodes[i] = route.nodeAt(i);
+            if (i == 0) continue;
+            int d = edgeTicks(nodes[i - 1], nodes[i]);
+            if (d < 0) return null;
+            ticks[i] = ticks[i - 1] + d;
+        }
+        long t0 = table.tickOf(departMillis);
+        table.advanceTo(t0);
+        if (ticks[hops - 1] >= table.getHorizon()) return null;
+
+        long tick = table.getTickMillis();
+        long[] arrive = new long[hops], leave = new long[hops];
+        for (int i = 0; i < hops; i++) {
+            if (i > 0 && i < hops - 1) book(ReservationTable.nodeKey(nodes[i]), t0 + ticks[i], table);
+            if (i < hops - 1) {
+                long key = ReservationTable.edgeKey(nodes[i], nodes[i + 1]);
+                for (long at = ticks[i]; at < ticks[i + 1]; at++) book(key, t0 + at, table);
+            }
+            arrive[i] = leave[i] = ticks[i] * tick;
+        }
+        return new Route(nodes, route.getDistance(), route.getExpandedNodes(), names, arrive, leave);
+    }
+
+    private void book(long key, long tick, ReservationTable table) {
+        if (!table.isFree(key, tick)) conflicts++;
+        table.reserve(key, tick);
+    }
+
+    // Cells booked by reserveFixed that another flight already held
+    long getConflicts() { return conflicts; }
+
+    // Ticks to traverse the fastest edge fromId -> toId; -1 if there is none or it is closed
+    private int edgeTicks(int fromId, int toId) {
+        int u = graph.indexOf(fromId), v = graph.indexOf(toId);
+        if (u < 0 || v < 0) return -1;
+        int best = -1;
+        for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+            if (graph.targets[e] == v && edgeTicks[e] >= 0 && (best < 0 || edgeTicks[e] < best)) best = edgeTicks[e];
+        }
+        return best;
+    }
+
+    private int weight(int fromId, int toId) {
+        int u = graph.indexOf(fromId), v = graph.indexOf(toId);
+        int best = Integer.MAX_VALUE;
+        for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+            if (graph.targets[e] == v) best = Math.min(best, graph.weights[e]);
+        }
+        return best;
+    }
+
+    // --- heuristic: reverse Dijkstra from the target, resumed on demand ---
+
+    private void startReverse(int t) {
+        rHeapSize = 0;
+        toStamp[t] = generation;
+        toTarget[t] = 0;
+        rPush(t);
+    }
+
+    // Settles nodes in order of distance until v is settled; UNREACHABLE if it never is
+    private int ticksToTarget(int v) {
+        while (toStamp[v] != generation || rHeapPos[v] >= 0) {
+            if (rHeapSize == 0) return UNREACHABLE;
+            int u = rPop();
+            int du = toTarget[u];
+            for (int k = inOffsets[u]; k < inOffsets[u + 1]; k++) {
+                int d = inTicks[k];
+                if (d < 0) continue;
+                int w = inSources[k], nd = du + d;
+                if (toStamp[w] != generation) {
+                    toStamp[w] = generation;
+                    toTarget[w] = nd;
+                    rPush(w);
+                } else if (nd < toTarget[w] && rHeapPos[w] >= 0) {
+                    toTarget[w] = nd;
+                    rSiftUp(rHeapPos[w]);
+                }
+            }
+        }
+        return toTarget[v];
+    }
+
+    private void rPush(int v) {
+        rHeap[rHeapSize] = v;
+        rHeapPos[v] = rHeapSize;
+        rSiftUp(rHeapSize++);
+    }
+
+    private int rPop() {
+        int top = rHeap[0];
+        rHeapPos[top] = -1;
+        int last = rHeap[--rHeapSize];
+        if (rHeapSize > 0) {
+            int i = 0, half = rHeapSize >>> 1, d = toTarget[last];
+            while (i < half) {
+                int c = 2 * i + 1;
+                if (c + 1 < rHeapSize && toTarget[rHeap[c + 1]] < toTarget[rHeap[c]]) c++;
+                if (d <= toTarget[rHeap[c]]) break;
+                rHeap[i] = rHeap[c];
+                rHeapPos[rHeap[i]] = i;
+                i = c;
+            }
+            rHeap[i] = last;
+            rHeapPos[last] = i;
+        }
+        return top;
+    }
+
+    private void rSiftUp(int i) {
+        int v = rHeap[i], d = toTarget[v];
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (toTarget[rHeap[p]] <= d) break;
+            rHeap[i] = rHeap[p];
+            rHeapPos[rHeap[i]] = i;
+            i = p;
+        }
+        rHeap[i] = v;
+        rHeapPos[v] = i;
+    }
+
+    // --- states ---
+
+    private void add(int v, int at, int from) {
+        int h = ticksToTarget(v);
+        if (h == UNREACHABLE) return;
+        long key = ((long) v << 32) | at;
+        int m = seenKey.length - 1;
+        int i = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & m;
+        for (; seenStamp[i] == generation; i = (i + 1) & m) {
+            if (seenKey[i] == key) return; // cost is the tick, so the first visit is final
+        }
+        seenKey[i] = key;
+        seenStamp[i] = generation;
+
+        if (states == node.length) {
+            int cap = states * 2;
+            node = Arrays.copyOf(node, cap);
+            time = Arrays.copyOf(time, cap);
+            parent = Arrays.copyOf(parent, cap);
+            f = Arrays.copyOf(f, cap);
+            heap = Arrays.copyOf(heap, cap);
+        }
+        int k = states++;
+        node[k] = v;
+        time[k] = at;
+        parent[k] = from;
+        f[k] = at + h;
+        push(k);
+        if (states * 2 > seenKey.length) growSeen();
+    }
+
+    // Rehashes this search's states into a bigger table (stamps restart at the current generation)
+    private void growSeen() {
+        int cap = seenKey.length * 2, m = cap - 1;
+        seenKey = new long[cap];
+        seenStamp = new int[cap];
+        for (int k = 0; k < states; k++) {
+            long key = ((long) node[k] << 32) | time[k];
+            int i = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & m;
+            while (seenStamp[i] == generation) i = (i + 1) & m;
+            seenKey[i] = key;
+            seenStamp[i] = generation;
+        }
+    }
+
+    // --- min-heap on f, later tick first among equals (it is closer to the target) ---
+
+    private boolean before(int a, int b) {
+        return f[a] < f[b] || (f[a] == f[b] && time[a] > time[b]);
+    }
+
+    private void push(int k) {
+        int i = heapSize++;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (!before(k, heap[p])) break;
+            heap[i] = heap[p];
+            i = p;
+        }
+        heap[i] = k;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int k = heap[--heapSize];
+        int i = 0, half = heapSize >>> 1;
+        while (i < half) {
+            int c = 2 * i + 1;
+            if (c + 1 < heapSize && before(heap[c + 1], heap[c])) c++;
+            if (!before(heap[c], k)) break;
+            heap[i] = heap[c];
+            i = c;
+        }
+        if (heapSize > 0) heap[i] = k;
+        return top;
+    }
+}
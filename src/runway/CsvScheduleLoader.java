@@ -0,0 +1,218 @@
+package runway;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+// ==========================================
+// STREAMING SCHEDULE INGESTION
+// ==========================================
+
+// Parses "id,priority,size,gate,fuel[,turnaround]" rows from a byte channel in fixed-size
+// blocks. Rows are handed out in ScheduleBatch chunks; malformed rows are counted and
+// written to an optional reject report instead of aborting the load.
+class CsvScheduleLoader {
+    static final int DEFAULT_BATCH = 4096;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_SAMPLES = 100;
+
+    // Outcome of a load: totals plus the first few rejected rows for display
+    static final class Report {
+        long accepted = 0;
+        long rejected = 0;
+        long lines = 0;
+        final List<String> samples = new ArrayList<>();
+
+        @Override
+        public String toString() {
+            return accepted + " flights loaded, " + rejected + " rows rejected (" + lines + " lines)";
+        }
+    }
+
+    private final int batchSize;
+    private IntPredicate gateCheck = g -> true;
+    private Writer rejectWriter;
+    private ProgressListener progress;
+    private final int[] fieldEnds = new int[6]; // comma / end positions of the current row
+
+    interface ProgressListener {
+        void bytesRead(long done, long total);
+    }
+
+    CsvScheduleLoader() { this(DEFAULT_BATCH); }
+    CsvScheduleLoader(int batchSize) { this.batchSize = batchSize; }
+
+    public void setGateCheck(IntPredicate check) { this.gateCheck = check; }
+    public void setRejectWriter(Writer writer) { this.rejectWriter = writer; }
+    public void setProgressListener(ProgressListener listener) { this.progress = listener; }
+
+    // Convenience for headless callers: parse everything straight into the controller
+    public static int load(ReadableByteChannel in, TrafficController controller) throws IOException {
+        CsvScheduleLoader loader = new CsvScheduleLoader();
+        loader.setGateCheck(controller::isKnownLocation);
+        return (int) loader.load(in, -1, controller::requestFlights).accepted;
+    }
+
+    public Report load(Path file, Consumer<ScheduleBatch> sink) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return load(ch, ch.size(), sink);
+        }
+    }
+
+    // totalBytes is only used for progress reporting (-1 if unknown)
+    public Report load(ReadableByteChannel in, long totalBytes, Consumer<ScheduleBatch> sink) throws IOException {
+        Report report = new Report();
+        ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] a = buf.array();
+        ScheduleBatch batch = new ScheduleBatch(batchSize);
+        long consumed = 0;
+        boolean skipping = false; // inside an over-long line, drop bytes until the next newline
+        boolean eof = false;
+
+        while (!eof) {
+            eof = in.read(buf) < 0;
+            int limit = buf.position();
+            int start = 0;
+            for (int i = 0; i < limit; i++) {
+                if (a[i] != '\n') continue;
+                if (skipping) {
+                    skipping = false;
+                } else {
+                    batch = parseLine(a, start, i, report, batch, sink);
+                }
+                start = i + 1;
+            }
+            if (eof && start < limit && !skipping) { // last line without newline
+                batch = parseLine(a, start, limit, report, batch, sink);
+                start = limit;
+            }
+            if (start == 0 && limit == a.length) { // no newline in a full buffer
+                if (!skipping) { // counted here, so this reject and every later one report the right line
+                    report.lines++;
+                    reject(report, "line longer than " + a.length + " bytes", a, 0, 80);
+                }
+                skipping = true;
+                start = limit;
+            }
+            consumed += start;
+            buf.position(start);
+            buf.limit(limit);
+            buf.compact();
+            if (progress != null) progress.bytesRead(consumed, totalBytes);
+        }
+        if (batch.count > 0) sink.accept(batch);
+        if (rejectWriter != null) rejectWriter.flush();
+        return report;
+    }
+
+    private ScheduleBatch parseLine(byte[] a, int from, int to, Report report,
+                                    ScheduleBatch batch, Consumer<ScheduleBatch> sink) throws IOException {
+        report.lines++;
+        if (to > from && a[to - 1] == '\r') to--;
+        if (isBlank(a, from, to)) return batch;
+
+        // Field boundaries
+        int[] cut = fieldEnds;
+        int fields = 0;
+        for (int i = from; i < to && fields < cut.length; i++) {
+            if (a[i] == ',') cut[fields++] = i;
+        }
+        if (fields < cut.length) cut[fields++] = to;
+        if (fields < 5) return reject(report, "expected at least 5 fields", a, from, to, batch);
+
+        int idFrom = skipSpace(a, from, cut[0]), idTo = trimEnd(a, idFrom, cut[0]);
+        if (idFrom == idTo) return reject(report, "empty flight id", a, from, to, batch);
+
+        int prio = parseInt(a, cut[0] + 1, cut[1]);
+        int size = parseInt(a, cut[1] + 1, cut[2]);
+        int gate = parseInt(a, cut[2] + 1, cut[3]);
+        int fuel = parseInt(a, cut[3] + 1, cut[4]);
+        if (prio == BAD || size == BAD || gate == BAD || fuel == BAD) {
+            return reject(report, "non-numeric field", a, from, to, batch);
+        }
+        if (prio < 1 || prio > 3) return reject(report, "priority out of range", a, from, to, batch);
+        if (size < 1 || size > 3) return reject(report, "size out of range", a, from, to, batch);
+        if (fuel < 0 || fuel > 100) return reject(report, "fuel out of range", a, from, to, batch);
+        if (!gateCheck.test(gate)) return reject(report, "unknown gate " + gate, a, from, to, batch);
+
+        int n = batch.count++;
+        batch.ids[n] = new String(a, idFrom, idTo - idFrom, StandardCharsets.UTF_8);
+        batch.priority[n] = prio;
+        batch.size[n] = size;
+        batch.gate[n] = gate;
+        batch.fuel[n] = fuel;
+        batch.turnaround[n] = fields >= 6 && isTrue(a, cut[4] + 1, cut[5]);
+        report.accepted++;
+
+        if (batch.isFull()) {
+            sink.accept(batch);
+            return new ScheduleBatch(batchSize); // the consumer may keep the old one
+        }
+        return batch;
+    }
+
+    private ScheduleBatch reject(Report report, String reason, byte[] a, int from, int to,
+                                 ScheduleBatch batch) throws IOException {
+        reject(report, reason, a, from, to);
+        return batch;
+    }
+
+    private void reject(Report report, String reason, byte[] a, int from, int to) throws IOException {
+        report.rejected++;
+        if (report.samples.size() >= MAX_SAMPLES && rejectWriter == null) return;
+        String row = "line " + report.lines + ": " + reason + " -> "
+                + new String(a, from, Math.min(to - from, 200), StandardCharsets.UTF_8);
+        if (report.samples.size() < MAX_SAMPLES) report.samples.add(row);
+        if (rejectWriter != null) rejectWriter.write(row + System.lineSeparator());
+    }
+
+    // --- byte-level field decoding (shared with FlightIngestServer) ---
+
+    static final int BAD = Integer.MIN_VALUE;
+
+    static int parseInt(byte[] a, int from, int to) {
+        from = skipSpace(a, from, to);
+        to = trimEnd(a, from, to);
+        if (from == to) return BAD;
+        boolean neg = a[from] == '-';
+        if (neg || a[from] == '+') from++;
+        if (from == to || to - from > 9) return BAD; // 9 digits can't overflow an int
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            int d = a[i] - '0';
+            if (d < 0 || d > 9) return BAD;
+            v = v * 10 + d;
+        }
+        return neg ? -v : v;
+    }
+
+    // Same rule as Boolean.parseBoolean: "true" in any case, everything else is false
+    static boolean isTrue(byte[] a, int from, int to) {
+        from = skipSpace(a, from, to);
+        to = trimEnd(a, from, to);
+        if (to - from != 4) return false;
+        return (a[from] | 0x20) == 't' && (a[from + 1] | 0x20) == 'r'
+                && (a[from + 2] | 0x20) == 'u' && (a[from + 3] | 0x20) == 'e';
+    }
+
+    static int skipSpace(byte[] a, int from, int to) {
+        while (from < to && (a[from] == ' ' || a[from] == '\t')) from++;
+        return from;
+    }
+
+    static int trimEnd(byte[] a, int from, int to) {
+        while (to > from && (a[to - 1] == ' ' || a[to - 1] == '\t')) to--;
+        return to;
+    }
+
+    private static boolean isBlank(byte[] a, int from, int to) {
+        return skipSpace(a, from, to) == to;
+    }
+}
@@ -0,0 +1,4 @@
+package runway;
+
+// What the next dispatch would run into (see AutoDispatcher)
+enum DispatchState { READY, EMPTY, RUNWAY_BUSY, GATE_FULL }
@@ -0,0 +1,496 @@
+package runway;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// ==========================================
+// EVENT JOURNAL (memory-mapped, append-only)
+// ==========================================
+
+// Persists FlightJournal events so a restart can rebuild the tower (JournalState).
+//
+// Records are appended to fixed-size segment files mapped into memory
+// (journal-<first seq>.log), each one [length][CRC32C][seq][event], so an append is a
+// few buffer writes under a lock and no system call. Once written, a record survives a
+// crash of the process (it is in the page cache); durability against power loss comes
+// from group commit: a flusher thread forces everything appended in the last
+// commitMillis with one msync, and sync() waits for the force covering its records, so
+// concurrent callers share one.
+//
+// Every snapshotEvery events the flusher writes the current state to
+// snapshot-<seq>.snap (temp file + atomic rename) and deletes segments it covers, so
+// recovery reads one snapshot plus at most snapshotEvery events. Recovery stops at the
+// first torn or corrupt record and continues writing from there.
+final class EventJournal implements FlightJournal, AutoCloseable {
+    static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    static final long DEFAULT_COMMIT_MILLIS = 5;
+    static final int DEFAULT_SNAPSHOT_EVERY = 100_000;
+
+    private static final int HEADER = 16;            // length, crc, seq
+    private static final int SNAPSHOT_MAGIC = 0x52574A53; // "RWJS"
+    private static final String SEGMENT_PREFIX = "journal-", SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-", SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final long commitMillis;
+    private final int snapshotEvery; // 0 = never
+
+    // Everything below is guarded by lock (the flusher forces outside it)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushWanted = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final JournalState state;  // all events so far applied; the source for snapshots
+    private final ByteBuffer scratch = ByteBuffer.allocate(1 << 17);
+    private final CRC32C crc = new CRC32C();
+    private MappedByteBuffer segment;
+    private int writePos, forcedPos;
+    private long seq, durableSeq, sinceSnapshot;
+    private boolean dirty, syncRequested, closed;
+    private byte[] pendingSnapshot;
+    private long pendingSnapshotSeq;
+
+    private final Thread flusher;
+    private long appended = 0, forces = 0, snapshots = 0;
+    private final long recovered;
+    private final double recoveryMillis;
+
+    private EventJournal(Path dir, int segmentBytes, long commitMillis, int snapshotEvery) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.commitMillis = commitMillis;
+        this.snapshotEvery = snapshotEvery;
+
+        long t0 = System.nanoTime();
+        this.state = loadSnapshot();
+        long fromSnapshot = seq;
+        replaySegments();
+        this.durableSeq = seq;
+        this.recovered = seq - fromSnapshot;
+        this.recoveryMillis = (System.nanoTime() - t0) / 1e6;
+
+        flusher = new Thread(this::flushLoop, "journal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public static EventJournal open(Path dir) throws IOException {
+        return open(dir, DEFAULT_SEGMENT_BYTES, DEFAULT_COMMIT_MILLIS, DEFAULT_SNAPSHOT_EVERY);
+    }
+
+    public static EventJournal open(Path dir, int segmentBytes, long commitMillis, int snapshotEvery) throws IOException {
+        Files.createDirectories(dir);
+        return new EventJournal(dir, segmentBytes, commitMillis, snapshotEvery);
+    }
+
+    // Recovered state; read it before events are appended (TrafficController.restore)
+    public JournalState getState() { return state; }
+
+    // ==========================================
+    // FlightJournal events
+    // ==========================================
+
+    @Override
+    public void requested(FlightStore flights, int f) {
+        append(b -> {
+            b.put(JournalState.REQUESTED);
+            JournalState.putString(b, flights.getId(f));
+            b.put(flights.getType(f));
+            b.put((byte) flights.getPriority(f)).put((byte) flights.getSize(f)).putInt(flights.getGate(f)).putInt(flights.getFuel(f));
+            b.put((byte) (flights.isTurnaround(f) ? 1 : 0));
+            b.putLong(flights.getTime(f));
+        });
+    }
+
+    @Override
+    public void heldForGate(FlightStore flights, int f) {
+        append(b -> {
+            b.put(JournalState.HELD_FOR_GATE);
+            JournalState.putString(b, flights.getId(f));
+            b.putInt(flights.getFuel(f)).put((byte) flights.getPriority(f));
+        });
+    }
+
+    @Override
+    public void resumed(String id) {
+        append(b -> JournalState.putString(b.put(JournalState.RESUMED), id));
+    }
+
+    @Override
+    public void assigned(String id, int runway) {
+        append(b -> JournalState.putString(b.put(JournalState.ASSIGNED), id).putInt(runway));
+    }
+
+    @Override
+    public void gateAcquired(int gate) {
+        append(b -> b.put(JournalState.GATE_ACQUIRED).putInt(gate));
+    }
+
+    @Override
+    public void gateReleased(int gate) {
+        append(b -> b.put(JournalState.GATE_RELEASED).putInt(gate));
+    }
+
+    @Override
+    public void statusChanged(String id, FlightStatus status) {
+        append(b -> JournalState.putString(b.put(JournalState.STATUS), id).put((byte) status.ordinal()));
+    }
+
+    @Override
+    public void fuelChanged(FlightStore flights, int f) {
+        append(b -> JournalState.putString(b.put(JournalState.FUEL), flights.getId(f))
+                .putInt(flights.getFuel(f)).put((byte) flights.getPriority(f)));
+    }
+
+    @Override
+    public void completed(String id) {
+        append(b -> JournalState.putString(b.put(JournalState.COMPLETED), id));
+    }
+
+    @Override
+    public void maintenanceChanged(boolean runway1Down) {
+        append(b -> b.put(JournalState.MAINTENANCE).put((byte) (runway1Down ? 1 : 0)));
+    }
+
+    // ==========================================
+    // Append + group commit
+    // ==========================================
+
+    // Writes one record and returns its sequence number (see sync / awaitDurable)
+    long append(Consumer<ByteBuffer> event) {
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Journal is closed");
+            scratch.clear();
+            event.accept(scratch);
+            scratch.flip();
+            int len = scratch.remaining();
+            if (writePos + HEADER + len > segment.capacity()) roll(len);
+
+            long s = ++seq;
+            segment.putLong(writePos + 8, s);
+            segment.put(writePos + HEADER, scratch, 0, len);
+            crc.reset();
+            crc.update(segment.slice(writePos + 8, 8 + len));
+            segment.putInt(writePos + 4, (int) crc.getValue());
+            segment.putInt(writePos, len); // last: a record is visible only once complete
+            writePos += HEADER + len;
+
+            state.apply(scratch);
+            appended++;
+            if (!dirty) {
+                dirty = true;
+                flushWanted.signal();
+            }
+            if (snapshotEvery > 0 && ++sinceSnapshot >= snapshotEvery && pendingSnapshot == null) {
+                pendingSnapshot = state.encode();
+                pendingSnapshotSeq = s;
+                sinceSnapshot = 0;
+            }
+            return s;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Blocks until every event appended so far is forced to disk
+    public void sync() throws InterruptedException {
+        long s;
+        lock.lock();
+        try {
+            s = seq;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(s);
+    }
+
+    public void awaitDurable(long s) throws InterruptedException {
+        lock.lock();
+        try {
+            while (durableSeq < s) {
+                if (closed && !flusher.isAlive()) throw new IllegalStateException("Journal is closed");
+                syncRequested = true;
+                flushWanted.signal();
+                flushed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            while (true) {
+                MappedByteBuffer buf;
+                int from, to;
+                long target;
+                byte[] snapshot;
+                long snapshotSeq;
+                lock.lock();
+                try {
+                    while (!dirty && !closed) flushWanted.await();
+                    if (!dirty) return; // closed and nothing left
+                    // Group window: let more appends join unless someone is waiting in sync()
+                    long nanos = TimeUnit.MILLISECONDS.toNanos(commitMillis);
+                    while (!syncRequested && !closed && nanos > 0) nanos = flushWanted.awaitNanos(nanos);
+                    buf = segment;
+                    from = forcedPos;
+                    to = writePos;
+                    target = seq;
+                    snapshot = pendingSnapshot;
+                    snapshotSeq = pendingSnapshotSeq;
+                    dirty = false;
+                    syncRequested = false;
+                } finally {
+                    lock.unlock();
+                }
+
+                if (to > from) buf.force(from, to - from);
+                lock.lock();
+                try {
+                    if (segment == buf) forcedPos = Math.max(forcedPos, to);
+                    durableSeq = Math.max(durableSeq, target);
+                    forces++;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+
+                if (snapshot != null) writeSnapshot(snapshot, snapshotSeq);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Current segment is full: force it, then continue in a new one starting at seq + 1
+    private void roll(int len) {
+        if (HEADER + len > segmentBytes) throw new IllegalArgumentException("Journal record of " + len + " bytes exceeds the segment size");
+        segment.force(forcedPos, writePos - forcedPos);
+        durableSeq = seq;
+        flushed.signalAll();
+        try {
+            segment = mapSegment(dir.resolve(segmentName(seq + 1)), segmentBytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create journal segment: " + e.getMessage(), e);
+        }
+        writePos = forcedPos = 0;
+    }
+
+    // Forces what is left and stops the flusher. Snapshots are periodic only, so recovery
+    // time does not depend on having shut down cleanly.
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            flushWanted.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            segment.force(); // in case the flusher was interrupted
+            durableSeq = seq;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==========================================
+    // Snapshots
+    // ==========================================
+
+    private void writeSnapshot(byte[] body, long s) {
+        try {
+            Path tmp = dir.resolve("snapshot.tmp");
+            CRC32C c = new CRC32C();
+            c.update(body);
+            ByteBuffer head = ByteBuffer.allocate(20);
+            head.putInt(SNAPSHOT_MAGIC).putLong(s).putInt(body.length).putInt((int) c.getValue()).flip();
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ch.write(new ByteBuffer[]{head, ByteBuffer.wrap(body)});
+                ch.force(true);
+            }
+            Files.move(tmp, dir.resolve(snapshotName(s)), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            lock.lock();
+            try {
+                if (pendingSnapshotSeq == s) pendingSnapshot = null;
+                snapshots++;
+            } finally {
+                lock.unlock();
+            }
+            prune(s);
+        } catch (IOException e) {
+            System.err.println("Journal snapshot failed: " + e.getMessage()); // the journal itself stays valid
+        }
+    }
+
+    // Deletes older snapshots and every segment whose records are all covered by snapshot s
+    private void prune(long s) throws IOException {
+        for (Path p : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (seqOf(p, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < s) Files.deleteIfExists(p);
+        }
+        List<Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (seqOf(segments.get(i + 1), SEGMENT_PREFIX, SEGMENT_SUFFIX) - 1 <= s) Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    // Newest snapshot that reads back intact (an unreadable one falls back to the previous)
+    private JournalState loadSnapshot() throws IOException {
+        List<Path> snaps = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snaps.size() - 1; i >= 0; i--) {
+            ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(snaps.get(i)));
+            if (b.remaining() < 20 || b.getInt() != SNAPSHOT_MAGIC) continue;
+            long s = b.getLong();
+            int len = b.getInt(), expected = b.getInt();
+            if (b.remaining() != len) continue;
+            CRC32C c = new CRC32C();
+            c.update(b.duplicate());
+            if ((int) c.getValue() != expected) continue;
+            seq = s;
+            return JournalState.decode(b);
+        }
+        return new JournalState();
+    }
+
+    // ==========================================
+    // Recovery
+    // ==========================================
+
+    private void replaySegments() throws IOException {
+        List<Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        boolean torn = false;
+        for (int i = 0; i < segments.size(); i++) {
+            Path p = segments.get(i);
+            if (torn) { // nothing after a gap can be trusted
+                Files.delete(p);
+                continue;
+            }
+            boolean last = i + 1 == segments.size();
+            if (!last && seqOf(segments.get(i + 1), SEGMENT_PREFIX, SEGMENT_SUFFIX) - 1 <= seq) continue; // snapshot covers it
+            MappedByteBuffer buf = mapSegment(p, (int) Math.max(Files.size(p), segmentBytes));
+            int pos = 0;
+            while (pos + HEADER <= buf.capacity()) {
+                int len = buf.getInt(pos);
+                if (len == 0) break;
+                if (len < 0 || pos + HEADER + len > buf.capacity() || !validRecord(buf, pos, len)) {
+                    torn = true;
+                    break;
+                }
+                long s = buf.getLong(pos + 8);
+                if (s > seq) {
+                    if (s != seq + 1) {
+                        torn = true;
+                        break;
+                    }
+                    state.apply(buf.slice(pos + HEADER, len));
+                    seq = s;
+                }
+                pos += HEADER + len;
+            }
+            if (torn || last) {
+                if (torn) clear(buf, pos); // new records must not run into the torn remains
+                segment = buf;
+                writePos = forcedPos = pos;
+            }
+        }
+        if (segment == null) segment = mapSegment(dir.resolve(segmentName(seq + 1)), segmentBytes);
+    }
+
+    private static void clear(MappedByteBuffer buf, int from) {
+        byte[] zeros = new byte[64 * 1024];
+        for (int pos = from; pos < buf.capacity(); pos += zeros.length) {
+            buf.put(pos, zeros, 0, Math.min(zeros.length, buf.capacity() - pos));
+        }
+        buf.force();
+    }
+
+    private boolean validRecord(MappedByteBuffer buf, int pos, int len) {
+        crc.reset();
+        crc.update(buf.slice(pos + 8, 8 + len));
+        return (int) crc.getValue() == buf.getInt(pos + 4);
+    }
+
+    private static MappedByteBuffer mapSegment(Path p, int size) throws IOException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, size); // stays valid after close
+        }
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        List<Path> out = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> {
+                String n = p.getFileName().toString();
+                return n.startsWith(prefix) && n.endsWith(suffix);
+            }).forEach(out::add);
+        }
+        out.sort(null); // zero-padded sequence numbers sort by name
+        return out;
+    }
+
+    private static long seqOf(Path p, String prefix, String suffix) {
+        String n = p.getFileName().toString();
+        return Long.parseLong(n.substring(prefix.length(), n.length() - suffix.length()));
+    }
+
+    private static String segmentName(long firstSeq) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX);
+    }
+
+    private static String snapshotName(long s) {
+        return String.format("%s%020d%s", SNAPSHOT_PREFIX, s, SNAPSHOT_SUFFIX);
+    }
+
+    // ==========================================
+    // Stats
+    // ==========================================
+
+    public long getSequence() {
+        lock.lock();
+        try {
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAppended() { return appended; }
+    public long getForces() { return forces; }
+    public long getSnapshots() { return snapshots; }
+    public long getRecoveredEvents() { return recovered; }
+    public double getRecoveryMillis() { return recoveryMillis; }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return String.format("Journal: seq %d, %d events replayed in %.1f ms, %d appended, %d forces, %d snapshots; %s",
+                    seq, recovered, recoveryMillis, appended, forces, snapshots, state);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
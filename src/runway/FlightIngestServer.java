@@ -0,0 +1,567 @@
+package runway;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+// ==========================================
+// FLIGHT INGEST (non-blocking socket endpoint)
+// ==========================================
+
+// Machine interface for scheduling feeds. One selector thread serves every connection;
+// the protocol is ASCII lines ending in '\n' ('\r\n' is accepted too):
+//
+//   L id,priority,size,gate,fuel[,turnaround]   landing request (the CSV schedule row)
+//   T id,priority,size,gate,fuel                takeoff request
+//   F id,fuel                                   fuel report from a holding flight (reportFuel)
+//   S id                                        -> "S id STATUS" (FlightStatus name or UNKNOWN)
+//   Q                                           -> "Q queued pending"
+//
+// Requests are not acknowledged: a line that does not parse is answered with "E reason"
+// and dropped, everything else is accepted. Lines are decoded in place in the
+// connection's read buffer, with CsvScheduleLoader's byte-level field parsers, straight
+// into the columns of a recycled ScheduleBatch. The only allocation per request is the
+// flight id String the controller interns; replies are encoded into a per-connection
+// write buffer.
+//
+// Batches are applied through the handoff executor (the EDT in the GUI, one thread
+// headless) when full or at the end of each select round, so a lone request waits at
+// most one round. S and Q hand off the requests read so far first; a flight answers S
+// once its batch has been applied.
+//
+// Backpressure: when the controller's queue plus the flights handed off but not yet
+// applied reaches highWater, the server stops reading from all connections until that
+// depth falls to half of it. Unread bytes stay in the socket buffers, so feeds block on
+// write instead of the tower buffering an unbounded backlog. A connection that does not
+// read its replies is paused on its own once its write buffer is full.
+final class FlightIngestServer implements Closeable {
+    static final int DEFAULT_BATCH = 1024;
+    static final int DEFAULT_HIGH_WATER = 100_000;
+    private static final int READ_BUFFER = 64 << 10;
+    private static final int WRITE_BUFFER = 16 << 10;
+    private static final int MAX_ID = 64;             // longest id a status query echoes
+    private static final int MAX_REPLY = MAX_ID + 32; // room a line needs in the write buffer
+    private static final long PAUSED_POLL_MILLIS = 2; // queue depth re-check while reads are paused
+    private static final int POOL = 16;               // idle batches kept for reuse
+
+    private static final byte[][] STATUS_NAMES = new byte[FlightStatus.values().length][];
+    static {
+        for (FlightStatus s : FlightStatus.values()) STATUS_NAMES[s.ordinal()] = ascii(s.name());
+    }
+    private static final byte[] UNKNOWN = ascii("UNKNOWN");
+    private static final byte[] BAD_COMMAND = ascii("E unknown command\n");
+    private static final byte[] BAD_FIELDS = ascii("E expected at least 5 fields\n");
+    private static final byte[] BAD_REPORT = ascii("E expected id,fuel\n");
+    private static final byte[] EMPTY_ID = ascii("E empty flight id\n");
+    private static final byte[] LONG_ID = ascii("E flight id too long\n");
+    private static final byte[] NOT_NUMERIC = ascii("E non-numeric field\n");
+    private static final byte[] BAD_PRIORITY = ascii("E priority out of range\n");
+    private static final byte[] BAD_SIZE = ascii("E size out of range\n");
+    private static final byte[] BAD_FUEL = ascii("E fuel out of range\n");
+    private static final byte[] BAD_GATE = ascii("E unknown gate\n");
+    private static final byte[] LONG_LINE = ascii("E line too long\n");
+
+    private final TrafficController controller;
+    private final FlightStore flights;
+    private final Executor handoff;
+    private final int batchSize;
+    private final int highWater;
+    private IntPredicate gateCheck;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final InetSocketAddress address;
+    private final Consumer<SelectionKey> onReady = this::ready;
+    private final int[] fieldEnds = new int[6];
+    private final ArrayBlockingQueue<Batch> idle = new ArrayBlockingQueue<>(POOL);
+    private final AtomicInteger pending = new AtomicInteger(); // handed off, not yet applied
+    private Batch current;
+    private boolean paused = false;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    // Selector thread only; read them after close()
+    private long accepted = 0, rejected = 0, queries = 0, batches = 0, pauses = 0, connections = 0;
+
+    // Landings, takeoffs and fuel reports (ids and fuel columns only) read since the last handoff
+    private static final class Batch {
+        final ScheduleBatch landings, takeoffs, fuelReports;
+
+        Batch(int capacity) {
+            landings = new ScheduleBatch(capacity);
+            takeoffs = new ScheduleBatch(capacity);
+            fuelReports = new ScheduleBatch(capacity);
+        }
+
+        int count() { return landings.count + takeoffs.count + fuelReports.count; }
+
+        void clear() {
+            Arrays.fill(landings.ids, 0, landings.count, null);
+            Arrays.fill(takeoffs.ids, 0, takeoffs.count, null);
+            Arrays.fill(fuelReports.ids, 0, fuelReports.count, null);
+            landings.count = takeoffs.count = fuelReports.count = 0;
+        }
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER);
+        final ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER);
+        SelectionKey key;
+        boolean skipping = false; // inside an over-long line, drop bytes until the next newline
+        boolean blocked = false;  // stopped parsing until the client reads its replies
+        boolean eof = false;
+
+        Connection(SocketChannel channel) { this.channel = channel; }
+    }
+
+    // Listens on the loopback interface; port 0 picks a free one (see getAddress)
+    FlightIngestServer(TrafficController controller, int port, Executor handoff) throws IOException {
+        this(controller, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), handoff,
+             DEFAULT_BATCH, DEFAULT_HIGH_WATER);
+    }
+
+    FlightIngestServer(TrafficController controller, InetSocketAddress bindTo, Executor handoff,
+                       int batchSize, int highWater) throws IOException {
+        this.controller = controller;
+        this.flights = controller.getFlightStore();
+        this.handoff = handoff;
+        this.batchSize = batchSize;
+        this.highWater = highWater;
+        this.gateCheck = controller::isKnownLocation;
+        this.current = new Batch(batchSize);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        try {
+            server.bind(bindTo);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+        this.address = (InetSocketAddress) server.getLocalAddress();
+    }
+
+    public void setGateCheck(IntPredicate check) { this.gateCheck = check; }
+    public InetSocketAddress getAddress() { return address; }
+    public int getPending() { return pending.get(); }
+    public long getAccepted() { return accepted; }
+    public long getRejected() { return rejected; }
+    public long getBatches() { return batches; }
+    public long getPauses() { return pauses; }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "flight-ingest");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Stops accepting, hands off what was already read and closes every connection
+    @Override
+    public synchronized void close() {
+        if (thread == null) { // never started
+            for (SelectionKey key : selector.keys()) closeQuietly(key);
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+            return;
+        }
+        if (!running) return;
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select(onReady, paused ? PAUSED_POLL_MILLIS : 0);
+                handOff();
+                checkBackpressure();
+            }
+        } catch (IOException e) {
+            System.err.println("Flight ingest stopped: " + e.getMessage());
+        } finally {
+            handOff();
+            for (SelectionKey key : selector.keys()) closeQuietly(key);
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // shutting down anyway
+            }
+        }
+    }
+
+    private void ready(SelectionKey key) {
+        if (!key.isValid()) return;
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection c = (Connection) key.attachment();
+        try {
+            if (key.isReadable() && c.channel.read(c.in) < 0) c.eof = true;
+            do {
+                parse(c);
+                flush(c);
+            } while (c.blocked && c.out.remaining() >= MAX_REPLY); // the client is keeping up
+            if (c.eof && !c.blocked && c.out.position() == 0) {
+                closeQuietly(key);
+            } else {
+                updateInterest(c);
+            }
+        } catch (IOException e) {
+            closeQuietly(key);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel ch = server.accept();
+            if (ch == null) return;
+            ch.configureBlocking(false);
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection c = new Connection(ch);
+            c.key = ch.register(selector, paused ? 0 : SelectionKey.OP_READ, c);
+            connections++;
+        } catch (IOException e) {
+            System.err.println("Flight ingest: connection refused: " + e.getMessage());
+        }
+    }
+
+    private void updateInterest(Connection c) {
+        int ops = paused || c.blocked || c.eof ? 0 : SelectionKey.OP_READ;
+        if (c.out.position() > 0) ops |= SelectionKey.OP_WRITE;
+        c.key.interestOps(ops);
+    }
+
+    private static void flush(Connection c) throws IOException {
+        if (c.out.position() == 0) return;
+        c.out.flip();
+        c.channel.write(c.out);
+        c.out.compact();
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // already gone
+        }
+    }
+
+    // ==========================================
+    // Decoding
+    // ==========================================
+
+    // Handles every complete line in c's read buffer, stopping early while a reply might
+    // not fit, and keeps the unparsed tail at the front of the buffer
+    private void parse(Connection c) {
+        byte[] a = c.in.array();
+        int limit = c.in.position();
+        int start = 0;
+        c.blocked = false;
+        for (int i = 0; i < limit; i++) {
+            if (a[i] != '\n') continue;
+            if (c.out.remaining() < MAX_REPLY) {
+                c.blocked = true;
+                break;
+            }
+            if (c.skipping) {
+                c.skipping = false;
+            } else {
+                handle(c, a, start, i);
+            }
+            start = i + 1;
+        }
+        if (!c.blocked && c.out.remaining() >= MAX_REPLY) {
+            if (c.eof && start < limit && !c.skipping) { // last line without newline
+                handle(c, a, start, limit);
+                start = limit;
+            } else if (start == 0 && limit == a.length) { // no newline in a full buffer
+                if (!c.skipping) reject(c, LONG_LINE);
+                c.skipping = true;
+                start = limit;
+            }
+        }
+        c.in.position(start);
+        c.in.limit(limit);
+        c.in.compact();
+    }
+
+    private void handle(Connection c, byte[] a, int from, int to) {
+        if (to > from && a[to - 1] == '\r') to--;
+        if (from == to) return; // blank lines are allowed as keep-alives
+        byte command = a[from];
+        if (from + 1 < to && a[from + 1] != ' ') {
+            reject(c, BAD_COMMAND);
+            return;
+        }
+        switch (command) {
+            case 'L': request(c, a, from + 1, to, current.landings, true); break;
+            case 'T': request(c, a, from + 1, to, current.takeoffs, false); break;
+            case 'S': status(c, a, from + 1, to); break;
+            case 'F': fuelReport(c, a, from + 1, to); break;
+            case 'Q': queueDepth(c); break;
+            default: reject(c, BAD_COMMAND);
+        }
+    }
+
+    private void request(Connection c, byte[] a, int from, int to, ScheduleBatch batch, boolean landing) {
+        int[] cut = fieldEnds;
+        int fields = 0;
+        for (int i = from; i < to && fields < cut.length; i++) {
+            if (a[i] == ',') cut[fields++] = i;
+        }
+        if (fields < cut.length) cut[fields++] = to;
+        if (fields < 5) {
+            reject(c, BAD_FIELDS);
+            return;
+        }
+
+        int idFrom = CsvScheduleLoader.skipSpace(a, from, cut[0]);
+        int idTo = CsvScheduleLoader.trimEnd(a, idFrom, cut[0]);
+        int prio = CsvScheduleLoader.parseInt(a, cut[0] + 1, cut[1]);
+        int size = CsvScheduleLoader.parseInt(a, cut[1] + 1, cut[2]);
+        int gate = CsvScheduleLoader.parseInt(a, cut[2] + 1, cut[3]);
+        int fuel = CsvScheduleLoader.parseInt(a, cut[3] + 1, cut[4]);
+        byte[] error = null;
+        if (idFrom == idTo) error = EMPTY_ID;
+        else if (idTo - idFrom > MAX_ID) error = LONG_ID;
+        else if (prio == CsvScheduleLoader.BAD || size == CsvScheduleLoader.BAD
+                 || gate == CsvScheduleLoader.BAD || fuel == CsvScheduleLoader.BAD) error = NOT_NUMERIC;
+        else if (prio < 1 || prio > 3) error = BAD_PRIORITY;
+        else if (size < 1 || size > 3) error = BAD_SIZE;
+        else if (fuel < 0 || fuel > 100) error = BAD_FUEL;
+        else if (!gateCheck.test(gate)) error = BAD_GATE;
+        if (error != null) {
+            reject(c, error);
+            return;
+        }
+
+        int n = batch.count++;
+        batch.ids[n] = new String(a, idFrom, idTo - idFrom, StandardCharsets.UTF_8);
+        batch.priority[n] = prio;
+        batch.size[n] = size;
+        batch.gate[n] = gate;
+        batch.fuel[n] = fuel;
+        batch.turnaround[n] = landing && fields >= 6 && CsvScheduleLoader.isTrue(a, cut[4] + 1, cut[5]);
+        accepted++;
+        if (batch.isFull()) handOff();
+    }
+
+    private void fuelReport(Connection c, byte[] a, int from, int to) {
+        int comma = from;
+        while (comma < to && a[comma] != ',') comma++;
+        if (comma == to) {
+            reject(c, BAD_REPORT);
+            return;
+        }
+        int idFrom = CsvScheduleLoader.skipSpace(a, from, comma);
+        int idTo = CsvScheduleLoader.trimEnd(a, idFrom, comma);
+        int fuel = CsvScheduleLoader.parseInt(a, comma + 1, to);
+        byte[] error = null;
+        if (idFrom == idTo) error = EMPTY_ID;
+        else if (idTo - idFrom > MAX_ID) error = LONG_ID;
+        else if (fuel == CsvScheduleLoader.BAD) error = NOT_NUMERIC;
+        else if (fuel < 0 || fuel > 100) error = BAD_FUEL;
+        if (error != null) {
+            reject(c, error);
+            return;
+        }
+
+        ScheduleBatch reports = current.fuelReports;
+        int n = reports.count++;
+        reports.ids[n] = new String(a, idFrom, idTo - idFrom, StandardCharsets.UTF_8);
+        reports.fuel[n] = fuel;
+        accepted++;
+        if (reports.isFull()) handOff();
+    }
+
+    private void status(Connection c, byte[] a, int from, int to) {
+        int idFrom = CsvScheduleLoader.skipSpace(a, from, to);
+        int idTo = CsvScheduleLoader.trimEnd(a, idFrom, to);
+        if (idFrom == idTo) {
+            reject(c, EMPTY_ID);
+            return;
+        }
+        if (idTo - idFrom > MAX_ID) {
+            reject(c, LONG_ID);
+            return;
+        }
+        handOff();
+        int f = flights.latestOf(a, idFrom, idTo);
+        ByteBuffer out = c.out;
+        out.put((byte) 'S').put((byte) ' ').put(a, idFrom, idTo - idFrom).put((byte) ' ');
+        out.put(f == FlightStore.NONE ? UNKNOWN : STATUS_NAMES[flights.getStatus(f).ordinal()]);
+        out.put((byte) '\n');
+        queries++;
+    }
+
+    private void queueDepth(Connection c) {
+        handOff();
+        ByteBuffer out = c.out;
+        out.put((byte) 'Q').put((byte) ' ');
+        putDecimal(out, controller.getQueueSize());
+        out.put((byte) ' ');
+        putDecimal(out, pending.get());
+        out.put((byte) '\n');
+        queries++;
+    }
+
+    private void reject(Connection c, byte[] reply) {
+        rejected++;
+        c.out.put(reply);
+    }
+
+    // ==========================================
+    // Handoff and backpressure
+    // ==========================================
+
+    private void handOff() {
+        Batch b = current;
+        int n = b.count();
+        if (n == 0) return;
+        Batch next = idle.poll();
+        current = next != null ? next : new Batch(batchSize);
+        pending.addAndGet(n);
+        batches++;
+        handoff.execute(() -> apply(b, n));
+    }
+
+    // On the handoff executor
+    private void apply(Batch b, int n) {
+        try {
+            if (b.landings.count > 0) controller.requestFlights(b.landings);
+            ScheduleBatch t = b.takeoffs;
+            for (int i = 0; i < t.count; i++) {
+                controller.requestFlight(t.ids[i], "Takeoff", t.priority[i], t.size[i], t.gate[i], t.fuel[i], false);
+            }
+            ScheduleBatch reports = b.fuelReports; // after the requests, which may be for the same flights
+            for (int i = 0; i < reports.count; i++) controller.reportFuel(reports.ids[i], reports.fuel[i]);
+        } finally {
+            pending.addAndGet(-n);
+            b.clear();
+            idle.offer(b);
+        }
+    }
+
+    private void checkBackpressure() {
+        int depth = controller.getQueueSize() + pending.get();
+        if (!paused && depth >= highWater) {
+            paused = true;
+            pauses++;
+        } else if (paused && depth <= highWater / 2) {
+            paused = false;
+        } else {
+            return;
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof Connection) updateInterest((Connection) key.attachment());
+        }
+    }
+
+    // ==========================================
+    // Encoding helpers (shared with IngestLoadGenerator)
+    // ==========================================
+
+    static void putDecimal(ByteBuffer out, long v) {
+        if (v < 0) {
+            out.put((byte) '-');
+            v = -v;
+        }
+        int digits = 1;
+        for (long p = 10; digits < 19 && p <= v; p *= 10) digits++;
+        int end = out.position() + digits;
+        for (int i = end - 1; i >= end - digits; i--) {
+            out.put(i, (byte) ('0' + v % 10));
+            v /= 10;
+        }
+        out.position(end);
+    }
+
+    private static byte[] ascii(String s) { return s.getBytes(StandardCharsets.US_ASCII); }
+
+    @Override
+    public String toString() {
+        return String.format("Ingest: %d requests in %d batches, %d rejected, %d queries, %d connections, reads paused %d times",
+                accepted, batches, rejected, queries, connections, pauses);
+    }
+
+    // ==========================================
+    // Throughput demo: Main --ingest [requests] [connections] [runways]
+    // ==========================================
+
+    // Local feed -> ingest server -> controller queue -> parallel dispatch, headless
+    static void runDemo(String[] args) throws IOException, InterruptedException {
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int connectionCount = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int runwayCount = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        AirportBackend backend = Main.createDefaultLayout();
+        backend.setNodeCapacity(4, Math.max(3, 2 * runwayCount));
+        backend.setNodeCapacity(5, Math.max(3, 2 * runwayCount));
+        ScheduledClock clock = new ScheduledClock(0); // ground phases complete immediately
+        HeadlessSink sink = new HeadlessSink();
+        TrafficController atc = new TrafficController(backend, sink, clock);
+        for (int r = 1; r <= runwayCount; r++) atc.addRunway(r, 3, (r - 1) % 2);
+
+        ExecutorService apply = Executors.newSingleThreadExecutor(r -> new Thread(r, "ingest-apply"));
+        FlightIngestServer server = new FlightIngestServer(atc, 0, apply);
+        ParallelDispatcher dispatcher = new ParallelDispatcher(atc, 0);
+        server.start();
+        dispatcher.start();
+
+        try (IngestLoadGenerator feed = new IngestLoadGenerator(server.getAddress(), connectionCount, new int[]{4, 5})) {
+            long t0 = System.nanoTime();
+            feed.send(requests);
+            while (atc.getFlightStore().size() < requests) LockSupport.parkNanos(100_000);
+            double wallMs = (System.nanoTime() - t0) / 1e6;
+
+            System.out.println("Ingested " + requests + " requests over " + connectionCount + " connections in "
+                    + String.format("%.1f", wallMs) + " ms");
+            System.out.println("  throughput:     " + String.format("%.0f", requests / (wallMs / 1000)) + " requests/s");
+            System.out.println("  dispatched:     " + dispatcher.getDispatched() + " so far (" + dispatcher.getWorkers() + " workers)");
+            System.out.println("  " + feed.query("Q"));
+            System.out.println("  " + feed.query("S " + IngestLoadGenerator.idOf(0, 0)));
+            System.out.println("  " + feed.query("L bad,row"));
+        } finally {
+            server.close();
+            dispatcher.stop();
+            apply.shutdown();
+            apply.awaitTermination(10, TimeUnit.SECONDS);
+            clock.shutdown();
+        }
+        System.out.println("  " + server);
+        System.out.println("  " + atc.getFlightStore());
+    }
+}
@@ -0,0 +1,23 @@
+package runway;
+
+// ==========================================
+// STATE JOURNAL (controller transitions)
+// ==========================================
+
+// Every state transition TrafficController makes, reported as it happens so it can be
+// persisted (see EventJournal) and replayed after a restart. The defaults do nothing;
+// NONE is what the controller uses until a journal is attached.
+interface FlightJournal {
+    FlightJournal NONE = new FlightJournal() {};
+
+    default void requested(FlightStore flights, int f) {}  // entered the holding queue
+    default void heldForGate(FlightStore flights, int f) {}// parked until its gate frees
+    default void resumed(String id) {}                     // gate hold -> queue
+    default void assigned(String id, int runway) {}        // runway cleared, on the ground
+    default void gateAcquired(int gate) {}
+    default void gateReleased(int gate) {}
+    default void statusChanged(String id, FlightStatus status) {}
+    default void fuelChanged(FlightStore flights, int f) {}// holding fuel burn / fuel report
+    default void completed(String id) {}                   // docked, departed or diverted
+    default void maintenanceChanged(boolean runway1Down) {}
+}
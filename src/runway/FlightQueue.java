@@ -0,0 +1,286 @@
+package runway;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ==========================================
+// HOLDING QUEUE (bucketed, re-prioritizing)
+// ==========================================
+
+// Flights waiting for dispatch, in one FIFO bucket per (priority, size) pair:
+// emergencies first, then larger aircraft first, then first come first served.
+// With 3 x 3 fixed buckets, add / poll / remove are O(1) at any queue depth.
+//
+// Buckets are intrusive doubly-linked lists threaded through FlightStore handles (the
+// links are store columns, so queueing allocates nothing), with an id -> handle index,
+// so a flight can be re-ranked in place (decrease-key) while it holds:
+//  - updateFuel(): dropping below LOW_FUEL moves it to the emergency bucket immediately
+//  - aging: a normal-priority flight holding agingMillis moves up to priority 2 (not to
+//    emergency, which stays reserved for fuel and requests). Buckets are ordered by the
+//    time a flight entered them, so only bucket heads need checking.
+//
+// All methods are guarded by one lock so parallel dispatch workers can share the queue.
+final class FlightQueue {
+    static final int LOW_FUEL = 25;           // below this a flight is an emergency
+    static final long DEFAULT_AGING_MILLIS = 30_000;
+    static final int NONE = FlightStore.NONE;
+    private static final int LEVELS = 3;      // priority 1 (emergency) .. 3 (normal)
+    private static final int SIZES = 3;       // size 1 .. 3
+
+    private final FlightStore flights;
+    private final int[] heads = new int[LEVELS * SIZES];
+    private final int[] tails = new int[LEVELS * SIZES];
+    private int[] byIdCode = new int[1024]; // interned id -> queued handle (NONE if not queued)
+    private int count = 0;
+
+    private final SimClock clock;
+    private final long agingMillis;
+    private long aged = 0;
+    private long fuelUpgrades = 0;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    FlightQueue(SimClock clock, FlightStore flights) { this(clock, flights, DEFAULT_AGING_MILLIS); }
+
+    FlightQueue(SimClock clock, FlightStore flights, long agingMillis) {
+        this.clock = clock;
+        this.flights = flights;
+        this.agingMillis = agingMillis;
+        Arrays.fill(heads, NONE);
+        Arrays.fill(tails, NONE);
+        Arrays.fill(byIdCode, NONE);
+    }
+
+    // Bucket order = dequeue order: priority ascending, then size descending
+    private static int bucketOf(int priority, int size) {
+        int p = Math.min(Math.max(priority, 1), LEVELS) - 1;
+        int s = Math.min(Math.max(size, 1), SIZES);
+        return p * SIZES + (SIZES - s);
+    }
+
+    public void add(int f) {
+        lock.lock();
+        try {
+            long now = clock.now();
+            flights.setQueuedAt(f, now);
+            link(f, bucketOf(flights.getPriority(f), flights.getSize(f)), now);
+            index(f); // latest wins if an id is queued twice
+            count++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Puts a just-polled flight back at the front of its bucket (e.g. its runway was busy)
+    public void addFirst(int f) {
+        lock.lock();
+        try {
+            int b = bucketOf(flights.getPriority(f), flights.getSize(f));
+            int head = heads[b];
+            long now = clock.now();
+            flights.setBucket(f, b);
+            flights.setSince(f, head == NONE ? now : Math.min(now, flights.since(head))); // keeps the bucket sorted for aging
+            flights.setPrev(f, NONE);
+            flights.setNext(f, head);
+            if (head == NONE) tails[b] = f;
+            else flights.setPrev(head, f);
+            heads[b] = f;
+            index(f);
+            count++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Next flight's handle, or NONE if the queue is empty
+    public int poll() {
+        lock.lock();
+        try {
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits up to waitMillis for a flight; NONE on timeout
+    public int poll(long waitMillis) throws InterruptedException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) return NONE;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int pollLocked() {
+        if (count == 0) return NONE;
+        age(clock.now());
+        for (int b = 0; b < heads.length; b++) {
+            int f = heads[b];
+            if (f != NONE) {
+                removeLocked(f);
+                return f;
+            }
+        }
+        return NONE;
+    }
+
+    // Next flight without removing it: the one poll() would return now, so aging is
+    // applied here as well
+    public int peek() {
+        lock.lock();
+        try {
+            if (count == 0) return NONE;
+            age(clock.now());
+            for (int f : heads) if (f != NONE) return f;
+            return NONE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int find(String id) {
+        lock.lock();
+        try {
+            return queued(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean remove(String id) {
+        lock.lock();
+        try {
+            int f = queued(id);
+            if (f == NONE) return false;
+            removeLocked(f);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // New fuel reading for a queued flight. Returns true if it just became an emergency
+    // (it is then first in line among emergencies of its size class).
+    public boolean updateFuel(String id, int fuel) {
+        lock.lock();
+        try {
+            int f = queued(id);
+            if (f == NONE) return false;
+            flights.setFuel(f, fuel);
+            if (fuel >= LOW_FUEL || flights.getPriority(f) == 1) return false;
+            flights.setPriority(f, 1);
+            rebucket(f, clock.now());
+            fuelUpgrades++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Explicit re-rank (e.g. an operator raising a flight's priority)
+    public boolean setPriority(String id, int priority) {
+        lock.lock();
+        try {
+            int f = queued(id);
+            if (f == NONE) return false;
+            flights.setPriority(f, priority);
+            rebucket(f, clock.now());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() { return size() == 0; }
+
+    public long getAged() { return aged; }
+    public long getFuelUpgrades() { return fuelUpgrades; }
+
+    // --- aging ---
+
+    // Promotes priority-3 flights that have held for agingMillis to priority 2
+    private void age(long now) {
+        if (agingMillis <= 0) return;
+        for (int b = (LEVELS - 1) * SIZES; b < LEVELS * SIZES; b++) {
+            int f = heads[b];
+            while (f != NONE && now - flights.since(f) >= agingMillis) {
+                int next = flights.next(f);
+                flights.setPriority(f, LEVELS - 1);
+                rebucket(f, now);
+                aged++;
+                f = next;
+            }
+        }
+    }
+
+    // --- id index ---
+
+    private int queued(String id) {
+        int code = flights.codeOf(id);
+        return code == NONE || code >= byIdCode.length ? NONE : byIdCode[code];
+    }
+
+    private void index(int f) {
+        int code = flights.getIdCode(f);
+        if (code >= byIdCode.length) {
+            int old = byIdCode.length;
+            byIdCode = Arrays.copyOf(byIdCode, Math.max(old * 2, code + 1));
+            Arrays.fill(byIdCode, old, byIdCode.length, NONE);
+        }
+        byIdCode[code] = f;
+    }
+
+    // --- intrusive list plumbing ---
+
+    private void rebucket(int f, long now) {
+        unlink(f);
+        link(f, bucketOf(flights.getPriority(f), flights.getSize(f)), now);
+    }
+
+    private void link(int f, int b, long now) {
+        flights.setBucket(f, b);
+        flights.setSince(f, now);
+        flights.setNext(f, NONE);
+        flights.setPrev(f, tails[b]);
+        if (tails[b] == NONE) heads[b] = f;
+        else flights.setNext(tails[b], f);
+        tails[b] = f;
+    }
+
+    private void unlink(int f) {
+        int b = flights.bucket(f), prev = flights.prev(f), next = flights.next(f);
+        if (prev == NONE) heads[b] = next;
+        else flights.setNext(prev, next);
+        if (next == NONE) tails[b] = prev;
+        else flights.setPrev(next, prev);
+        flights.setPrev(f, NONE);
+        flights.setNext(f, NONE);
+    }
+
+    private void removeLocked(int f) {
+        unlink(f);
+        int code = flights.getIdCode(f);
+        if (byIdCode[code] == f) byIdCode[code] = NONE;
+        count--;
+    }
+}
@@ -0,0 +1,28 @@
+package runway;
+
+// ==========================================
+// FLIGHT STATUS
+// ==========================================
+
+// Board status of a flight, stored as its ordinal; label is what the flight table shows
+enum FlightStatus {
+    SCHEDULED("Scheduled"),
+    WAITING_LANDING("Waiting (Landing)"),
+    WAITING_TAKEOFF("Waiting (Takeoff)"),
+    HOLDING("Holding"),
+    HOLDING_RUNWAY("Holding (Runway busy)"),
+    HOLDING_GATE("Holding (Gate Full)"),
+    LANDED("Landed -> Taxiing"),
+    DEBOARDING("De-boarding"),
+    SERVICING("Servicing (Refuel)"),
+    DOCKED("Docked (Completed)"),
+    DEPARTED("Departed"),
+    DIVERTED("Diverted");
+
+    private static final FlightStatus[] VALUES = values();
+    final String label;
+
+    FlightStatus(String label) { this.label = label; }
+
+    static FlightStatus of(int ordinal) { return VALUES[ordinal]; }
+}
@@ -0,0 +1,211 @@
+package runway;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// ==========================================
+// FLIGHT STORE (struct of arrays)
+// ==========================================
+
+// Every flight the tower has handled, active or finished, as one slot in a set of
+// primitive columns, addressed by an int handle: flight ids are interned codes, type and
+// status are bytes, times are clock millis. A flight costs ~70 bytes of columns plus its
+// id's UTF-8 bytes and three table slots (shared by a turnaround's landing and departure),
+// instead of an object with four Strings, a queue node and an index entry. getId()
+// decodes a fresh String, so ids are only materialized for log lines and board rows.
+//
+// Columns are allocated in chunks of CHUNK flights that never move, so growing the store
+// does not race with dispatch workers writing other flights' columns. add() and the id
+// table are synchronized; column reads and writes are not: a handle reaches another
+// thread through the queue or the controller's own locks, which publish its columns.
+//
+// FlightQueue keeps its intrusive bucket links (prev / next / bucket / since) here too.
+final class FlightStore {
+    static final byte LANDING = 0, TAKEOFF = 1;
+    static final int NONE = -1;
+    static final int COLUMN_BYTES = 3 * 4 + 5 + 4 * 8 + 2 * 4 + 1 + 8; // all columns of one flight, queue links included
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int MASK = CHUNK - 1;
+    private static final byte TURNAROUND = 1;
+
+    private static final class Chunk {
+        final int[] idCode = new int[CHUNK];
+        final int[] gate = new int[CHUNK];
+        final int[] fuel = new int[CHUNK];
+        final byte[] type = new byte[CHUNK];
+        final byte[] status = new byte[CHUNK];
+        final byte[] priority = new byte[CHUNK];
+        final byte[] size = new byte[CHUNK];
+        final byte[] flags = new byte[CHUNK];
+        final long[] time = new long[CHUNK];        // request time (clock millis), shown on the board
+        final long[] requestedAt = new long[CHUNK]; // metrics, see TrafficController
+        final long[] queuedAt = new long[CHUNK];
+        final long[] gateSince = new long[CHUNK];
+
+        // FlightQueue links
+        final int[] prev = new int[CHUNK];
+        final int[] next = new int[CHUNK];
+        final byte[] bucket = new byte[CHUNK];
+        final long[] since = new long[CHUNK];
+    }
+
+    private volatile Chunk[] chunks = new Chunk[16];
+    private int count = 0;
+
+    // Interned flight ids: UTF-8 bytes back to back, code -> [idOffsets[code], idOffsets[code + 1]),
+    // and an open-addressing table of code + 1 by hash (0 = empty slot)
+    private volatile byte[] idBytes = new byte[16 << 10];
+    private volatile int[] idOffsets = new int[1025];
+    private int idCount = 0;
+    private int[] slots = new int[2048];
+    private int[] latest = new int[1024]; // newest handle per id code (a turnaround's departure, after its landing)
+
+    public synchronized int add(String id, byte type, int priority, int size, int gate, int fuel,
+                                boolean turnaround, long time) {
+        int h = count;
+        int c = h >>> CHUNK_BITS;
+        if (c == chunks.length) chunks = Arrays.copyOf(chunks, c * 2);
+        if (chunks[c] == null) chunks[c] = new Chunk();
+        Chunk k = chunks[c];
+        int i = h & MASK;
+        int code = intern(id);
+        k.idCode[i] = code;
+        if (code >= latest.length) latest = Arrays.copyOf(latest, Math.max(latest.length * 2, code + 1));
+        latest[code] = h;
+        k.type[i] = type;
+        k.priority[i] = (byte) priority;
+        k.size[i] = (byte) size;
+        k.gate[i] = gate;
+        k.fuel[i] = fuel;
+        k.flags[i] = turnaround ? TURNAROUND : 0;
+        k.time[i] = time;
+        k.status[i] = (byte) FlightStatus.SCHEDULED.ordinal();
+        k.prev[i] = k.next[i] = NONE;
+        count = h + 1;
+        return h;
+    }
+
+    private int intern(String id) {
+        byte[] b = id.getBytes(StandardCharsets.UTF_8);
+        int slot = slotOf(b, 0, b.length);
+        if (slots[slot] != 0) return slots[slot] - 1;
+
+        int code = idCount;
+        int[] offsets = idOffsets;
+        byte[] bytes = idBytes;
+        int from = offsets[code], to = from + b.length;
+        if (to > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, to));
+            idBytes = bytes;
+        }
+        System.arraycopy(b, 0, bytes, from, b.length);
+        if (code + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            offsets[code + 1] = to;
+            idOffsets = offsets; // published after the bytes, see getId
+        } else {
+            offsets[code + 1] = to;
+        }
+        slots[slot] = code + 1;
+        idCount = code + 1;
+        if (idCount * 2 > slots.length) rehash();
+        return code;
+    }
+
+    // Slot holding the id b[from, to), or the empty slot where it would go
+    private int slotOf(byte[] b, int from, int to) {
+        int mask = slots.length - 1;
+        for (int i = hash(b, from, to) & mask; ; i = (i + 1) & mask) {
+            int s = slots[i];
+            if (s == 0) return i;
+            if (Arrays.equals(idBytes, idOffsets[s - 1], idOffsets[s], b, from, to)) return i;
+        }
+    }
+
+    private void rehash() {
+        int[] table = new int[slots.length * 2];
+        int mask = table.length - 1;
+        for (int code = 0; code < idCount; code++) {
+            int i = hash(idBytes, idOffsets[code], idOffsets[code + 1]) & mask;
+            while (table[i] != 0) i = (i + 1) & mask;
+            table[i] = code + 1;
+        }
+        slots = table;
+    }
+
+    private static int hash(byte[] b, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + b[i];
+        return h ^ (h >>> 16);
+    }
+
+    // Code of an id seen before, or NONE
+    public synchronized int codeOf(String id) {
+        byte[] b = id.getBytes(StandardCharsets.UTF_8);
+        return slots[slotOf(b, 0, b.length)] - 1;
+    }
+
+    // Newest flight whose id is the UTF-8 bytes b[from, to), or NONE. Lets a caller holding
+    // raw request bytes (FlightIngestServer) look a flight up without decoding a String.
+    public synchronized int latestOf(byte[] b, int from, int to) {
+        int s = slots[slotOf(b, from, to)];
+        return s == 0 ? NONE : latest[s - 1];
+    }
+
+    public synchronized int size() { return count; }
+    public synchronized int getIdCount() { return idCount; }
+
+    private Chunk chunk(int h) { return chunks[h >>> CHUNK_BITS]; }
+
+    // --- columns ---
+
+    public String getId(int h) {
+        int code = chunk(h).idCode[h & MASK];
+        int[] offsets = idOffsets; // before idBytes: offsets are published after their bytes
+        int from = offsets[code];
+        return new String(idBytes, from, offsets[code + 1] - from, StandardCharsets.UTF_8);
+    }
+
+    public int getIdCode(int h) { return chunk(h).idCode[h & MASK]; }
+    public byte getType(int h) { return chunk(h).type[h & MASK]; }
+    public boolean isLanding(int h) { return chunk(h).type[h & MASK] == LANDING; }
+    public String getTypeName(int h) { return isLanding(h) ? "Landing" : "Takeoff"; }
+    public int getPriority(int h) { return chunk(h).priority[h & MASK]; }
+    public void setPriority(int h, int priority) { chunk(h).priority[h & MASK] = (byte) priority; }
+    public int getSize(int h) { return chunk(h).size[h & MASK]; }
+    public int getGate(int h) { return chunk(h).gate[h & MASK]; }
+    public int getFuel(int h) { return chunk(h).fuel[h & MASK]; }
+    public void setFuel(int h, int fuel) { chunk(h).fuel[h & MASK] = fuel; }
+    public boolean isTurnaround(int h) { return (chunk(h).flags[h & MASK] & TURNAROUND) != 0; }
+    public long getTime(int h) { return chunk(h).time[h & MASK]; }
+    public FlightStatus getStatus(int h) { return FlightStatus.of(chunk(h).status[h & MASK]); }
+    public void setStatus(int h, FlightStatus s) { chunk(h).status[h & MASK] = (byte) s.ordinal(); }
+
+    public long getRequestedAt(int h) { return chunk(h).requestedAt[h & MASK]; }
+    public void setRequestedAt(int h, long t) { chunk(h).requestedAt[h & MASK] = t; }
+    public long getQueuedAt(int h) { return chunk(h).queuedAt[h & MASK]; }
+    public void setQueuedAt(int h, long t) { chunk(h).queuedAt[h & MASK] = t; }
+    public long getGateSince(int h) { return chunk(h).gateSince[h & MASK]; }
+    public void setGateSince(int h, long t) { chunk(h).gateSince[h & MASK] = t; }
+
+    // --- FlightQueue links ---
+
+    int prev(int h) { return chunk(h).prev[h & MASK]; }
+    void setPrev(int h, int p) { chunk(h).prev[h & MASK] = p; }
+    int next(int h) { return chunk(h).next[h & MASK]; }
+    void setNext(int h, int n) { chunk(h).next[h & MASK] = n; }
+    int bucket(int h) { return chunk(h).bucket[h & MASK]; }
+    void setBucket(int h, int b) { chunk(h).bucket[h & MASK] = (byte) b; }
+    long since(int h) { return chunk(h).since[h & MASK]; }
+    void setSince(int h, long t) { chunk(h).since[h & MASK] = t; }
+
+    @Override
+    public synchronized String toString() {
+        long chunkBytes = (long) (count + MASK >>> CHUNK_BITS) * CHUNK * COLUMN_BYTES;
+        long idTable = idBytes.length + 4L * (idOffsets.length + slots.length + latest.length);
+        return String.format("Flights: %d stored, %d distinct ids, %.1f MB of columns + %.1f MB of ids", count, idCount,
+                chunkBytes / 1048576.0, idTable / 1048576.0);
+    }
+}
@@ -0,0 +1,228 @@
+package runway;
+
+import javax.swing.table.AbstractTableModel;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.List;
+
+// Flight board backing the JTable in AirportGUI (kept free of JFrame so it can be
+// exercised headless).
+//
+// Rows live in parallel arrays: the flight id plus int codes into small intern tables
+// for time, fuel, status and terminal (a few hundred distinct strings per day). A
+// flight-id index makes status updates O(1), and all inserts/updates are collected and
+// published once per frame as range events instead of one event per call. Until then
+// they are buffered: new rows sit past getRowCount() and status changes of visible rows
+// in nextStatus, so the model never shows listeners a change they were not told about.
+class FlightTableModel extends AbstractTableModel {
+    static final String[] COLUMNS = {"Flight ID", "Time", "Fuel %", "Status", "Terminal"};
+    static final int STATUS_COLUMN = 3;
+    static final int FRAME_MILLIS = 16;
+
+    // Row storage
+    private String[] ids = new String[256];
+    private int[] timeCode = new int[256];
+    private int[] fuelCode = new int[256];
+    private int[] statusCode = new int[256];
+    private int[] termCode = new int[256];
+    private int[] nextStatus = new int[256]; // pending status of a dirty visible row
+    private boolean[] completed = new boolean[256];
+    private int rows = 0;   // published (getRowCount)
+    private int stored = 0; // written, including inserts not yet published
+    private int completedRows = 0;
+
+    private final Map<String, Integer> rowOf = new HashMap<>(); // latest row per flight id
+    private final List<String> strings = new ArrayList<>();     // intern table (code -> text)
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    // Pending events, flushed once per frame
+    private final BitSet dirty = new BitSet(); // visible rows with a pending status
+    private final javax.swing.Timer flushTimer;
+
+    // Retention: completed rows beyond the limit are evicted (and archived if a writer is set)
+    private int maxCompletedRows = Integer.MAX_VALUE;
+    private Writer archive;
+    private long archivedRows = 0;
+
+    public FlightTableModel() { this(true); }
+
+    // autoFlush = false leaves flushing to the caller (headless use, benchmarks)
+    public FlightTableModel(boolean autoFlush) {
+        if (autoFlush) {
+            flushTimer = new javax.swing.Timer(FRAME_MILLIS, e -> flush());
+            flushTimer.setRepeats(false);
+        } else {
+            flushTimer = null;
+        }
+    }
+
+    public void setRetention(int maxCompletedRows, Writer archive) {
+        this.maxCompletedRows = maxCompletedRows;
+        this.archive = archive;
+        scheduleFlush();
+    }
+
+    // --- TableModel ---
+
+    @Override public int getRowCount() { return rows; }
+    @Override public int getColumnCount() { return COLUMNS.length; }
+    @Override public String getColumnName(int col) { return COLUMNS[col]; }
+    @Override public Class<?> getColumnClass(int col) { return String.class; }
+
+    @Override
+    public Object getValueAt(int row, int col) {
+        switch (col) {
+            case 0: return ids[row];
+            case 1: return strings.get(timeCode[row]);
+            case 2: return strings.get(fuelCode[row]);
+            case 3: return strings.get(statusCode[row]);
+            default: return strings.get(termCode[row]);
+        }
+    }
+
+    // --- updates ---
+
+    public void addFlightRow(String id, String time, String fuel, String status, String term) {
+        ensureCapacity(stored + 1);
+        int r = stored++;
+        ids[r] = id;
+        timeCode[r] = intern(time);
+        fuelCode[r] = intern(fuel);
+        statusCode[r] = intern(status);
+        termCode[r] = intern(term);
+        completed[r] = false;
+
+        Integer previous = rowOf.put(id, r);
+        if (previous != null) markCompleted(previous); // e.g. turnaround: landing row superseded by takeoff
+        scheduleFlush();
+    }
+
+    public void addFlightRows(List<String[]> batch) {
+        for (String[] row : batch) addFlightRow(row[0], row[1], row[2], row[3], row[4]);
+    }
+
+    public void updateFlightStatus(String id, String newStatus) {
+        Integer r = rowOf.get(id);
+        if (r == null) return;
+        if (r < rows) {
+            nextStatus[r] = intern(newStatus);
+            dirty.set(r);
+        } else {
+            statusCode[r] = intern(newStatus); // not published yet, goes out with its insert
+        }
+        scheduleFlush();
+    }
+
+    public void flightCompleted(String id) {
+        Integer r = rowOf.get(id);
+        if (r != null) markCompleted(r);
+        scheduleFlush();
+    }
+
+    public int findRow(String id) {
+        Integer r = rowOf.get(id);
+        return r == null || r >= rows ? -1 : r;
+    }
+
+    public long getArchivedRows() { return archivedRows; }
+
+    private void markCompleted(int r) {
+        if (!completed[r]) {
+            completed[r] = true;
+            completedRows++;
+        }
+    }
+
+    // --- frame flush ---
+
+    private void scheduleFlush() {
+        if (flushTimer != null && !flushTimer.isRunning()) flushTimer.start();
+    }
+
+    // Publishes pending changes: one update event per contiguous run of changed rows and
+    // one insert event for appended rows, each applied just before its event fires; then
+    // applies retention.
+    public void flush() {
+        for (int from = dirty.nextSetBit(0); from >= 0; ) {
+            int to = dirty.nextClearBit(from);
+            System.arraycopy(nextStatus, from, statusCode, from, to - from);
+            fireTableRowsUpdated(from, to - 1);
+            from = dirty.nextSetBit(to);
+        }
+        dirty.clear();
+        if (stored > rows) {
+            int from = rows;
+            rows = stored;
+            fireTableRowsInserted(from, rows - 1);
+        }
+        if (completedRows > maxCompletedRows) evictCompleted();
+    }
+
+    // Drops the oldest completed rows down to the limit, compacting storage in one pass
+    private void evictCompleted() {
+        int toEvict = completedRows - maxCompletedRows;
+        int w = 0;
+        for (int r = 0; r < rows; r++) {
+            if (toEvict > 0 && completed[r]) {
+                archiveRow(r);
+                if (isLatest(r, r)) rowOf.remove(ids[r]);
+                toEvict--;
+                completedRows--;
+                continue;
+            }
+            if (w != r) {
+                ids[w] = ids[r];
+                timeCode[w] = timeCode[r];
+                fuelCode[w] = fuelCode[r];
+                statusCode[w] = statusCode[r];
+                termCode[w] = termCode[r];
+                completed[w] = completed[r];
+                if (isLatest(w, r)) rowOf.put(ids[w], w);
+            }
+            w++;
+        }
+        Arrays.fill(ids, w, rows, null);
+        rows = stored = w;
+        fireTableDataChanged();
+    }
+
+    // True if the flight stored at slot is indexed at row r (its most recent row)
+    private boolean isLatest(int slot, int r) {
+        Integer latest = rowOf.get(ids[slot]);
+        return latest != null && latest == r;
+    }
+
+    private void archiveRow(int r) {
+        archivedRows++;
+        if (archive == null) return;
+        try {
+            archive.write(ids[r] + "," + getValueAt(r, 1) + "," + getValueAt(r, 2) + ","
+                    + getValueAt(r, 3) + "," + getValueAt(r, 4) + System.lineSeparator());
+        } catch (IOException e) {
+            archive = null; // keep evicting; the board must stay bounded
+        }
+    }
+
+    private int intern(String s) {
+        Integer code = codes.get(s);
+        if (code == null) {
+            code = strings.size();
+            strings.add(s);
+            codes.put(s, code);
+        }
+        return code;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= ids.length) return;
+        int cap = Math.max(n, ids.length * 2);
+        ids = Arrays.copyOf(ids, cap);
+        timeCode = Arrays.copyOf(timeCode, cap);
+        fuelCode = Arrays.copyOf(fuelCode, cap);
+        statusCode = Arrays.copyOf(statusCode, cap);
+        nextStatus = Arrays.copyOf(nextStatus, cap);
+        termCode = Arrays.copyOf(termCode, cap);
+        completed = Arrays.copyOf(completed, cap);
+    }
+}
@@ -0,0 +1,217 @@
+package runway;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// ==========================================
+// GATE CAPACITY ALLOCATOR (thread-safe)
+// ==========================================
+
+// Gate occupancy as CAS-updated counters in a primitive array indexed by node id.
+// Nodes without a configured capacity are uncapped (always acquirable), as before.
+//
+//  - tryAcquire / release:      lock-free, safe from any number of dispatcher threads
+//  - tryAcquireAll / releaseAll: multi-gate claim with rollback on the first full gate
+//  - acquire(node, timeout):    FIFO waiting for holding flights, with a deadline
+//
+// Capacities are configured up front (layout loading); setCapacity is not meant to race
+// with dispatch.
+final class GateAllocator {
+    // Arrays are swapped together when the id range grows
+    private static final class Table {
+        final int[] capacity;
+        final AtomicIntegerArray occupancy;
+        final Waiters[] waiters; // non-null once setCapacity was called for the node
+
+        Table(int size) {
+            capacity = new int[size];
+            occupancy = new AtomicIntegerArray(size);
+            waiters = new Waiters[size];
+        }
+    }
+
+    // Threads in acquire() for one gate, oldest first (a holder, so the table needs no
+    // generic array)
+    private static final class Waiters {
+        final ConcurrentLinkedQueue<Thread> threads = new ConcurrentLinkedQueue<>();
+    }
+
+    private volatile Table table = new Table(0);
+
+    // Contention metrics
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();  // tryAcquire found the gate full
+    private final LongAdder casRetries = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+
+    public synchronized void setCapacity(int nodeId, int cap) {
+        if (nodeId < 0) throw new IllegalArgumentException("Gate id must be >= 0: " + nodeId);
+        Table t = table;
+        if (nodeId >= t.capacity.length) {
+            Table grown = new Table(Math.max(nodeId + 1, t.capacity.length * 2));
+            System.arraycopy(t.capacity, 0, grown.capacity, 0, t.capacity.length);
+            System.arraycopy(t.waiters, 0, grown.waiters, 0, t.waiters.length);
+            for (int i = 0; i < t.capacity.length; i++) grown.occupancy.set(i, t.occupancy.get(i));
+            t = grown;
+        }
+        t.capacity[nodeId] = cap;
+        t.occupancy.set(nodeId, 0); // Start with 0 planes
+        if (t.waiters[nodeId] == null) t.waiters[nodeId] = new Waiters();
+        table = t;
+    }
+
+    public boolean hasCapacity(int nodeId) {
+        Table t = table;
+        return nodeId >= 0 && nodeId < t.capacity.length && t.waiters[nodeId] != null;
+    }
+
+    public int getCapacity(int nodeId) {
+        Table t = table;
+        return nodeId >= 0 && nodeId < t.capacity.length ? t.capacity[nodeId] : 0;
+    }
+
+    // True only for a capped gate with every slot taken
+    public boolean isFull(int nodeId) {
+        Table t = table;
+        if (nodeId < 0 || nodeId >= t.capacity.length || t.capacity[nodeId] == 0) return false;
+        return t.occupancy.get(nodeId) >= t.capacity[nodeId];
+    }
+
+    public int getOccupancy(int nodeId) {
+        Table t = table;
+        return nodeId >= 0 && nodeId < t.capacity.length ? t.occupancy.get(nodeId) : 0;
+    }
+
+    // --- single gate ---
+
+    public boolean tryAcquire(int nodeId) {
+        Table t = table;
+        if (nodeId < 0 || nodeId >= t.capacity.length || t.capacity[nodeId] == 0) {
+            acquired.increment();
+            return true; // uncapped
+        }
+        if (tryIncrement(t, nodeId)) {
+            acquired.increment();
+            return true;
+        }
+        rejected.increment();
+        return false; // Resource Busy
+    }
+
+    public void release(int nodeId) {
+        Table t = table;
+        if (nodeId < 0 || nodeId >= t.capacity.length || t.capacity[nodeId] == 0) return;
+        while (true) {
+            int cur = t.occupancy.get(nodeId);
+            if (cur == 0) return;
+            if (t.occupancy.compareAndSet(nodeId, cur, cur - 1)) break;
+            casRetries.increment();
+        }
+        Thread next = t.waiters[nodeId].threads.peek();
+        if (next != null) LockSupport.unpark(next);
+    }
+
+    private boolean tryIncrement(Table t, int nodeId) {
+        int max = t.capacity[nodeId];
+        while (true) {
+            int cur = t.occupancy.get(nodeId);
+            if (cur >= max) return false;
+            if (t.occupancy.compareAndSet(nodeId, cur, cur + 1)) return true;
+            casRetries.increment();
+        }
+    }
+
+    // --- batch ---
+
+    // All-or-nothing: either every gate is claimed, or none stays claimed
+    public boolean tryAcquireAll(int[] nodeIds) {
+        for (int i = 0; i < nodeIds.length; i++) {
+            if (!tryAcquire(nodeIds[i])) {
+                for (int j = i - 1; j >= 0; j--) release(nodeIds[j]);
+                rollbacks.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void releaseAll(int[] nodeIds) {
+        for (int id : nodeIds) release(id);
+    }
+
+    // --- fair timed wait ---
+
+    // Waits in FIFO order for a slot at nodeId. Only the head waiter competes for a
+    // freed slot, so a long-holding flight is not starved by later arrivals that also wait.
+    public boolean acquire(int nodeId, long timeout, TimeUnit unit) throws InterruptedException {
+        if (tryAcquireUncontended(nodeId)) return true;
+
+        Table t = table;
+        ConcurrentLinkedQueue<Thread> queue = t.waiters[nodeId].threads;
+        Thread me = Thread.currentThread();
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+        waits.increment();
+        queue.add(me);
+        try {
+            while (true) {
+                if (queue.peek() == me && tryIncrement(t, nodeId)) {
+                    acquired.increment();
+                    return true;
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    timeouts.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(this, left);
+                if (Thread.interrupted()) throw new InterruptedException();
+            }
+        } finally {
+            queue.remove(me);
+            waitNanos.add(System.nanoTime() - start);
+            Thread next = queue.peek(); // pass the turn on (slot may still be free)
+            if (next != null) LockSupport.unpark(next);
+        }
+    }
+
+    // Fast path for acquire(): uncapped, or a free slot with nobody queued ahead
+    private boolean tryAcquireUncontended(int nodeId) {
+        Table t = table;
+        if (nodeId < 0 || nodeId >= t.capacity.length || t.capacity[nodeId] == 0) {
+            acquired.increment();
+            return true;
+        }
+        if (t.waiters[nodeId].threads.isEmpty() && tryIncrement(t, nodeId)) {
+            acquired.increment();
+            return true;
+        }
+        return false;
+    }
+
+    // --- metrics ---
+
+    public long getAcquired() { return acquired.sum(); }
+    public long getRejected() { return rejected.sum(); }
+    public long getCasRetries() { return casRetries.sum(); }
+    public long getWaits() { return waits.sum(); }
+    public long getTimeouts() { return timeouts.sum(); }
+    public long getRollbacks() { return rollbacks.sum(); }
+
+    public double getAverageWaitMillis() {
+        long w = waits.sum();
+        return w == 0 ? 0 : waitNanos.sum() / 1e6 / w;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Gates: %d acquired, %d full, %d CAS retries, %d waits (%.1f ms avg, %d timeouts), %d rollbacks",
+                getAcquired(), getRejected(), getCasRetries(), getWaits(), getAverageWaitMillis(), getTimeouts(), getRollbacks());
+    }
+}
@@ -0,0 +1,38 @@
+package runway;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// ==========================================
+// HEADLESS SINK
+// ==========================================
+
+// Counting sink for headless runs (optionally echoes the ATC log to stdout).
+// Counters are thread-safe so parallel dispatch workers can share one sink.
+class HeadlessSink implements TrafficSink {
+    private final boolean echo;
+    private final LongAdder logLines = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    HeadlessSink() { this(false); }
+    HeadlessSink(boolean echo) { this.echo = echo; }
+
+    @Override
+    public void logToATC(String message) {
+        logLines.increment();
+        if (echo) System.out.println(message);
+    }
+
+    @Override
+    public void addFlightRow(String id, String time, String fuel, String status, String term) { rows.increment(); }
+
+    @Override
+    public void updateFlightStatus(String id, String newStatus) {}
+
+    @Override
+    public void flightCompleted(String id) { completed.increment(); }
+
+    public long getLogLines() { return logLines.sum(); }
+    public long getRows() { return rows.sum(); }
+    public long getCompleted() { return completed.sum(); }
+}
@@ -0,0 +1,121 @@
+package runway;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// ==========================================
+// INGEST LOAD GENERATOR
+// ==========================================
+
+// Local load generator for FlightIngestServer (the --ingest demo and IngestBenchmark).
+// Each connection is a blocking client on its own thread that encodes landing requests
+// into a 64 KB buffer and writes it whole, like a feed that batches on its side.
+final class IngestLoadGenerator implements Closeable {
+    private static final int BUFFER = 64 << 10;
+
+    private final List<SocketChannel> channels = new ArrayList<>();
+    private final int[] gates;
+    private final ByteBuffer reply = ByteBuffer.allocate(256);
+    private long round = 0; // keeps flight ids unique across send() calls
+
+    IngestLoadGenerator(InetSocketAddress server, int connections, int[] gates) throws IOException {
+        this.gates = gates;
+        try {
+            for (int i = 0; i < connections; i++) {
+                SocketChannel ch = SocketChannel.open(server);
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channels.add(ch);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    static String idOf(long round, long i) { return "ING" + round + "-" + i; }
+
+    // Writes count landing requests spread over the connections; returns once all are
+    // written (they may still be in socket buffers or waiting on backpressure)
+    void send(int count) throws InterruptedException {
+        long r = round++;
+        int n = channels.size();
+        Thread[] senders = new Thread[n];
+        IOException[] failure = new IOException[1];
+        for (int k = 0; k < n; k++) {
+            SocketChannel ch = channels.get(k);
+            int from = (int) ((long) count * k / n), to = (int) ((long) count * (k + 1) / n);
+            senders[k] = new Thread(() -> {
+                try {
+                    write(ch, r, from, to);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }, "ingest-feed-" + k);
+            senders[k].start();
+        }
+        for (Thread t : senders) t.join();
+        if (failure[0] != null) throw new IllegalStateException("feed failed", failure[0]);
+    }
+
+    private void write(SocketChannel ch, long r, int from, int to) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(BUFFER);
+        byte[] prefix = ("L ING" + r + "-").getBytes(StandardCharsets.US_ASCII);
+        SplittableRandom rnd = new SplittableRandom(r * 31 + from);
+        for (int i = from; i < to; i++) {
+            if (buf.remaining() < 128) drain(ch, buf);
+            int prio = rnd.nextInt(20) == 0 ? 1 : (rnd.nextInt(5) == 0 ? 2 : 3);
+            buf.put(prefix);
+            FlightIngestServer.putDecimal(buf, i);
+            buf.put((byte) ',');
+            FlightIngestServer.putDecimal(buf, prio);
+            buf.put((byte) ',');
+            FlightIngestServer.putDecimal(buf, 1 + rnd.nextInt(3));
+            buf.put((byte) ',');
+            FlightIngestServer.putDecimal(buf, gates[rnd.nextInt(gates.length)]);
+            buf.put((byte) ',');
+            FlightIngestServer.putDecimal(buf, 30 + rnd.nextInt(71));
+            buf.put((byte) '\n');
+        }
+        drain(ch, buf);
+    }
+
+    private static void drain(SocketChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    // Sends one line on the first connection and returns the server's one-line reply
+    String query(String line) throws IOException {
+        SocketChannel ch = channels.get(0);
+        ByteBuffer req = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (req.hasRemaining()) ch.write(req);
+        reply.clear();
+        while (true) {
+            if (ch.read(reply) < 0) throw new IOException("server closed the connection");
+            for (int i = 0; i < reply.position(); i++) {
+                if (reply.get(i) == '\n') return new String(reply.array(), 0, i, StandardCharsets.UTF_8);
+            }
+            if (!reply.hasRemaining()) throw new IOException("reply too long");
+        }
+    }
+
+    @Override
+    public void close() {
+        for (SocketChannel ch : channels) {
+            try {
+                ch.close();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package runway;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// ==========================================
+// JOURNAL STATE (what a restart must rebuild)
+// ==========================================
+
+// The recoverable part of the tower: active flights (queued, holding for a gate or on
+// the ground) with their board row, gate occupancy and the runway 1 closure. Built by
+// applying journal events in order; EventJournal keeps one up to date while writing,
+// so a snapshot is just this object encoded. Completed flights are dropped.
+//
+// Event layout (after the record header): type byte, then the fields listed per type.
+// Strings are a 16-bit length plus UTF-8 bytes; flight type and status are bytes
+// (FlightStore.LANDING / TAKEOFF, FlightStatus ordinal) and times are clock millis.
+final class JournalState {
+    static final byte REQUESTED = 1;      // id, type, priority, size, gate, fuel, turnaround, time
+    static final byte HELD_FOR_GATE = 2;  // id, fuel, priority
+    static final byte RESUMED = 3;        // id
+    static final byte ASSIGNED = 4;       // id, runway
+    static final byte GATE_ACQUIRED = 5;  // gate
+    static final byte GATE_RELEASED = 6;  // gate
+    static final byte STATUS = 7;         // id, status ordinal
+    static final byte FUEL = 8;           // id, fuel, priority
+    static final byte COMPLETED = 9;      // id
+    static final byte MAINTENANCE = 10;   // runway1Down
+
+    enum Phase { QUEUED, GATE_HOLD, ON_GROUND }
+
+    static final class FlightRecord {
+        String id;
+        byte type;
+        long time;
+        FlightStatus status;
+        int priority, size, gate, fuel;
+        boolean turnaround;
+        Phase phase = Phase.QUEUED;
+        int runway; // while ON_GROUND
+
+        boolean isLanding() { return type == FlightStore.LANDING; }
+    }
+
+    final Map<String, FlightRecord> flights = new LinkedHashMap<>(); // request order
+    final Map<Integer, Integer> gateOccupancy = new TreeMap<>();
+    boolean runway1Down;
+
+    public int count(Phase phase) {
+        int n = 0;
+        for (FlightRecord r : flights.values()) if (r.phase == phase) n++;
+        return n;
+    }
+
+    // Applies one event (buffer positioned at its type byte)
+    void apply(ByteBuffer e) {
+        byte type = e.get();
+        switch (type) {
+            case REQUESTED: {
+                FlightRecord r = new FlightRecord();
+                r.id = getString(e);
+                r.type = e.get();
+                r.priority = e.get();
+                r.size = e.get();
+                r.gate = e.getInt();
+                r.fuel = e.getInt();
+                r.turnaround = e.get() != 0;
+                r.time = e.getLong();
+                r.status = r.isLanding() ? FlightStatus.WAITING_LANDING : FlightStatus.WAITING_TAKEOFF;
+                flights.remove(r.id); // a turnaround's departure re-enters at the back
+                flights.put(r.id, r);
+                break;
+            }
+            case HELD_FOR_GATE: {
+                FlightRecord r = flights.get(getString(e));
+                int fuel = e.getInt(), priority = e.get();
+                if (r != null) {
+                    r.fuel = fuel;
+                    r.priority = priority;
+                    r.phase = Phase.GATE_HOLD;
+                }
+                break;
+            }
+            case RESUMED: {
+                FlightRecord r = flights.get(getString(e));
+                if (r != null) r.phase = Phase.QUEUED;
+                break;
+            }
+            case ASSIGNED: {
+                FlightRecord r = flights.get(getString(e));
+                int runway = e.getInt();
+                if (r != null) {
+                    r.phase = Phase.ON_GROUND;
+                    r.runway = runway;
+                }
+                break;
+            }
+            case GATE_ACQUIRED:
+                gateOccupancy.merge(e.getInt(), 1, Integer::sum);
+                break;
+            case GATE_RELEASED:
+                gateOccupancy.merge(e.getInt(), -1, (a, b) -> a + b == 0 ? null : a + b);
+                break;
+            case STATUS: {
+                FlightRecord r = flights.get(getString(e));
+                FlightStatus status = FlightStatus.of(e.get());
+                if (r != null) r.status = status;
+                break;
+            }
+            case FUEL: {
+                FlightRecord r = flights.get(getString(e));
+                int fuel = e.getInt(), priority = e.get();
+                if (r != null) {
+                    r.fuel = fuel;
+                    r.priority = priority;
+                }
+                break;
+            }
+            case COMPLETED:
+                flights.remove(getString(e));
+                break;
+            case MAINTENANCE:
+                runway1Down = e.get() != 0;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown journal event type " + type);
+        }
+    }
+
+    // --- snapshot encoding ---
+
+    byte[] encode() {
+        int capacity = 64 + flights.size() * 64 + gateOccupancy.size() * 8;
+        while (true) {
+            try {
+                ByteBuffer b = ByteBuffer.allocate(capacity);
+                b.put((byte) (runway1Down ? 1 : 0));
+                b.putInt(gateOccupancy.size());
+                gateOccupancy.forEach((gate, n) -> b.putInt(gate).putInt(n));
+                b.putInt(flights.size());
+                for (FlightRecord r : flights.values()) {
+                    putString(b, r.id);
+                    b.put(r.type).putLong(r.time).put((byte) r.status.ordinal());
+                    b.put((byte) r.priority).put((byte) r.size).putInt(r.gate).putInt(r.fuel);
+                    b.put((byte) (r.turnaround ? 1 : 0)).put((byte) r.phase.ordinal()).putInt(r.runway);
+                }
+                byte[] out = new byte[b.position()];
+                b.flip().get(out);
+                return out;
+            } catch (BufferOverflowException e) {
+                capacity *= 2; // long ids
+            }
+        }
+    }
+
+    static JournalState decode(ByteBuffer b) {
+        JournalState s = new JournalState();
+        s.runway1Down = b.get() != 0;
+        for (int i = b.getInt(); i > 0; i--) s.gateOccupancy.put(b.getInt(), b.getInt());
+        for (int i = b.getInt(); i > 0; i--) {
+            FlightRecord r = new FlightRecord();
+            r.id = getString(b);
+            r.type = b.get();
+            r.time = b.getLong();
+            r.status = FlightStatus.of(b.get());
+            r.priority = b.get();
+            r.size = b.get();
+            r.gate = b.getInt();
+            r.fuel = b.getInt();
+            r.turnaround = b.get() != 0;
+            r.phase = Phase.values()[b.get()];
+            r.runway = b.getInt();
+            s.flights.put(r.id, r);
+        }
+        return s;
+    }
+
+    static ByteBuffer putString(ByteBuffer b, String s) {
+        byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new IllegalArgumentException("Journal string too long: " + bytes.length + " bytes");
+        return b.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer b) {
+        byte[] bytes = new byte[b.getShort() & 0xFFFF];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return flights.size() + " active flights (" + count(Phase.QUEUED) + " queued, " + count(Phase.GATE_HOLD)
+                + " holding for gate, " + count(Phase.ON_GROUND) + " on the ground)";
+    }
+}
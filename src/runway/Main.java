@@ -1,49 +1,36 @@
 package runway;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.io.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
 import java.util.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 // ==========================================
 // 1. DATA ENTITIES
 // ==========================================
 
-class Flight {
-    String id;
-    String type; // "Landing" or "Takeoff"
-    int priority;
-    int size;
-    int terminalNode;
-    int fuel; // Percentage 0-100
-    String time;
-    String status; // e.g., "Waiting", "Taxiing", " docked"
-    boolean isTurnaround;
-
-    public Flight(String id, String type, int priority, int size, int terminalNode, int fuel, boolean isTurnaround) {
-        this.id = id;
-        this.type = type;
-        this.priority = priority;
-        this.size = size;
-        this.terminalNode = terminalNode;
-        this.time = new SimpleDateFormat("HH:mm:ss").format(new Date()); // Current System Time
-        this.status = "Scheduled";
-        this.fuel = fuel;
-        this.isTurnaround = isTurnaround;
-    }
-}
-
 class Runway {
     int id;
     int maxSizeCapacity;
     int exitNodeId;
+    final AtomicBoolean occupied = new AtomicBoolean(false); // claimed by a parallel dispatch worker
+
+    // Occupancy timeline, maintained by RunwayIndex
+    long busyUntil = 0;  // current movement clears the runway at this clock time
+    int lastSize = 0;    // size class of that movement (0 = none yet), drives separation
+    long movements = 0;
+    long busyMillis = 0;
 
     public Runway(int id, int maxSizeCapacity, int exitNodeId) {
         this.id = id;
@@ -58,68 +45,115 @@ class Edge {
     public Edge(int targetNode, int weight) { this.targetNode = targetNode; this.weight = weight; }
 }
 
-class NodeDistance implements Comparable<NodeDistance> {
-    int nodeId;
-    int distance;
-    public NodeDistance(int nodeId, int distance) { this.nodeId = nodeId; this.distance = distance; }
-    @Override public int compareTo(NodeDistance other) { return Integer.compare(this.distance, other.distance); }
-}
-
 // ==========================================
 // 2. BACKEND LOGIC (Graph & Scheduler)
 // ==========================================
 
 class AirportBackend {
-    private Map<Integer, List<Edge>> adjList = new HashMap<>();
-    private Map<Integer, String> nodeNames = new HashMap<>();
-    private Map<Integer, Point> nodeCoords = new HashMap<>();
-    private Map<Integer, Integer> nodeCapacity = new HashMap<>();
-    private Map<Integer, Integer> nodeOccupancy = new HashMap<>();
+    private Map<Integer, List<Edge>> adjList;
+    private Map<Integer, String> nodeNames;
+    private Map<Integer, String> nodeNamesSnapshot; // read-only copy for pool threads, see findRoutes()
+    private Map<Integer, Point> nodeCoords;
+    private final GateAllocator gates = new GateAllocator(); // safe to call from any dispatcher thread
     private boolean runway1Down = false;
+    private int closedExit = -1;  // runway 1's exit node while it is closed
+    private int[] closedWeights;  // weights its outgoing edges had before the closure
+    private RouteSearch routeSearch;
+    private ContractionHierarchy hierarchy; // optional, see buildContractionHierarchy()
+    private final RouteCache routeCache = new RouteCache(1024);
+    private long graphVersion = 0; // bumped on every topology or weight change
+    private RoutingMode routingMode = RoutingMode.DIJKSTRA;
+    private ReservationTable reservations; // cooperative routing, see planRoute(); null when off
+    private CooperativeSearch cooperative;
+    private long cooperativeFallbacks = 0;
+    private long cooperativeConflicts = 0; // reservation cells shared by fallback routes
+
+    public AirportBackend() {
+        this(16);
+    }
+
+    // Maps sized for a layout of about expectedNodes nodes (see AirportLayout)
+    public AirportBackend(int expectedNodes) {
+        int cap = (int) Math.min(1 << 30, Math.max(16L, expectedNodes * 4L / 3 + 1));
+        adjList = new HashMap<>(cap);
+        nodeNames = new HashMap<>(cap);
+        nodeCoords = new HashMap<>(cap);
+    }
     
-    public void toggleRunway1Maintenance() {
+    // Closes or reopens runway 1 by making the edges out of its exit node impassable.
+    // Their weights are saved on closing and put back on reopening, since a loaded layout
+    // has its own distances. An exit node the graph does not have closes no edges.
+    public synchronized void toggleRunway1Maintenance(int exitNode) {
         runway1Down = !runway1Down;
-        
-        // Find edges connected to Node 0 (Runway 1 Exit)
-        // For simplicity, we assume Node 0 connects to Node 2 (Alpha)
-        List<Edge> edges = adjList.get(0);
-        for (Edge e : edges) {
-            if (runway1Down) e.weight = Integer.MAX_VALUE; // Break it
-            else e.weight = 100; // Restore original weight (Hardcoded for now)
+
+        if (runway1Down) {
+            List<Edge> edges = adjList.getOrDefault(exitNode, Collections.emptyList());
+            closedExit = exitNode;
+            closedWeights = new int[edges.size()];
+            for (int i = 0; i < closedWeights.length; i++) {
+                Edge e = edges.get(i);
+                closedWeights[i] = e.weight;
+                e.weight = Integer.MAX_VALUE; // Break it
+                if (hierarchy != null) hierarchy.updateEdgeWeight(exitNode, e.targetNode, e.weight);
+            }
+        } else if (closedWeights != null) {
+            // Paths added during the closure come after the saved ones and were never broken
+            List<Edge> edges = adjList.get(closedExit);
+            for (int i = 0; i < closedWeights.length; i++) {
+                Edge e = edges.get(i);
+                e.weight = closedWeights[i];
+                if (hierarchy != null) hierarchy.updateEdgeWeight(closedExit, e.targetNode, e.weight);
+            }
+            closedExit = -1;
+            closedWeights = null;
         }
+        invalidateWeights(); // topology unchanged, so the hierarchy is kept
     }
 
     public boolean isRunway1Down() { return runway1Down; }
     
     public void setNodeCapacity(int id, int cap) {
-        nodeCapacity.put(id, cap);
-        nodeOccupancy.put(id, 0); // Start with 0 planes
+        gates.setCapacity(id, cap);
     }
 
     public boolean tryAcquireGate(int nodeId) {
-        int max = nodeCapacity.getOrDefault(nodeId, 0);
-        int current = nodeOccupancy.getOrDefault(nodeId, 0);
-        
-        if (max == 0) return true; 
+        return gates.tryAcquire(nodeId);
+    }
 
-        if (current < max) {
-            nodeOccupancy.put(nodeId, current + 1); // Lock resource
-            return true;
-        }
-        return false; // Resource Busy
+    // All-or-nothing claim of several gates (rolled back if any one is full)
+    public boolean tryAcquireGates(int[] nodeIds) {
+        return gates.tryAcquireAll(nodeIds);
+    }
+
+    // Waits in line for a gate slot, giving up after the timeout
+    public boolean acquireGate(int nodeId, long timeout, TimeUnit unit) throws InterruptedException {
+        return gates.acquire(nodeId, timeout, unit);
     }
 
     // 3. Release the Gate (Free resource)
     public void releaseGate(int nodeId) {
-        int current = nodeOccupancy.getOrDefault(nodeId, 0);
-        if (current > 0) {
-            nodeOccupancy.put(nodeId, current - 1);
-        }
+        gates.release(nodeId);
+    }
+
+    public void releaseGates(int[] nodeIds) {
+        gates.releaseAll(nodeIds);
     }
 
     public String getGateStatus(int nodeId) {
-        if (!nodeCapacity.containsKey(nodeId)) return "";
-        return "[" + nodeOccupancy.get(nodeId) + "/" + nodeCapacity.get(nodeId) + "]";
+        if (!gates.hasCapacity(nodeId)) return "";
+        return "[" + gates.getOccupancy(nodeId) + "/" + gates.getCapacity(nodeId) + "]";
+    }
+
+    public GateAllocator getGateAllocator() { return gates; }
+
+    // Nodes with a gate capacity, by id
+    public synchronized List<Integer> getGateNodes() {
+        List<Integer> ids = new ArrayList<>();
+        for (Integer id : nodeNames.keySet()) {
+            if (gates.hasCapacity(id)) ids.add(id);
+        }
+        Collections.sort(ids);
+        return ids;
     }
     
     private AirportGUI gui;
@@ -128,10 +162,11 @@ class AirportBackend {
         this.gui = gui;
     }
     
-    public void addLocation(int id, String name, int x, int y) {
+    public synchronized void addLocation(int id, String name, int x, int y) {
         nodeNames.put(id, name);
         nodeCoords.put(id, new Point(x, y));
         adjList.putIfAbsent(id, new ArrayList<>());
+        invalidateGraph();
     }
     
     public Map<Integer, Point> getAllCoords() { return nodeCoords; }
@@ -142,233 +177,784 @@ class AirportBackend {
         return nodeCoords.get(id);
     }
 
-    public void addLocation(int id, String name) {
+    public synchronized void addLocation(int id, String name) {
         nodeNames.put(id, name);
         adjList.putIfAbsent(id, new ArrayList<>());
+        invalidateGraph();
     }
 
-    public void addPath(int u, int v, int distance) {
+    public synchronized void addPath(int u, int v, int distance) {
         adjList.get(u).add(new Edge(v, distance));
         adjList.putIfAbsent(v, new ArrayList<>());
         adjList.get(v).add(new Edge(u, distance));
+        invalidateGraph();
     }
 
-    // Dijkstra's Algorithm
-    public String findShortestPath(int startNode, int endNode) {
-        PriorityQueue<NodeDistance> pq = new PriorityQueue<>();
-        Map<Integer, Integer> distances = new HashMap<>();
-        Map<Integer, Integer> previousNodes = new HashMap<>();
-
-        for (Integer node : nodeNames.keySet()) distances.put(node, Integer.MAX_VALUE);
-        distances.put(startNode, 0);
-        pq.add(new NodeDistance(startNode, 0));
-
-        while (!pq.isEmpty()) {
-            NodeDistance current = pq.poll();
-            int u = current.nodeId;
-            if (u == endNode) break;
-            if (current.distance > distances.get(u)) continue;
-
-            if (adjList.containsKey(u)) {
-                for (Edge edge : adjList.get(u)) {
-                    int v = edge.targetNode;
-                    int newDist = distances.get(u) + edge.weight;
-                    if (newDist < distances.get(v)) {
-                        distances.put(v, newDist);
-                        previousNodes.put(v, u);
-                        pq.add(new NodeDistance(v, newDist));
-                    }
-                }
+    // Bulk forms for layout loading: one lock and one graph invalidation for the lot
+    public synchronized void addLocations(int[] ids, String[] names, int[] xs, int[] ys) {
+        for (int i = 0; i < ids.length; i++) {
+            nodeNames.put(ids[i], names[i]);
+            nodeCoords.put(ids[i], new Point(xs[i], ys[i]));
+            adjList.putIfAbsent(ids[i], new ArrayList<>(0));
+        }
+        invalidateGraph();
+    }
+
+    // Edge lists are grown once to their final degree instead of doubling per path
+    public synchronized void addPaths(int[] from, int[] to, int[] distances) {
+        int[] ids = adjList.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] degree = new int[ids.length];
+        for (int i = 0; i < from.length; i++) {
+            degree[Arrays.binarySearch(ids, from[i])]++; // paths between known nodes only, as addPath
+            degree[Arrays.binarySearch(ids, to[i])]++;
+        }
+        for (int k = 0; k < ids.length; k++) {
+            if (degree[k] == 0) continue;
+            List<Edge> old = adjList.get(ids[k]);
+            ArrayList<Edge> edges = new ArrayList<>(old.size() + degree[k]);
+            edges.addAll(old);
+            adjList.put(ids[k], edges);
+        }
+        for (int i = 0; i < from.length; i++) {
+            adjList.get(from[i]).add(new Edge(to[i], distances[i]));
+            adjList.get(to[i]).add(new Edge(from[i], distances[i]));
+        }
+        invalidateGraph();
+    }
+
+    // Dijkstra's Algorithm (one search serves both the display string and the node list).
+    // Search scratch arrays and the LRU cache are guarded by this backend's monitor, so
+    // parallel dispatch workers can share it; their lookups are nearly all cache hits.
+    public synchronized Route findRoute(int startNode, int endNode) {
+        Route cached = routeCache.get(startNode, endNode, graphVersion);
+        if (cached != null) return cached;
+
+        Route route = findRoute(startNode, endNode, routingMode);
+        routeCache.put(startNode, endNode, graphVersion, route);
+        return route;
+    }
+
+    // Uncached search with an explicit algorithm
+    public synchronized Route findRoute(int startNode, int endNode, RoutingMode mode) {
+        if (mode == RoutingMode.CONTRACTION_HIERARCHY) {
+            return buildContractionHierarchy().query(startNode, endNode, nodeNames);
+        }
+        return search().search(startNode, endNode, nodeNames, mode == RoutingMode.A_STAR);
+    }
+
+    // Optional preprocessing for large layouts; reused until nodes or paths are added
+    public synchronized ContractionHierarchy buildContractionHierarchy() {
+        if (hierarchy == null) {
+            hierarchy = ContractionHierarchy.build(search().getGraph());
+        }
+        return hierarchy;
+    }
+
+    // Cooperative routing: each route is planned around the taxiway nodes and edges that
+    // earlier clearances have reserved, holding where needed, and then reserved itself.
+    // Ticks of 500 ms over a ~8.5 minute window; off by default (-Drunway.cooperative=true).
+    public synchronized void setCooperativeRouting(boolean on) {
+        reservations = on ? new ReservationTable(500, 1024) : null;
+        cooperative = null;
+    }
+
+    public boolean isCooperativeRouting() { return reservations != null; }
+    public ReservationTable getReservations() { return reservations; }
+    public synchronized long getCooperativeFallbacks() { return cooperativeFallbacks; }
+    public synchronized long getCooperativeConflicts() { return cooperativeConflicts; }
+
+    // Route for a flight cleared at departMillis (clock time). With cooperative routing
+    // off this is findRoute(); with it on the result is timed and reserved. If no
+    // conflict-free route fits the window (taxi demand above what the taxiways carry), the
+    // static route is reserved at free-flow times anyway, so later flights still plan
+    // around it; the cells it shares with earlier flights are counted as conflicts.
+    public synchronized Route planRoute(int startNode, int endNode, long departMillis) {
+        if (reservations == null) return findRoute(startNode, endNode);
+        if (cooperative == null) cooperative = new CooperativeSearch(search().getGraph(), reservations.getTickMillis());
+        Route route = cooperative.plan(startNode, endNode, departMillis, reservations, nodeNames);
+        if (route != null) return route;
+        cooperativeFallbacks++;
+        Route fixed = findRoute(startNode, endNode);
+        long before = cooperative.getConflicts();
+        Route reserved = cooperative.reserveFixed(fixed, departMillis, reservations, nodeNames);
+        cooperativeConflicts += cooperative.getConflicts() - before;
+        return reserved != null ? reserved : fixed;
+    }
+
+    // Routes for a batch of (start, end) requests, in request order: one single-source
+    // search per distinct start, run in parallel on the pool over the current CSR
+    // snapshot and a read-only copy of the node names. The backend is only locked to take
+    // the snapshots. Distances match findRoute(); with DIJKSTRA routing the paths are
+    // identical too.
+    public Route[] findRoutes(int[] starts, int[] ends) {
+        return findRoutes(starts, ends, ForkJoinPool.commonPool());
+    }
+
+    public Route[] findRoutes(int[] starts, int[] ends, ForkJoinPool pool) {
+        TaxiwayGraph graph;
+        Map<Integer, String> names;
+        synchronized (this) {
+            graph = search().getGraph();
+            if (nodeNamesSnapshot == null) nodeNamesSnapshot = Collections.unmodifiableMap(new HashMap<>(nodeNames));
+            names = nodeNamesSnapshot;
+        }
+        return BatchRoutePlanner.plan(graph, starts, ends, names, pool);
+    }
+
+    // Batch-plans routes that dispatch will ask findRoute() for and stores them in the
+    // route cache, as a task on the common pool: the caller (a schedule load on the EDT)
+    // does not wait, and dispatch that gets to a pair first simply misses the cache.
+    // Pairs already cached are left out; skipped when the cache would not be used
+    // (another routing mode, cooperative routing) or could not hold them all.
+    public CompletableFuture<Void> prefetchRoutes(int[] starts, int[] ends) {
+        return CompletableFuture.runAsync(() -> fillRouteCache(starts, ends), ForkJoinPool.commonPool());
+    }
+
+    private void fillRouteCache(int[] starts, int[] ends) {
+        long version;
+        int n = 0;
+        synchronized (this) {
+            if (routingMode != RoutingMode.DIJKSTRA || reservations != null) return;
+            if (starts.length > routeCache.getCapacity() / 2) return;
+            version = graphVersion;
+            starts = starts.clone();
+            ends = ends.clone();
+            for (int i = 0; i < starts.length; i++) {
+                if (routeCache.contains(starts[i], ends[i], version)) continue;
+                starts[n] = starts[i];
+                ends[n++] = ends[i];
             }
         }
+        if (n == 0) return;
+        starts = Arrays.copyOf(starts, n);
+        ends = Arrays.copyOf(ends, n);
+        Route[] routes = findRoutes(starts, ends);
+        synchronized (this) {
+            if (version != graphVersion || routingMode != RoutingMode.DIJKSTRA || reservations != null) return; // changed meanwhile
+            for (int i = 0; i < routes.length; i++) routeCache.put(starts[i], ends[i], version, routes[i]);
+        }
+    }
 
-        // Reconstruct Path string for display
-        if (distances.get(endNode) == Integer.MAX_VALUE) return "No Path";
-        
-        List<String> pathNames = new ArrayList<>();
-        Integer curr = endNode;
-        while (curr != null) {
-            pathNames.add(nodeNames.get(curr));
-            curr = previousNodes.get(curr);
+    public String findShortestPath(int startNode, int endNode) {
+        return findRoute(startNode, endNode).toString();
+    }
+
+    public List<Integer> getPathList(int startNode, int endNode) {
+        return findRoute(startNode, endNode).getPathList();
+    }
+
+    // A* variants: Euclidean heuristic over nodeCoords, scaled to edge-weight units
+    public String findShortestPathAStar(int startNode, int endNode) {
+        return findRoute(startNode, endNode, RoutingMode.A_STAR).toString();
+    }
+
+    public List<Integer> getPathListAStar(int startNode, int endNode) {
+        return findRoute(startNode, endNode, RoutingMode.A_STAR).getPathList();
+    }
+
+    public synchronized void setRoutingMode(RoutingMode mode) {
+        routingMode = mode;
+        routeCache.clear(); // cached routes carry the other algorithm's expansion counts
+    }
+
+    public RoutingMode getRoutingMode() { return routingMode; }
+
+    // Runs A* and plain Dijkstra between `samples` random node pairs of the current graph
+    // and returns how many shortest distances differ (0 = no counterexample to A*'s
+    // heuristic being admissible was found)
+    public synchronized int checkHeuristicAdmissibility(int samples, long seed) {
+        RouteSearch search = search();
+        TaxiwayGraph graph = search.getGraph();
+        if (graph.size() == 0) return 0;
+        Random rnd = new Random(seed);
+        int mismatches = 0;
+        for (int i = 0; i < samples; i++) {
+            int a = graph.ids[rnd.nextInt(graph.size())], b = graph.ids[rnd.nextInt(graph.size())];
+            int exact = search.search(a, b, nodeNames).getDistance();
+            if (search.search(a, b, nodeNames, true).getDistance() != exact) mismatches++;
         }
-        Collections.reverse(pathNames);
-        return String.join(" -> ", pathNames);
+        return mismatches;
     }
-    
-	 public List<Integer> getPathList(int startNode, int endNode) {
-	     // Re-run Dijkstra logic to get the list
-	     PriorityQueue<NodeDistance> pq = new PriorityQueue<>();
-	     Map<Integer, Integer> distances = new HashMap<>();
-	     Map<Integer, Integer> previousNodes = new HashMap<>();
-	
-	     for (Integer node : nodeNames.keySet()) distances.put(node, Integer.MAX_VALUE);
-	     distances.put(startNode, 0);
-	     pq.add(new NodeDistance(startNode, 0));
-	
-	     while (!pq.isEmpty()) {
-	         NodeDistance current = pq.poll();
-	         int u = current.nodeId;
-	         if (u == endNode) break;
-	         if (current.distance > distances.get(u)) continue;
-	
-	         if (adjList.containsKey(u)) {
-	             for (Edge edge : adjList.get(u)) {
-	                 if (edge.weight == Integer.MAX_VALUE) continue; 
-	
-	                 int v = edge.targetNode;
-	                 int newDist = distances.get(u) + edge.weight;
-	                 if (newDist < distances.get(v)) {
-	                     distances.put(v, newDist);
-	                     previousNodes.put(v, u);
-	                     pq.add(new NodeDistance(v, newDist));
-	                 }
-	             }
-	         }
-	     }
-	
-	     List<Integer> path = new ArrayList<>();
-	     Integer curr = endNode;
-	     while (curr != null) {
-	         path.add(curr);
-	         curr = previousNodes.get(curr);
-	     }
-	     Collections.reverse(path);
-	     return path;
-	 }
-    
+
+    public synchronized double getHeuristicScale() {
+        return search().getGraph().heuristicScale;
+    }
+
+    // CSR snapshot is rebuilt lazily after any change to nodes, edges or weights
+    private RouteSearch search() {
+        if (routeSearch == null) {
+            routeSearch = new RouteSearch(TaxiwayGraph.build(adjList, nodeCoords));
+        }
+        return routeSearch;
+    }
+
+    private void invalidateGraph() {
+        hierarchy = null;
+        nodeNamesSnapshot = null;
+        invalidateWeights();
+    }
+
+    private void invalidateWeights() {
+        routeSearch = null;
+        cooperative = null; // reservations are by node id and survive the rebuild
+        graphVersion++;
+    }
+
+    public long getGraphVersion() { return graphVersion; }
+    public RouteCache getRouteCache() { return routeCache; }
 }
 
+// Dispatch runs in one of two modes:
+//  - processNextFlight(): one flight per call on the caller's thread (EDT timer or
+//    SimulationEngine); deterministic. Runways are booked on the clock's timeline
+//    (occupancy + wake separation, see RunwayIndex); a busy runway sends the flight back
+//    to the queue.
+//  - dispatchNext(): called concurrently by ParallelDispatcher workers; each flight claims
+//    its best-fit free runway for the occupancy time, waiting if all fitting runways are busy.
+// Both share the queue ordering (emergencies first, then largest aircraft first, see FlightQueue).
 class TrafficController {
-    private PriorityQueue<Flight> flightQueue;
-    private List<Runway> runways = new ArrayList<>();
+    private final FlightStore flights = new FlightStore();      // every flight handled, by int handle
+    private final FlightQueue flightQueue;
+    private final List<Integer> gateHolds = new ArrayList<>(); // landings parked until their gate frees (guarded by itself)
+    private final RunwayIndex runwayIndex = new RunwayIndex();  // configured before dispatch starts
     private AirportBackend backend;
-    private AirportGUI gui;
-    private String currentWeather = "Sunny"; // Default
+    private TrafficSink sink;
+    private SimClock clock;
+    private volatile String currentWeather = "Sunny"; // Default
+    private Runnable queueListener; // told whenever a flight enters the queue
+    private volatile FlightJournal journal = FlightJournal.NONE; // see setJournal / restore
+
+    // Parallel mode: how long a landing waits in line at a full gate before it is parked
+    // in the gate holds (-Drunway.gateWaitMillis), and how many workers may wait at once.
+    // A waiting worker dispatches nothing, so ParallelDispatcher always leaves one free
+    // for the departures that empty the gates.
+    static final long GATE_WAIT_MILLIS = Long.getLong("runway.gateWaitMillis", 250);
+    private volatile int gateWaitLimit = 0;
+    private final java.util.concurrent.atomic.AtomicInteger gateWaiters = new java.util.concurrent.atomic.AtomicInteger();
+
+    // Instrumentation (see MetricsRegistry); flight times in clock millis, latencies in nanos
+    static final double TAXI_UNITS_PER_SECOND = 50; // nominal taxi speed in addPath distance units
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final MetricsRegistry.Histogram queueTime = metrics.histogram("flight.queueMillis");
+    private final MetricsRegistry.Histogram timeToRunway = metrics.histogram("flight.toRunwayMillis");
+    private final MetricsRegistry.Histogram taxiTime = metrics.histogram("flight.taxiMillis");
+    private final MetricsRegistry.Histogram taxiHold = metrics.histogram("flight.taxiHoldMillis"); // cooperative routing only
+    private final MetricsRegistry.Histogram gateDwell = metrics.histogram("flight.gateDwellMillis");
+    private final MetricsRegistry.Histogram dispatchLatency = metrics.histogram("dispatch.nanos");
+    private final MetricsRegistry.Histogram routingLatency = metrics.histogram("routing.nanos");
+    private final java.util.concurrent.atomic.LongAdder requested = metrics.counter("flights.requested");
+    private final java.util.concurrent.atomic.LongAdder emergencies = metrics.counter("flights.emergency");
+    private final java.util.concurrent.atomic.LongAdder landed = metrics.counter("flights.landed");
+    private final java.util.concurrent.atomic.LongAdder departed = metrics.counter("flights.departed");
+    private final java.util.concurrent.atomic.LongAdder diverted = metrics.counter("flights.diverted");
+    private final java.util.concurrent.atomic.LongAdder gateHoldEvents = metrics.counter("flights.gateHolds");
+    private final java.util.concurrent.atomic.LongAdder runwayWaits = metrics.counter("flights.runwayWaits");
+    private final Set<Integer> gaugedGates = java.util.concurrent.ConcurrentHashMap.newKeySet();
+
+    // Parallel mode: workers wait here when every runway that fits their flight is occupied
+    private final ReentrantLock runwayLock = new ReentrantLock();
+    private final Condition runwayFreed = runwayLock.newCondition();
     
     public void setWeather(String weather) {
         this.currentWeather = weather;
-        gui.logToATC("⚠️ WEATHER ALERT: Conditions changed to " + weather.toUpperCase());
+        sink.logToATC("⚠️ WEATHER ALERT: Conditions changed to " + weather.toUpperCase());
     }
 
-    public TrafficController(AirportBackend backend, AirportGUI gui) {
+    public TrafficController(AirportBackend backend, TrafficSink sink) {
+        this(backend, sink, new SwingClock());
+    }
+
+    public TrafficController(AirportBackend backend, TrafficSink sink, SimClock clock) {
         this.backend = backend;
-        this.gui = gui;
-        this.flightQueue = new PriorityQueue<>((f1, f2) -> {
-            if (f1.priority != f2.priority) return Integer.compare(f1.priority, f2.priority);
-            return Integer.compare(f2.size, f1.size);
-        });
+        this.sink = sink;
+        this.clock = clock;
+        this.flightQueue = new FlightQueue(clock, flights);
+
+        metrics.gauge("queue.depth", flightQueue::size);
+        metrics.gauge("queue.gateHolds", this::getGateHoldCount);
+        metrics.gauge("routing.cacheHitRate", () -> backend.getRouteCache().getHitRate());
+        metrics.gauge("routing.cooperativeFallbacks", backend::getCooperativeFallbacks);
+        metrics.gauge("routing.cooperativeConflicts", backend::getCooperativeConflicts);
+        GateAllocator gates = backend.getGateAllocator();
+        metrics.gauge("gates.waits", gates::getWaits);
+        metrics.gauge("gates.waitTimeouts", gates::getTimeouts);
+        metrics.gauge("gates.waitMillis.mean", gates::getAverageWaitMillis);
+        metrics.gauge("gates.rollbacks", gates::getRollbacks);
     }
     
     public void toggleMaintenance() {
-        backend.toggleRunway1Maintenance();
+        backend.toggleRunway1Maintenance(getRunway1Exit());
+        journal.maintenanceChanged(backend.isRunway1Down());
         if (backend.isRunway1Down()) {
-            gui.logToATC("ALERT: RUNWAY 1 CLOSED FOR MAINTENANCE!");
+            sink.logToATC("ALERT: RUNWAY 1 CLOSED FOR MAINTENANCE!");
         } else {
-            gui.logToATC("INFO: RUNWAY 1 REOPENED.");
+            sink.logToATC("INFO: RUNWAY 1 REOPENED.");
         }
     }
 
     public void addRunway(int id, int cap, int node) {
-        runways.add(new Runway(id, cap, node));
+        runwayIndex.add(new Runway(id, cap, node));
+    }
+
+    // Exit node of the runway with id 1, as configured by the layout; -1 if there is none
+    private int getRunway1Exit() {
+        for (Runway r : runwayIndex.getRunways()) {
+            if (r.id == 1) return r.exitNodeId;
+        }
+        return -1;
+    }
+
+    public int getQueueSize() { return flightQueue.size(); }
+    public FlightQueue getFlightQueue() { return flightQueue; }
+    public FlightStore getFlightStore() { return flights; }
+    public MetricsRegistry getMetrics() { return metrics; }
+    public int getRunwayCount() { return runwayIndex.size(); }
+    public RunwayIndex getRunwayIndex() { return runwayIndex; }
+
+    public void setQueueListener(Runnable listener) { this.queueListener = listener; }
+    public void setGateWaitLimit(int workers) { this.gateWaitLimit = Math.max(0, workers); }
+    public void setJournal(FlightJournal journal) { this.journal = journal; }
+    public boolean isRunway1Down() { return backend.isRunway1Down(); }
+
+    private void flightQueued() {
+        Runnable l = queueListener;
+        if (l != null) l.run();
+    }
+
+    // Why the head of the queue could or could not be dispatched right now
+    public DispatchState getDispatchState() {
+        int head = flightQueue.peek();
+        if (head == FlightQueue.NONE) return DispatchState.EMPTY;
+        int size = flights.getSize(head);
+        if (runwayIndex.fits(size) && runwayIndex.nextFree(size) > clock.now()) return DispatchState.RUNWAY_BUSY;
+        if (flights.isLanding(head) && backend.getGateAllocator().isFull(flights.getGate(head))) return DispatchState.GATE_FULL;
+        return DispatchState.READY;
+    }
+
+    // When the head of the queue could next get a runway (now if one is free or none fits)
+    public long nextRunwayFree() {
+        int head = flightQueue.peek();
+        long now = clock.now();
+        if (head == FlightQueue.NONE || !runwayIndex.fits(flights.getSize(head))) return now;
+        return Math.max(now, runwayIndex.nextFree(flights.getSize(head)));
+    }
+    public boolean isKnownLocation(int nodeId) { return backend.getNodeName(nodeId) != null; }
+    public String getLocationName(int nodeId) { return backend.getNodeName(nodeId); }
+    public List<Integer> getGateNodes() { return backend.getGateNodes(); }
+    public int getGateHoldCount() {
+        synchronized (gateHolds) { return gateHolds.size(); }
     }
 
     public void requestFlight(String id, String type, int prio, int size, int gate, int fuel, boolean isTurnaround) {
-        Flight f = new Flight(id, type, prio, size, gate, fuel, isTurnaround);
-        
-        if (f.fuel < 25) {
-            f.priority = 1; // Force Emergency Status
-            gui.logToATC("⚠️ MAYDAY: Flight " + id + " reporting Low Fuel (" + f.fuel + "%). Priority upgraded to EMERGENCY.");
+        checkSize(id, size);
+        byte t = type.equals("Takeoff") ? FlightStore.TAKEOFF : FlightStore.LANDING;
+        submit(flights.add(id, t, prio, size, gate, fuel, isTurnaround, clock.now()));
+    }
+
+    // RunwayIndex keeps one runway ordering per size class, so anything else is rejected
+    // before the flight is stored or queued
+    private static void checkSize(String id, int size) {
+        if (size < 1 || size > 3) {
+            throw new IllegalArgumentException("Flight " + id + ": aircraft size must be 1-3, was " + size);
+        }
+    }
+
+    private void submit(int f) {
+        String id = flights.getId(f);
+        int fuel = flights.getFuel(f);
+        flights.setRequestedAt(f, clock.now());
+        requested.increment();
+        if (fuel < FlightQueue.LOW_FUEL) {
+            flights.setPriority(f, 1); // Force Emergency Status
+            emergencies.increment();
+            sink.logToATC("⚠️ MAYDAY: Flight " + id + " reporting Low Fuel (" + fuel + "%). Priority upgraded to EMERGENCY.");
         } else {
-            gui.logToATC("TOWER: Flight " + id + " requesting landing. Added to holding pattern.");
+            sink.logToATC("TOWER: Flight " + id + " requesting landing. Added to holding pattern.");
         }
 
+        FlightStatus waiting = flights.isLanding(f) ? FlightStatus.WAITING_LANDING : FlightStatus.WAITING_TAKEOFF;
+        flights.setStatus(f, waiting);
+        String row = clock.timestamp(flights.getTime(f)); // read before a worker can take f
+        journal.requested(flights, f);
         flightQueue.add(f);
-        gui.addFlightRow(f.id, f.time, f.fuel + "%", "Waiting (" + type + ")", backend.getNodeName(f.terminalNode));
+        sink.addFlightRow(id, row, fuel + "%", waiting.label, backend.getNodeName(flights.getGate(f)));
+        flightQueued();
+    }
+
+    // Bulk landing requests from a schedule file: one summary log line per batch
+    // (emergencies are still announced individually) and one table insert.
+    public void requestFlights(ScheduleBatch batch) {
+        for (int i = 0; i < batch.count; i++) checkSize(batch.ids[i], batch.size[i]);
+        long now = clock.now();
+        String time = clock.timestamp(now);
+        List<String[]> rows = new ArrayList<>(batch.count);
+        requested.add(batch.count);
+        for (int i = 0; i < batch.count; i++) {
+            String id = batch.ids[i];
+            int fuel = batch.fuel[i];
+            int f = flights.add(id, FlightStore.LANDING, batch.priority[i], batch.size[i], batch.gate[i],
+                                fuel, batch.turnaround[i], now);
+            flights.setRequestedAt(f, now);
+            flights.setStatus(f, FlightStatus.WAITING_LANDING);
+            if (fuel < FlightQueue.LOW_FUEL) {
+                flights.setPriority(f, 1); // Force Emergency Status
+                emergencies.increment();
+                sink.logToATC("⚠️ MAYDAY: Flight " + id + " reporting Low Fuel (" + fuel + "%). Priority upgraded to EMERGENCY.");
+            }
+            journal.requested(flights, f);
+            flightQueue.add(f);
+            rows.add(new String[]{id, time, fuel + "%", FlightStatus.WAITING_LANDING.label, backend.getNodeName(batch.gate[i])});
+        }
+        sink.addFlightRows(rows);
+        sink.logToATC("TOWER: " + batch.count + " scheduled flights added to holding pattern.");
+        prefetchRoutes(batch);
+        flightQueued();
+    }
+
+    // Landing and departure routes between every runway exit and the batch's gates,
+    // planned in one background pass so dispatch finds them in the route cache
+    private void prefetchRoutes(ScheduleBatch batch) {
+        int[] gates = java.util.stream.IntStream.of(batch.gate).limit(batch.count).distinct().toArray();
+        List<Runway> runways = runwayIndex.getRunways();
+        int n = 2 * gates.length * runways.size(), k = 0;
+        int[] starts = new int[n], ends = new int[n];
+        for (Runway r : runways) {
+            for (int gate : gates) {
+                starts[k] = r.exitNodeId;
+                ends[k++] = gate;
+                starts[k] = gate;
+                ends[k++] = r.exitNodeId;
+            }
+        }
+        backend.prefetchRoutes(starts, ends);
     }
     
-    private void scheduleDeboarding(Flight f) {
-        gui.logToATC("GROUND: Flight " + f.id + " de-boarding at " + backend.getNodeName(f.terminalNode));
-        gui.updateFlightStatus(f.id, "De-boarding");
+    // Fuel report from a holding flight; low fuel re-ranks it in place as an emergency
+    public void reportFuel(String id, int fuel) {
+        int f = flightQueue.find(id);
+        boolean emergency = flightQueue.updateFuel(id, fuel);
+        if (f != FlightQueue.NONE) journal.fuelChanged(flights, f);
+        if (emergency) {
+            emergencies.increment();
+            sink.logToATC("⚠️ MAYDAY: Flight " + id + " reporting Low Fuel (" + fuel + "%). Priority upgraded to EMERGENCY.");
+        }
+    }
 
-        javax.swing.Timer deboardTimer = new javax.swing.Timer(3000, e -> {
-            backend.releaseGate(f.terminalNode);
-            
-            gui.logToATC("RESOURCE: Gate freed at " + backend.getNodeName(f.terminalNode) + " (Flight " + f.id + " cleared)");
-            gui.updateFlightStatus(f.id, "Docked (Completed)");
+    // A missed slot costs 5% fuel; flights not in the queue right now are re-ranked on re-entry
+    private void burnHoldingFuel(int f) {
+        int fuel = flights.getFuel(f) - 5;
+        flights.setFuel(f, fuel);
+        if (fuel < FlightQueue.LOW_FUEL && flights.getPriority(f) != 1) {
+            flights.setPriority(f, 1);
+            emergencies.increment();
+            sink.logToATC("⚠️ MAYDAY: Flight " + flights.getId(f) + " reporting Low Fuel (" + fuel + "%). Priority upgraded to EMERGENCY.");
+        }
+        journal.fuelChanged(flights, f);
+    }
+
+    private void setStatus(int f, FlightStatus status) {
+        String id = flights.getId(f);
+        flights.setStatus(f, status);
+        sink.updateFlightStatus(id, status.label);
+        journal.statusChanged(id, status);
+    }
+
+    private void complete(int f) {
+        String id = flights.getId(f);
+        sink.flightCompleted(id);
+        journal.completed(id);
+    }
+
+    private void releaseGate(int gate) {
+        backend.releaseGate(gate);
+        journal.gateReleased(gate);
+    }
+
+    private void scheduleDeboarding(int f) {
+        int gate = flights.getGate(f);
+        sink.logToATC("GROUND: Flight " + flights.getId(f) + " de-boarding at " + backend.getNodeName(gate));
+        setStatus(f, FlightStatus.DEBOARDING);
+
+        clock.schedule(3000, () -> {
+            gateDwell.record(clock.now() - flights.getGateSince(f));
+            freeGate(gate);
             
-            ((javax.swing.Timer)e.getSource()).stop();
+            sink.logToATC("RESOURCE: Gate freed at " + backend.getNodeName(gate) + " (Flight " + flights.getId(f) + " cleared)");
+            setStatus(f, FlightStatus.DOCKED);
+            complete(f);
         });
-        
-        deboardTimer.setRepeats(false);
-        deboardTimer.start();
+    }
+
+    // Releases one slot and lets the longest-holding flight for this gate back into the queue
+    private void freeGate(int gate) {
+        releaseGate(gate);
+        resumeHolds(gate);
+    }
+
+    // One slot, one flight: re-queuing every holder would just bounce the rest back into holds.
+    // In parallel mode the resumed flight then queues for the slot in GateAllocator.acquire,
+    // behind any landing already waiting there.
+    private void resumeHolds(int gate) {
+        int resumed = FlightQueue.NONE;
+        synchronized (gateHolds) {
+            for (Iterator<Integer> it = gateHolds.iterator(); it.hasNext(); ) {
+                int held = it.next();
+                if (flights.getGate(held) == gate) {
+                    it.remove();
+                    resumed = held;
+                    break;
+                }
+            }
+        }
+        // Queued outside the monitor: dispatch workers are virtual threads, and a monitor
+        // wait pins their carrier while the queue lock holder may need one to finish
+        if (resumed != FlightQueue.NONE) {
+            journal.resumed(flights.getId(resumed));
+            flightQueue.add(resumed);
+            flightQueued();
+        }
+    }
+
+    // Rebuilds the tower from a recovered journal: gate occupancy, runway 1 closure, the
+    // board rows, the holding queue and gate holds. Flights that were on the ground start
+    // their de-boarding / servicing again; a departure cleared but not confirmed is queued
+    // again. Call before setJournal so the restore itself is not journaled twice.
+    public void restore(JournalState state) {
+        if (state.runway1Down != backend.isRunway1Down()) toggleMaintenance();
+        int[] slots = state.gateOccupancy.entrySet().stream()
+                .flatMapToInt(e -> java.util.stream.IntStream.generate(e::getKey).limit(e.getValue())).toArray();
+        if (!backend.tryAcquireGates(slots)) {
+            // The layout now has fewer slots than the journal recorded: take what fits
+            sink.logToATC("WARNING: Journaled gate occupancy exceeds gate capacity; restoring what fits.");
+            for (int gate : slots) backend.tryAcquireGate(gate);
+        }
+
+        long now = clock.now();
+        List<String[]> rows = new ArrayList<>(state.flights.size());
+        for (JournalState.FlightRecord r : state.flights.values()) {
+            rows.add(new String[]{r.id, clock.timestamp(r.time), r.fuel + "%", r.status.label, backend.getNodeName(r.gate)});
+        }
+        sink.addFlightRows(rows);
+
+        List<Integer> heldGates = new ArrayList<>();
+        for (JournalState.FlightRecord r : state.flights.values()) {
+            int f = flights.add(r.id, r.type, r.priority, r.size, r.gate, r.fuel, r.turnaround, r.time);
+            flights.setStatus(f, r.status);
+            flights.setRequestedAt(f, now);
+            if (r.phase == JournalState.Phase.GATE_HOLD) {
+                synchronized (gateHolds) { gateHolds.add(f); }
+                heldGates.add(r.gate);
+            } else if (r.phase == JournalState.Phase.ON_GROUND && r.isLanding()) {
+                flights.setGateSince(f, now);
+                if (r.turnaround) scheduleTurnaround(f);
+                else scheduleDeboarding(f);
+            } else {
+                flightQueue.add(f);
+            }
+        }
+        for (int gate : heldGates) { // a release may have been the last event before the restart
+            if (!backend.getGateAllocator().isFull(gate)) resumeHolds(gate);
+        }
+        if (!state.flights.isEmpty()) {
+            sink.logToATC("SYSTEM: Restored " + state + " from the journal.");
+            flightQueued();
+        }
     }
 
     public void processNextFlight() {
-        if (flightQueue.isEmpty()) {
-            JOptionPane.showMessageDialog(null, "No flights in queue!");
+        long t0 = System.nanoTime();
+        int f = flightQueue.poll();
+        if (f == FlightQueue.NONE) {
+            sink.queueEmpty();
             return;
         }
         
-        Flight f = flightQueue.peek();
-        
-        if (f.type.equals("Landing")) {
-            if (!backend.tryAcquireGate(f.terminalNode)) {
-                gui.logToATC("HOLDING: Flight " + f.id + " cannot land. " 
-                             + backend.getNodeName(f.terminalNode) + " is FULL.");
-                gui.updateFlightStatus(f.id, "Holding (Gate Full)");
-                f.fuel -= 5;
+        int size = flights.getSize(f);
+        long now = clock.now();
+        Runway assigned = runwayIndex.freeAt(size, now);
+        if (assigned == null && runwayIndex.fits(size)) {
+            waitForRunway(f, now);
+        } else if (admit(f)) {
+            if (assigned != null) runwayIndex.occupy(assigned, size, now);
+            dispatch(f, assigned);
+        }
+        dispatchLatency.record(System.nanoTime() - t0);
+    }
+
+    // Every adequate runway is occupied or in wake separation: back to the queue, no fuel penalty
+    private void waitForRunway(int f, long now) {
+        long wait = runwayIndex.nextFree(flights.getSize(f)) - now;
+        sink.logToATC("HOLDING: Flight " + flights.getId(f) + " waiting for runway separation ("
+                     + String.format("%.1f", wait / 1000.0) + "s)");
+        setStatus(f, FlightStatus.HOLDING_RUNWAY);
+        runwayWaits.increment();
+        flightQueue.addFirst(f); // keeps its place in line
+    }
+
+    // Parallel mode: takes the next flight (waiting up to waitMillis for one), claims a
+    // runway, and keeps it for occupancyNanos. Returns false if the queue stayed empty.
+    boolean dispatchNext(long waitMillis, long occupancyNanos) throws InterruptedException {
+        int f = flightQueue.poll(waitMillis);
+        if (f == FlightQueue.NONE) return false;
+        try {
+            if (!admitWaiting(f)) return true;
+        } catch (InterruptedException e) {
+            flightQueue.addFirst(f); // shutting down while waiting for the gate
+            throw e;
+        }
+
+        Runway assigned;
+        try {
+            assigned = claimRunway(flights.getSize(f));
+        } catch (InterruptedException e) {
+            if (flights.isLanding(f)) releaseGate(flights.getGate(f));
+            flightQueue.addFirst(f); // shutting down: leave the flight for the next dispatcher
+            throw e;
+        }
+        try {
+            long t0 = System.nanoTime();
+            dispatch(f, assigned);
+            dispatchLatency.record(System.nanoTime() - t0);
+            if (assigned != null && occupancyNanos > 0) Thread.sleep(occupancyNanos / 1_000_000, (int) (occupancyNanos % 1_000_000));
+        } finally {
+            if (assigned != null) releaseRunway(assigned);
+        }
+        return true;
+    }
+
+    // Gate and weather checks before a runway is assigned. False if the flight was
+    // parked for its gate or diverted. Sequential mode: a full gate parks the flight at once.
+    private boolean admit(int f) {
+        return admit(f, !flights.isLanding(f) || backend.tryAcquireGate(flights.getGate(f)));
+    }
+
+    // Parallel mode: when no other flight is queued, a landing waits its turn at a full gate
+    // (FIFO, up to GATE_WAIT_MILLIS) and is parked in the gate holds only if no slot frees
+    // in time. With work queued, or gateWaitLimit workers already waiting, it is parked at once.
+    private boolean admitWaiting(int f) throws InterruptedException {
+        if (!flights.isLanding(f)) return admit(f, true);
+        int gate = flights.getGate(f);
+        boolean wait = flightQueue.isEmpty();
+        if (wait && gateWaiters.incrementAndGet() > gateWaitLimit) {
+            gateWaiters.decrementAndGet();
+            wait = false;
+        }
+        if (!wait) return admit(f, backend.tryAcquireGate(gate));
+        boolean gotGate;
+        try {
+            gotGate = backend.acquireGate(gate, GATE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } finally {
+            gateWaiters.decrementAndGet();
+        }
+        return admit(f, gotGate);
+    }
+
+    private boolean admit(int f, boolean gotGate) {
+        boolean landing = flights.isLanding(f);
+        int gate = flights.getGate(f);
+        if (landing) {
+            gaugeGate(gate);
+            if (!gotGate) {
+                gateHoldEvents.increment();
+                sink.logToATC("HOLDING: Flight " + flights.getId(f) + " cannot land. " 
+                             + backend.getNodeName(gate) + " is FULL.");
+                setStatus(f, FlightStatus.HOLDING_GATE);
+                burnHoldingFuel(f);
+                journal.heldForGate(flights, f);
+                synchronized (gateHolds) { gateHolds.add(f); }
+                // Parallel mode: the gate may have emptied before f was parked, with no
+                // later release left to wake it
+                if (backend.getGateAllocator().getOccupancy(gate) == 0) resumeHolds(gate);
+                return false;
             }
+            journal.gateAcquired(gate);
         }
-        
-        if (f.type.equals("Takeoff")) {
-            backend.releaseGate(f.terminalNode);
-            gui.logToATC("RESOURCE: Gate freed at " + backend.getNodeName(f.terminalNode));
+
+        if (currentWeather.equals("Stormy") && flights.getSize(f) == 1 && landing) {
+            releaseGate(gate);
+            diverted.increment();
+            sink.logToATC("NEGATIVE: Flight " + flights.getId(f) + " diverted due to STORM.");
+            setStatus(f, FlightStatus.DIVERTED);
+            complete(f);
+            return false;
         }
-        
-        flightQueue.poll();
-        Runway assigned = null;
+        return true;
+    }
 
-        if (currentWeather.equals("Stormy") && f.size == 1 && f.type.equals("Landing")) {
-            gui.logToATC("NEGATIVE: Flight " + f.id + " diverted due to STORM.");
-            gui.updateFlightStatus(f.id, "Diverted");
-            return;
+    // Utilization gauge per capped gate, registered the first time a flight heads there
+    private void gaugeGate(int gate) {
+        if (!gaugedGates.add(gate)) return;
+        GateAllocator gates = backend.getGateAllocator();
+        if (!gates.hasCapacity(gate)) return;
+        metrics.gauge("gate." + gate + ".utilization",
+                () -> (double) gates.getOccupancy(gate) / Math.max(1, gates.getCapacity(gate)));
+    }
+
+    // Null only if no runway is big enough at all; otherwise waits until one is claimed
+    private Runway claimRunway(int size) throws InterruptedException {
+        if (!runwayIndex.fits(size)) return null;
+        while (true) {
+            Runway r = runwayIndex.claimFree(size);
+            if (r != null) return r;
+            runwayLock.lock();
+            try {
+                if (!anyRunwayFree(size)) runwayFreed.await(); // re-checked under the lock: no lost wake-up
+            } finally {
+                runwayLock.unlock();
+            }
         }
-        
-	     Runway bestFit = null;
-	     int minWastedCapacity = Integer.MAX_VALUE;
-	
-	     for (Runway r : runways) {
-	         // 1. Must be big enough
-	         if (r.maxSizeCapacity >= f.size) {
-	             
-	             int diff = r.maxSizeCapacity - f.size;
-	             
-	             if (diff < minWastedCapacity) {
-	                 minWastedCapacity = diff;
-	                 bestFit = r;
-	             }
-	         }
-	     }
-	     assigned = bestFit;
+    }
+
+    private boolean anyRunwayFree(int size) {
+        for (Runway r : runwayIndex.getRunways()) {
+            if (r.maxSizeCapacity >= size && !r.occupied.get()) return true;
+        }
+        return false;
+    }
+
+    private void releaseRunway(Runway r) {
+        r.occupied.set(false);
+        runwayLock.lock();
+        try {
+            runwayFreed.signalAll();
+        } finally {
+            runwayLock.unlock();
+        }
+    }
 
+    private void dispatch(int f, Runway assigned) {
+        String id = flights.getId(f);
+        boolean landing = flights.isLanding(f);
+        int gate = flights.getGate(f);
         if (assigned != null) {
-            String path = backend.findShortestPath(assigned.exitNodeId, f.terminalNode);
-            List<Integer> pathList = backend.getPathList(assigned.exitNodeId, f.terminalNode);
-            
-            if (gui.getMapPanel() != null) {
-                gui.getMapPanel().animatePath(pathList);
+            long now = clock.now();
+            queueTime.record(now - flights.getQueuedAt(f));
+            timeToRunway.record(now - flights.getRequestedAt(f));
+
+            long t0 = System.nanoTime();
+            Route route = landing
+                    ? backend.planRoute(assigned.exitNodeId, gate, now)
+                    : backend.planRoute(gate, assigned.exitNodeId, now);
+            routingLatency.record(System.nanoTime() - t0);
+            journal.assigned(id, assigned.id);
+            if (route.isTimed()) {
+                taxiTime.record(route.getDurationMillis());
+                taxiHold.record(route.getHoldMillis());
+            } else if (route.isReachable()) {
+                taxiTime.record((long) (route.getDistance() * 1000 / TAXI_UNITS_PER_SECOND));
             }
+            
+            sink.showRoute(route);
 
-            gui.logToATC("CLEARED: Flight " + f.id + " landing Runway " + assigned.id);
+            sink.logToATC("CLEARED: Flight " + id + " landing Runway " + assigned.id);
             
-            if (f.type.equals("Landing")) {
-                path = backend.findShortestPath(assigned.exitNodeId, f.terminalNode);
-                gui.logToATC("LANDING: " + f.id + " assigned Runway " + assigned.id);
-                gui.updateFlightStatus(f.id, "Landed -> Taxiing");
-                
-                gui.getStatsPanel().updateStats(f.priority, true);
+            if (landing) {
+                sink.logToATC("LANDING: " + id + " assigned Runway " + assigned.id);
+                setStatus(f, FlightStatus.LANDED);
+                flights.setGateSince(f, now);
+                landed.increment();
                 
-                if (f.isTurnaround) {
+                if (flights.isTurnaround(f)) {
                     scheduleTurnaround(f);
                 }
                 else {
@@ -376,42 +962,41 @@ class TrafficController {
                 }
                 
             } else {
-                path = backend.findShortestPath(f.terminalNode, assigned.exitNodeId);
-                gui.logToATC("DEPARTURE: " + f.id + " taking off from Runway " + assigned.id);
-                gui.updateFlightStatus(f.id, "Departed");
-                
-                if (f.type.equals("Landing")) {
-                    backend.releaseGate(f.terminalNode);
-                }
-                
-                gui.logToATC("NEGATIVE: No runway available...");
-                flightQueue.add(f);
+                long gateSince = flights.getGateSince(f);
+                if (gateSince > 0) gateDwell.record(now - gateSince);
+                departed.increment();
+                freeGate(gate);
+                sink.logToATC("RESOURCE: Gate freed at " + backend.getNodeName(gate));
+                sink.logToATC("DEPARTURE: " + id + " taking off from Runway " + assigned.id);
+                setStatus(f, FlightStatus.DEPARTED);
+                complete(f);
             }
             
-            gui.logToATC("ROUTING: " + f.id + " via " + path);
+            long held = route.getHoldMillis();
+            sink.logToATC("ROUTING: " + id + " via " + route + " (" + route.getExpandedNodes() + " nodes expanded"
+                    + (held > 0 ? String.format(", holding %.1f s for traffic)", held / 1000.0) : ")"));
 
         } else {
-            gui.logToATC("NEGATIVE: No runway for Flight " + f.id + ". Holding.");
-            f.fuel -= 5;
+            if (landing) releaseGate(gate); // re-acquired on the next attempt
+            sink.logToATC("NEGATIVE: No runway for Flight " + id + ". Holding.");
+            burnHoldingFuel(f);
             flightQueue.add(f);
-            gui.updateFlightStatus(f.id, "Holding");
+            setStatus(f, FlightStatus.HOLDING);
         }
     }
 
-    private void scheduleTurnaround(Flight f) {
-        gui.logToATC("GROUND: Flight " + f.id + " docked. Servicing started (5s)...");
-        gui.updateFlightStatus(f.id, "Servicing (Refuel)");
+    private void scheduleTurnaround(int f) {
+        String id = flights.getId(f);
+        sink.logToATC("GROUND: Flight " + id + " docked. Servicing started (5s)...");
+        setStatus(f, FlightStatus.SERVICING);
 
-        javax.swing.Timer turnTimer = new javax.swing.Timer(5000, e -> {
-            gui.logToATC("PILOT: Flight " + f.id + " ready for Departure.");
+        clock.schedule(5000, () -> {
+            sink.logToATC("PILOT: Flight " + id + " ready for Departure.");
             
-            requestFlight(f.id, "Takeoff", 2, f.size, f.terminalNode, 100, false);
-            
-            ((javax.swing.Timer)e.getSource()).stop();
+            int departure = flights.add(id, FlightStore.TAKEOFF, 2, flights.getSize(f), flights.getGate(f), 100, false, clock.now());
+            flights.setGateSince(departure, flights.getGateSince(f)); // still holding the landing's gate slot
+            submit(departure);
         });
-        
-        turnTimer.setRepeats(false);
-        turnTimer.start();
     }
 }
 
@@ -419,14 +1004,23 @@ class TrafficController {
 // 3. FRONTEND (GUI)
 // ==========================================
 
-class AirportGUI extends JFrame {
-    private DefaultTableModel tableModel;
+class AirportGUI extends JFrame implements TrafficSink {
+    private static final int BOARD_COMPLETED_ROWS = 5000; // older finished flights drop off the board
+    private FlightTableModel tableModel;
     private JTable table;
     private TrafficController controller;
     private JTextArea logArea; 
+    private AtcLog atcLog;
     private MapPanel mapPanel;
     public void setMapPanel(MapPanel mp) { this.mapPanel = mp; }    
     private StatsPanel statsPanel;
+    private JButton btnLoad;
+    private JProgressBar loadProgress;
+    private AutoDispatcher autoDispatcher;
+    private JToggleButton btnAuto;
+    private JSpinner rateSpinner;
+    private JLabel lblAutoRate;
+    private JButton btnMaint;
 
 	 public AirportGUI() {
 	     setTitle("Airport Runway Management System");
@@ -434,8 +1028,8 @@ class AirportGUI extends JFrame {
 	     setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 	     setLayout(new BorderLayout());
 	
-	     String[] columns = {"Flight ID", "Time", "Fuel %", "Status", "Terminal"};
-	     tableModel = new DefaultTableModel(columns, 0);
+	     tableModel = new FlightTableModel();
+	     tableModel.setRetention(BOARD_COMPLETED_ROWS, null);
 	     table = new JTable(tableModel);
 	     table.setFillsViewportHeight(true);
 	     table.setFont(new Font("SansSerif", Font.PLAIN, 14));
@@ -449,6 +1043,7 @@ class AirportGUI extends JFrame {
 	     logArea.setForeground(Color.GREEN);
 	     logArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
 	     JScrollPane logScroll = new JScrollPane(logArea);
+	     atcLog = createAtcLog(logArea);
 	     add(logScroll, BorderLayout.SOUTH);
 	     
 	     
@@ -468,27 +1063,34 @@ class AirportGUI extends JFrame {
 	     JButton btnManual = new JButton("Add Custom Flight");
 	     btnManual.addActionListener(e -> openManualEntryDialog());
 	
-	     JButton btnLoad = new JButton("Load Schedule (CSV)");
+	     btnLoad = new JButton("Load Schedule (CSV)");
 	     btnLoad.addActionListener(e -> loadCSVFile());
+	     
+	     loadProgress = new JProgressBar(0, 100);
+	     loadProgress.setStringPainted(true);
+	     loadProgress.setVisible(false);
 	
 	     JButton btnProcess = new JButton("▶ Process Next");
 	     btnProcess.setBackground(Color.ORANGE);
 	     btnProcess.addActionListener(e -> controller.processNextFlight());
 	     
-	     JButton btnMaint = new JButton("⚠️ Fail Runway 1");
+	     // Auto-dispatch: paced processNextFlight at a target flights/min
+	     btnAuto = new JToggleButton("⏵ Auto");
+	     rateSpinner = new JSpinner(new SpinnerNumberModel(20, 1, 600, 5));
+	     rateSpinner.setToolTipText("Target flights per minute");
+	     lblAutoRate = new JLabel("Auto: off");
+	     btnAuto.addActionListener(e -> toggleAutoDispatch());
+	     rateSpinner.addChangeListener(e -> {
+	         if (autoDispatcher != null) autoDispatcher.setTargetRate((Integer) rateSpinner.getValue());
+	     });
+	     
+	     btnMaint = new JButton("⚠️ Fail Runway 1");
 	     btnMaint.setBackground(Color.RED);
 	     btnMaint.setForeground(Color.WHITE);
 
 	     btnMaint.addActionListener(e -> {
 	         controller.toggleMaintenance();
-	         
-	         if (btnMaint.getText().contains("Fail")) {
-	             btnMaint.setText("Repaired Runway 1");
-	             btnMaint.setBackground(Color.GREEN);
-	         } else {
-	             btnMaint.setText("⚠️ Fail Runway 1");
-	             btnMaint.setBackground(Color.RED);
-	         }
+	         updateMaintenanceButton();
 	     });
 	
 	     panel.add(lblWeather);
@@ -496,8 +1098,12 @@ class AirportGUI extends JFrame {
 	     panel.add(Box.createHorizontalStrut(20));
 	     panel.add(btnManual);
 	     panel.add(btnLoad);
+	     panel.add(loadProgress);
 	     panel.add(Box.createHorizontalStrut(20));
 	     panel.add(btnProcess);
+	     panel.add(btnAuto);
+	     panel.add(rateSpinner);
+	     panel.add(lblAutoRate);
 	     panel.add(btnMaint);
 	
 	     add(panel, BorderLayout.NORTH);
@@ -530,6 +1136,33 @@ class AirportGUI extends JFrame {
 	 }
 	 
 	 public StatsPanel getStatsPanel() { return statsPanel; }
+
+	 // Follows the controller (the closure may also come back from the journal)
+	 void updateMaintenanceButton() {
+	     if (controller.isRunway1Down()) {
+	         btnMaint.setText("Repaired Runway 1");
+	         btnMaint.setBackground(Color.GREEN);
+	     } else {
+	         btnMaint.setText("⚠️ Fail Runway 1");
+	         btnMaint.setBackground(Color.RED);
+	     }
+	 }
+
+	 private void toggleAutoDispatch() {
+	     if (autoDispatcher == null) {
+	         autoDispatcher = new AutoDispatcher(controller, new SwingClock(), (Integer) rateSpinner.getValue());
+	         autoDispatcher.setTickListener(() -> lblAutoRate.setText(autoDispatcher.toString()));
+	     }
+	     if (btnAuto.isSelected()) {
+	         autoDispatcher.start();
+	         btnAuto.setText("⏸ Pause");
+	         logToATC("SYSTEM: Auto-dispatch started (" + rateSpinner.getValue() + " flights/min).");
+	     } else {
+	         autoDispatcher.pause();
+	         btnAuto.setText("⏵ Auto");
+	         logToATC("SYSTEM: Auto-dispatch paused.");
+	     }
+	 }
 	 private void openManualEntryDialog() {
 	     JPanel formPanel = new JPanel(new GridLayout(0, 2));
 	     JTextField idField = new JTextField("AI-");
@@ -542,7 +1175,9 @@ class AirportGUI extends JFrame {
 	     
 	     JTextField fuelField = new JTextField("50");
 	     
-	     String[] gates = {"Terminal 1", "Terminal 2"};
+	     List<Integer> gateIds = controller.getGateNodes();
+	     String[] gates = new String[gateIds.size()];
+	     for (int i = 0; i < gates.length; i++) gates[i] = controller.getLocationName(gateIds.get(i));
 	     JComboBox<String> gateBox = new JComboBox<>(gates);
 	     
 	     JCheckBox turnCheck = new JCheckBox("Turnaround (Round Trip)?");
@@ -563,7 +1198,7 @@ class AirportGUI extends JFrame {
 	             int size = Integer.parseInt(((String)sizeBox.getSelectedItem()).substring(0,1));
 	             int prio = Integer.parseInt(((String)prioBox.getSelectedItem()).substring(0,1));
 	             int fuel = Integer.parseInt(fuelField.getText());
-	             int gate = gateBox.getSelectedIndex() == 0 ? 4 : 5;
+	             int gate = gateIds.get(gateBox.getSelectedIndex());
 	             boolean isTurn = turnCheck.isSelected();
 	
 	             controller.requestFlight(id, "Landing", prio, size, gate, fuel, isTurn);
@@ -575,77 +1210,175 @@ class AirportGUI extends JFrame {
 	
 	 private void loadCSVFile() {
 	     JFileChooser chooser = new JFileChooser();
-	     chooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv", "txt"));
+	     chooser.setFileFilter(new FileNameExtensionFilter("Schedules (CSV, binary)", "csv", "txt", BinarySchedule.EXTENSION));
 	     
 	     int returnVal = chooser.showOpenDialog(this);
 	     if(returnVal == JFileChooser.APPROVE_OPTION) {
 	         File file = chooser.getSelectedFile();
-	         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-	             String line;
-	             int count = 0;
-	             while ((line = br.readLine()) != null) {
-	                 String[] parts = line.split(",");
-	                 if (parts.length == 5) {
-	                     String id = parts[0].trim();
-	                     int prio = Integer.parseInt(parts[1].trim());
-	                     int size = Integer.parseInt(parts[2].trim());
-	                     int gate = Integer.parseInt(parts[3].trim());
-	                     int fuel = Integer.parseInt(parts[4].trim());
-	                     
-	                     boolean isTurn = false;
-	                     if (parts.length >= 6) {
-	                         isTurn = Boolean.parseBoolean(parts[5].trim()); 
-	                     }
-	                     
-	                     controller.requestFlight(id, "Landing", prio, size, gate, fuel, isTurn);
-	                     count++;
-	                 }
+	         File rejectFile = new File(file.getPath() + ".rejected.txt");
+	         btnLoad.setEnabled(false);
+	         loadProgress.setValue(0);
+	         loadProgress.setVisible(true);
+	         logToATC("SYSTEM: Loading schedule " + file.getName() + "...");
+	         ScheduleLoadWorker worker = new ScheduleLoadWorker(file, rejectFile);
+	         worker.addPropertyChangeListener(evt -> {
+	             if ("progress".equals(evt.getPropertyName())) loadProgress.setValue((Integer) evt.getNewValue());
+	         });
+	         worker.execute();
+	     }
+	 }
+
+	 // Parses off the EDT; batches are fed to the controller and the table on the EDT
+	 private class ScheduleLoadWorker extends SwingWorker<CsvScheduleLoader.Report, ScheduleBatch> {
+	     private final File file;
+	     private final File rejectFile;
+
+	     ScheduleLoadWorker(File file, File rejectFile) {
+	         this.file = file;
+	         this.rejectFile = rejectFile;
+	     }
+
+	     @Override
+	     protected CsvScheduleLoader.Report doInBackground() throws Exception {
+	         if (file.getName().endsWith("." + BinarySchedule.EXTENSION)) return loadBinary();
+	         CsvScheduleLoader loader = new CsvScheduleLoader();
+	         loader.setGateCheck(controller::isKnownLocation);
+	         loader.setProgressListener((done, total) -> {
+	             if (total > 0) setProgress((int) (done * 100 / total));
+	         });
+	         try (Writer rejects = new BufferedWriter(new FileWriter(rejectFile))) {
+	             loader.setRejectWriter(rejects);
+	             return loader.load(file.toPath(), this::publish);
+	         }
+	     }
+
+	     // Pre-converted schedule (--convert): mapped, no parsing; rows were validated on conversion
+	     private CsvScheduleLoader.Report loadBinary() throws IOException {
+	         BinarySchedule.Reader reader = BinarySchedule.Reader.open(file.toPath());
+	         reader.setGateCheck(controller::isKnownLocation);
+	         reader.setProgressListener((done, total) -> {
+	             if (total > 0) setProgress((int) (done * 100 / total));
+	         });
+	         CsvScheduleLoader.Report report = reader.load(this::publish);
+	         if (report.rejected > 0) {
+	             try (Writer rejects = new BufferedWriter(new FileWriter(rejectFile))) {
+	                 for (String row : report.samples) rejects.write(row + System.lineSeparator());
 	             }
-	             logToATC("SYSTEM: Batch loaded " + count + " flights from file.");
+	         }
+	         return report;
+	     }
+
+	     @Override
+	     protected void process(List<ScheduleBatch> batches) {
+	         for (ScheduleBatch b : batches) controller.requestFlights(b);
+	     }
+
+	     @Override
+	     protected void done() {
+	         btnLoad.setEnabled(true);
+	         loadProgress.setVisible(false);
+	         try {
+	             CsvScheduleLoader.Report report = get();
+	             logToATC("SYSTEM: Batch loaded " + report.accepted + " flights from file.");
+	             if (report.rejected == 0) {
+	                 rejectFile.delete();
+	                 return;
+	             }
+	             logToATC("SYSTEM: " + report.rejected + " malformed rows skipped. Report: " + rejectFile.getName());
+	             JTextArea details = new JTextArea(String.join("\n", report.samples), 12, 60);
+	             details.setEditable(false);
+	             JOptionPane.showMessageDialog(null, new Object[]{
+	                     report + "\nRejected rows were written to " + rejectFile.getPath(),
+	                     new JScrollPane(details)}, "Schedule Rejects", JOptionPane.WARNING_MESSAGE);
 	         } catch (Exception ex) {
-	             JOptionPane.showMessageDialog(null, "Error reading file: " + ex.getMessage());
+	             Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+	             JOptionPane.showMessageDialog(null, "Error reading file: " + cause.getMessage());
 	         }
 	     }
 	 }
 
     public void setController(TrafficController c) {
         this.controller = c;
+        exportMetrics(c.getMetrics());
+        if (mapPanel != null) mapPanel.setMetrics(c.getMetrics());
+        new javax.swing.Timer(500, e -> statsPanel.render(c.getMetrics().snapshot())).start();
+    }
+
+    // JMX always (runway:type=Metrics); -Drunway.metrics=<file.csv|file.json> also dumps
+    // a snapshot every 5 s
+    private static void exportMetrics(MetricsRegistry metrics) {
+        try {
+            metrics.registerMBean("runway:type=Metrics");
+        } catch (javax.management.JMException e) {
+            System.err.println("Metrics MBean disabled: " + e.getMessage());
+        }
+        String path = System.getProperty("runway.metrics");
+        if (path != null) metrics.startDump(java.nio.file.Paths.get(path), 5000);
     }
     
     public MapPanel getMapPanel() {
         return mapPanel;
     }
 
+    @Override
     public void addFlightRow(String id, String time, String fuel, String status, String term) {
-        tableModel.addRow(new Object[]{id, time, fuel, status, term});
+        tableModel.addFlightRow(id, time, fuel, status, term);
     }
 
+    @Override
+    public void addFlightRows(List<String[]> rows) {
+        tableModel.addFlightRows(rows);
+    }
+
+    @Override
     public void updateFlightStatus(String id, String newStatus) {
-        for (int i = 0; i < tableModel.getRowCount(); i++) {
-            if (tableModel.getValueAt(i, 0).equals(id)) {
-                tableModel.setValueAt(newStatus, i, 3);
-                return;
-            }
-        }
+        tableModel.updateFlightStatus(id, newStatus);
+    }
+
+    @Override
+    public void flightCompleted(String id) {
+        tableModel.flightCompleted(id);
     }
     
+    // Safe from any thread; the log view is updated asynchronously once per frame
+    @Override
     public void logToATC(String message) {
-        String timeStamp = new SimpleDateFormat("HH:mm:ss").format(new Date());
-        logArea.append("[" + timeStamp + "] " + message + "\n");
-        logArea.setCaretPosition(logArea.getDocument().getLength());
+        atcLog.log(message);
+    }
+
+    // Set -Drunway.atcLog=<file> to also keep the full stream in rolling 10 MB files
+    private static AtcLog createAtcLog(JTextArea view) {
+        AtcLog log = new AtcLog(1 << 16, view, 2000);
+        String path = System.getProperty("runway.atcLog");
+        if (path != null) {
+            try {
+                log.withRollingFile(java.nio.file.Paths.get(path), 10L << 20, 5);
+            } catch (IOException e) {
+                System.err.println("ATC log file disabled: " + e.getMessage());
+            }
+        }
+        return log.start();
+    }
+
+    @Override
+    public void showRoute(Route route) {
+        if (mapPanel != null) mapPanel.animateRoute(route);
+    }
+
+    @Override
+    public void queueEmpty() {
+        JOptionPane.showMessageDialog(null, "No flights in queue!");
     }
 }
 
+// Read-only view of the controller's MetricsRegistry, re-rendered from a snapshot on a timer
 class StatsPanel extends JPanel {
-    private JLabel lblTotal, lblEmergency, lblHoldCount;
-    private int totalFlights = 0;
-    private int emergencyCount = 0;
-    private int holdCount = 0;
+    private JLabel lblTotal, lblEmergency, lblHoldCount, lblQueue, lblTaxi, lblGate, lblDispatch, lblRouteCache, lblMapFrame;
 
     public StatsPanel() {
-        setLayout(new GridLayout(6, 1, 5, 5));
+        setLayout(new GridLayout(10, 1, 5, 5));
         setBorder(BorderFactory.createTitledBorder("Live Analytics"));
-        setPreferredSize(new Dimension(160, 200));
+        setPreferredSize(new Dimension(190, 285));
         setBackground(new Color(240, 240, 240));
 
         lblTotal = createLabel("Total Flights: 0");
@@ -657,7 +1390,19 @@ class StatsPanel extends JPanel {
         add(lblHoldCount);
         
         add(createLabel("----------------"));
-        add(createLabel("System Status: OK"));
+
+        lblQueue = createLabel("Queue: -");
+        lblTaxi = createLabel("Taxi: -");
+        lblGate = createLabel("Gate Dwell: -");
+        lblDispatch = createLabel("Dispatch: -");
+        lblRouteCache = createLabel("Route Cache: -");
+        lblMapFrame = createLabel("Map Frame: -");
+        add(lblQueue);
+        add(lblTaxi);
+        add(lblGate);
+        add(lblDispatch);
+        add(lblRouteCache);
+        add(lblMapFrame);
     }
 
     private JLabel createLabel(String text) {
@@ -666,124 +1411,428 @@ class StatsPanel extends JPanel {
         return l;
     }
 
-    public void updateStats(int priority, boolean isHolding) {
-        if (!isHolding) {
-            totalFlights++;
-            if (priority == 1) emergencyCount++;
-        } else {
-            holdCount++;
+    public void render(MetricsRegistry.Snapshot s) {
+        long emergencies = s.getLong("flights.emergency");
+        lblTotal.setText("Total Flights: " + (s.getLong("flights.landed") + s.getLong("flights.departed")));
+        lblEmergency.setText("Emergencies: " + emergencies);
+        lblEmergency.setForeground(emergencies > 0 ? Color.RED : Color.BLACK);
+        lblHoldCount.setText("Current Holds: " + (s.getLong("queue.depth") + s.getLong("queue.gateHolds")));
+
+        lblQueue.setText(millis("Queue", s, "flight.queueMillis"));
+        lblTaxi.setText(millis("Taxi", s, "flight.taxiMillis"));
+        lblGate.setText(millis("Gate Dwell", s, "flight.gateDwellMillis"));
+        lblDispatch.setText(String.format("Dispatch: %.0f / %.0f µs",
+                s.get("dispatch.nanos.p50") / 1000, s.get("dispatch.nanos.p99") / 1000));
+        lblDispatch.setToolTipText("Dispatch call latency p50 / p99; routing p99 "
+                + s.getLong("routing.nanos.p99") / 1000 + " µs");
+        lblRouteCache.setText(String.format("Route Cache: %.0f%% hit", s.get("routing.cacheHitRate") * 100));
+        if (s.getLong("map.frameNanos.count") > 0) {
+            lblMapFrame.setText(String.format("Map Frame: %.1f / %.1f ms",
+                    s.get("map.frameNanos.p50") / 1e6, s.get("map.frameNanos.p99") / 1e6));
+            lblMapFrame.setToolTipText("Map paint time p50 / p99; static layer rebuilds "
+                    + s.getLong("map.layerNanos.count") + ", p99 " + s.getLong("map.layerNanos.p99") / 1000 + " µs");
         }
-        
-        lblTotal.setText("Total Flights: " + totalFlights);
-        lblEmergency.setText("Emergencies: " + emergencyCount);
-        lblHoldCount.setText("Current Holds: " + holdCount);
-        
-        if (emergencyCount > 0) lblEmergency.setForeground(Color.RED);
+    }
+
+    // "Name: p50 / p99 s" for a histogram of clock millis
+    private static String millis(String label, MetricsRegistry.Snapshot s, String name) {
+        if (s.getLong(name + ".count") == 0) return label + ": -";
+        return String.format("%s: %.1f / %.1f s", label, s.get(name + ".p50") / 1000, s.get(name + ".p99") / 1000);
     }
 }
 
+// Taxiway map with pan (drag), zoom (mouse wheel, around the cursor) and fit-to-view
+// (double-click). Map coordinates go through a scale + offset to screen pixels; only
+// the geometry inside the viewport is fetched, from a SpatialIndex rebuilt when the
+// graph version changes. Level of detail: node labels and full-size symbols only when
+// zoomed in far enough that few nodes are visible, otherwise nodes are dots and lines
+// are not antialiased. Tooltips and clicks hit-test through the same index.
+//
+// The visible part is drawn once into a cached image (the static layer), rebuilt only
+// when the graph, the highlights, the selection, the view or the panel size change.
+// Taxiing aircraft (TaxiAnimation) are advanced together by one frame clock at display
+// rate while any are moving; each frame repaints only the box they moved in, over that
+// image. Paint times go to map.frameNanos / map.layerNanos (see setMetrics).
 class MapPanel extends JPanel {
+ private static final Font LABEL_FONT = new Font("SansSerif", Font.PLAIN, 11);
+ private static final Color TERMINAL = new Color(100, 150, 255);
+ private static final Color RUNWAY = new Color(255, 165, 0);
+ private static final BasicStroke EDGE_STROKE = new BasicStroke(2);
+ private static final int AIRCRAFT_RADIUS = 12;
+ private static final int FRAME_MILLIS = 16;     // ~60 fps while aircraft are moving
+ private static final int MAX_DETAILED_AIRCRAFT = 500;
+ private static final int MARGIN = 100;          // screen px fetched beyond the edges (symbols, labels)
+ private static final int HIT_RADIUS = 12;       // screen px
+ private static final double DETAIL_SCALE = 0.5; // below this: dots, no labels
+ private static final int MAX_LABELS = 2000;     // more visible nodes than this: dots, no labels
+ private static final double MAX_SCALE = 8;
+ private static final byte PLAIN = 0, TERMINAL_NODE = 1, RUNWAY_NODE = 2;
+
  private AirportBackend backend;
  private Map<Integer, Color> highlights = new HashMap<>();
  
- private Integer animatingNode = null; 
- private javax.swing.Timer animationTimer; 
+ private final TaxiAnimation aircraft = new TaxiAnimation();
+ private final javax.swing.Timer frameClock = new javax.swing.Timer(FRAME_MILLIS, e -> nextFrame());
+
+ // View: screen = map * scale + offset
+ private double scale = 1, offsetX = 0, offsetY = 0;
+ private boolean viewChecked = false; // large layouts are fitted on first paint
+ private int selected = -1;           // node id picked by a click
+
+ // Spatial index and per-node symbol kind, for the current graph version (EDT only)
+ private SpatialIndex index;
+ private byte[] kinds;
+ private long indexVersion = -1;
+ private int[] visible = new int[1024];
+ private int visibleCount;
+
+ // Static layer cache (EDT only)
+ private java.awt.image.BufferedImage layer;
+ private long layerVersion = -1;
+ private boolean layerDirty = true;
+
+ private MetricsRegistry.Histogram frameTime, layerTime;
 
  public MapPanel(AirportBackend backend) {
      this.backend = backend;
      this.setPreferredSize(new Dimension(450, 400)); 
      this.setBackground(new Color(30, 30, 30)); 
+     setMetrics(new MetricsRegistry());
+     setToolTipText(""); // enables getToolTipText(MouseEvent)
+
+     java.awt.event.MouseAdapter mouse = new java.awt.event.MouseAdapter() {
+         private Point drag;
+
+         @Override
+         public void mousePressed(java.awt.event.MouseEvent e) { drag = e.getPoint(); }
+
+         @Override
+         public void mouseDragged(java.awt.event.MouseEvent e) {
+             if (drag == null) return;
+             panBy(e.getX() - drag.x, e.getY() - drag.y);
+             drag = e.getPoint();
+         }
+
+         @Override
+         public void mouseReleased(java.awt.event.MouseEvent e) { drag = null; }
+
+         @Override
+         public void mouseClicked(java.awt.event.MouseEvent e) {
+             if (e.getClickCount() == 2) fitToView();
+             else select(nodeAt(e.getX(), e.getY()));
+         }
+
+         @Override
+         public void mouseWheelMoved(java.awt.event.MouseWheelEvent e) {
+             zoomAt(e.getX(), e.getY(), Math.pow(1.25, -e.getPreciseWheelRotation()));
+         }
+     };
+     addMouseListener(mouse);
+     addMouseMotionListener(mouse);
+     addMouseWheelListener(mouse);
+ }
+
+ // Publishes paint times in the controller's registry (StatsPanel shows them)
+ public void setMetrics(MetricsRegistry metrics) {
+     frameTime = metrics.histogram("map.frameNanos");
+     layerTime = metrics.histogram("map.layerNanos");
  }
 
  public void setHighlight(int nodeId, Color c) {
      highlights.put(nodeId, c);
-     repaint();
+     invalidateLayer();
  }
 
  public void clearHighlights() {
      highlights.clear();
+     invalidateLayer();
+ }
+
+ private void invalidateLayer() {
+     layerDirty = true;
      repaint();
  }
+
+ // --- view ---
+
+ public double getScale() { return scale; }
+
+ public void panBy(int dx, int dy) {
+     offsetX += dx;
+     offsetY += dy;
+     invalidateLayer();
+ }
+
+ // Zooms by factor keeping the map point under (sx, sy) in place
+ public void zoomAt(int sx, int sy, double factor) {
+     double next = Math.max(minScale(), Math.min(MAX_SCALE, scale * factor));
+     offsetX = sx - (sx - offsetX) * next / scale;
+     offsetY = sy - (sy - offsetY) * next / scale;
+     scale = next;
+     invalidateLayer();
+ }
+
+ // Scales and centers the whole layout in the panel
+ public void fitToView() {
+     SpatialIndex idx = index();
+     viewChecked = true;
+     if (idx.size() == 0 || getWidth() <= 0 || getHeight() <= 0) return;
+     int pad = 30;
+     double w = Math.max(1, idx.getMaxX() - idx.getMinX()), h = Math.max(1, idx.getMaxY() - idx.getMinY());
+     scale = Math.min(MAX_SCALE, Math.min((getWidth() - 2.0 * pad) / w, (getHeight() - 2.0 * pad) / h));
+     offsetX = (getWidth() - w * scale) / 2 - idx.getMinX() * scale;
+     offsetY = (getHeight() - h * scale) / 2 - idx.getMinY() * scale;
+     invalidateLayer();
+ }
+
+ // Zooming out stops once the whole layout fits in a quarter of the panel
+ private double minScale() {
+     SpatialIndex idx = index();
+     double w = Math.max(1, idx.getMaxX() - idx.getMinX()), h = Math.max(1, idx.getMaxY() - idx.getMinY());
+     return Math.min(1, Math.min(getWidth() / w, getHeight() / h) / 2);
+ }
+
+ private int screenX(int x) { return (int) Math.floor(x * scale + offsetX); }
+ private int screenY(int y) { return (int) Math.floor(y * scale + offsetY); }
+ private int mapX(double sx) { return (int) Math.floor((sx - offsetX) / scale); }
+ private int mapY(double sy) { return (int) Math.floor((sy - offsetY) / scale); }
+
+ // --- hit-testing ---
+
+ // Id of the node drawn at screen (sx, sy), or -1
+ public int nodeAt(int sx, int sy) {
+     SpatialIndex idx = index();
+     int i = idx.nearest(mapX(sx), mapY(sy), (int) Math.ceil(HIT_RADIUS / scale));
+     return i < 0 ? -1 : idx.id(i);
+ }
+
+ private void select(int nodeId) {
+     if (nodeId == selected) return;
+     selected = nodeId;
+     invalidateLayer();
+ }
+
+ @Override
+ public String getToolTipText(java.awt.event.MouseEvent e) {
+     int id = nodeAt(e.getX(), e.getY());
+     if (id < 0) return null;
+     String gate = backend.getGateStatus(id);
+     return backend.getNodeName(id) + (gate.isEmpty() ? "" : " " + gate);
+ }
+
+ // --- animation ---
  
+ // Adds an aircraft taxiing along path; safe from any thread
  public void animatePath(List<Integer> path) {
      if (path == null || path.isEmpty()) return;
+     if (!SwingUtilities.isEventDispatchThread()) {
+         SwingUtilities.invokeLater(() -> animatePath(path));
+         return;
+     }
+     if (addAircraft(path, frameTime()) && !frameClock.isRunning()) frameClock.start();
+ }
 
-     if (animationTimer != null && animationTimer.isRunning()) {
-         animationTimer.stop();
+ // Same for a route; a timed one (cooperative routing) also shows its holds
+ public void animateRoute(Route route) {
+     if (route == null || !route.isReachable()) return;
+     if (!SwingUtilities.isEventDispatchThread()) {
+         SwingUtilities.invokeLater(() -> animateRoute(route));
+         return;
      }
+     if (addAircraft(route, frameTime()) && !frameClock.isRunning()) frameClock.start();
+ }
 
-     final Iterator<Integer> it = path.iterator();
+ // Starts a sprite at the first node of path without touching the frame clock
+ boolean addAircraft(List<Integer> path, long now) {
+     if (!aircraft.start(path, backend, now)) return false;
+     repaintDirty();
+     return true;
+ }
 
-     animationTimer = new javax.swing.Timer(500, e -> { 
-         if (it.hasNext()) {
-             animatingNode = it.next();
-             repaint(); 
-         } else {
-             ((javax.swing.Timer)e.getSource()).stop(); 
-             animatingNode = null; 
-             repaint();
-         }
-     });
-     animationTimer.start();
+ boolean addAircraft(Route route, long now) {
+     if (!aircraft.start(route, backend, now)) return false;
+     repaintDirty();
+     return true;
+ }
+
+ public int getAnimatedCount() { return aircraft.size(); }
+
+ private static long frameTime() { return System.nanoTime() / 1_000_000; }
+
+ private void nextFrame() {
+     Rectangle dirty = advanceFrame(frameTime());
+     if (dirty != null) repaint(dirty);
+     if (aircraft.size() == 0) frameClock.stop();
  }
 
+ // Moves every aircraft to its position at now; returns the screen area to repaint
+ Rectangle advanceFrame(long now) {
+     aircraft.advance(now);
+     return takeDirty();
+ }
+
+ private void repaintDirty() {
+     Rectangle dirty = takeDirty();
+     if (dirty != null) repaint(dirty);
+ }
+
+ private Rectangle takeDirty() {
+     if (!aircraft.hasDirty()) return null;
+     int d = aircraftRadius() + 1; // antialiasing bleeds a pixel
+     int x0 = (int) Math.floor(aircraft.getDirtyMinX() * scale + offsetX) - d;
+     int y0 = (int) Math.floor(aircraft.getDirtyMinY() * scale + offsetY) - d;
+     int x1 = (int) Math.ceil(aircraft.getDirtyMaxX() * scale + offsetX) + d;
+     int y1 = (int) Math.ceil(aircraft.getDirtyMaxY() * scale + offsetY) + d;
+     aircraft.clearDirty();
+     return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+ }
+
+ private int aircraftRadius() {
+     return Math.max(3, (int) Math.round(AIRCRAFT_RADIUS * Math.min(1, scale)));
+ }
+
+ // --- painting ---
+
  @Override
  protected void paintComponent(Graphics g) {
-     super.paintComponent(g);
-     
-     Graphics2D g2 = (Graphics2D) g;
-     g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-     g2.setColor(Color.GRAY);
-     g2.setStroke(new BasicStroke(2));
-
-     Map<Integer, List<Edge>> adj = backend.getAdjList();
-     Map<Integer, Point> coords = backend.getAllCoords();
-
-     for (Integer u : adj.keySet()) {
-         Point p1 = coords.get(u);
-         if (p1 == null) continue;
-         if (adj.get(u) != null) {
-             for (Edge e : adj.get(u)) {
-                 Point p2 = coords.get(e.targetNode);
-                 if (p2 != null) g2.drawLine(p1.x, p1.y, p2.x, p2.y);
-             }
+     long t0 = System.nanoTime();
+     int w = getWidth(), h = getHeight();
+     if (w <= 0 || h <= 0) return;
+     if (!viewChecked) {
+         SpatialIndex idx = index();
+         viewChecked = true;
+         if (idx.getMaxX() > w || idx.getMaxY() > h) fitToView(); // demo layout stays at 1:1
+     }
+     if (layer == null || layer.getWidth() != w || layer.getHeight() != h
+             || layerDirty || layerVersion != backend.getGraphVersion()) {
+         renderLayer(w, h);
+         layerTime.record(System.nanoTime() - t0);
+     }
+     g.drawImage(layer, 0, 0, null); // clipped to the dirty region by Swing
+
+     if (aircraft.size() > 0) paintAircraft((Graphics2D) g);
+     frameTime.record(System.nanoTime() - t0);
+ }
+
+ // Full symbols for a few aircraft in a zoomed-in view, plain squares for crowds
+ private void paintAircraft(Graphics2D g2) {
+     Rectangle clip = g2.getClipBounds();
+     if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+     int r = aircraftRadius();
+     boolean detailed = r >= AIRCRAFT_RADIUS / 2 && aircraft.size() <= MAX_DETAILED_AIRCRAFT;
+     if (detailed) {
+         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+         g2.setFont(LABEL_FONT);
+     }
+     for (int k = 0; k < aircraft.size(); k++) {
+         int x = (int) Math.floor(aircraft.x(k) * scale + offsetX), y = (int) Math.floor(aircraft.y(k) * scale + offsetY);
+         if (x + r < clip.x || y + r < clip.y || x - r > clip.x + clip.width || y - r > clip.y + clip.height) continue;
+         g2.setColor(Color.YELLOW);
+         if (detailed) {
+             g2.fillOval(x - r, y - r, 2 * r, 2 * r);
+             g2.setColor(Color.BLACK);
+             g2.drawString("✈", x - 4, y + 5);
+         } else {
+             g2.fillRect(x - r, y - r, 2 * r, 2 * r);
          }
      }
+ }
 
-     for (Integer id : coords.keySet()) {
-         Point p = coords.get(id);
-         String name = backend.getNodeName(id);
-         
-         Color c = Color.WHITE;
-         if (name.contains("Terminal")) c = new Color(100, 150, 255);
-         else if (name.contains("Runway")) c = new Color(255, 165, 0);
-         
-         if (highlights.containsKey(id)) {
-             c = highlights.get(id);
+ // Rebuilds the index (and node kinds) after any change to nodes or paths
+ private SpatialIndex index() {
+     long version = backend.getGraphVersion();
+     if (index == null || indexVersion != version) {
+         synchronized (backend) { // consistent snapshot of the backend's maps
+             index = SpatialIndex.build(backend.getAllCoords(), backend.getAdjList());
+             kinds = new byte[index.size()];
+             for (int i = 0; i < kinds.length; i++) {
+                 String name = backend.getNodeName(index.id(i));
+                 if (name.contains("Terminal")) kinds[i] = TERMINAL_NODE;
+                 else if (name.contains("Runway")) kinds[i] = RUNWAY_NODE;
+             }
+             indexVersion = version;
          }
-         
-         drawNode(g2, p, name, c);
      }
+     return index;
+ }
 
-     if (animatingNode != null) {
-         Point p = backend.getAllCoords().get(animatingNode);
-         if (p != null) {
-             g2.setColor(Color.YELLOW);
-             g2.fillOval(p.x - 12, p.y - 12, 24, 24);
-             g2.setColor(Color.BLACK);
-             g2.drawString("✈", p.x - 4, p.y + 5);
+ // Background, visible edges, then visible nodes (with labels when zoomed in)
+ private void renderLayer(int w, int h) {
+     GraphicsConfiguration gc = getGraphicsConfiguration();
+     if (layer == null || layer.getWidth() != w || layer.getHeight() != h) {
+         layer = gc != null ? gc.createCompatibleImage(w, h)
+                 : new java.awt.image.BufferedImage(w, h, java.awt.image.BufferedImage.TYPE_INT_RGB);
+     }
+     SpatialIndex idx = index();
+     layerVersion = indexVersion;
+     layerDirty = false;
+
+     int x0 = mapX(-MARGIN), y0 = mapY(-MARGIN), x1 = mapX(w + MARGIN), y1 = mapY(h + MARGIN);
+     visibleCount = 0;
+     idx.nodesIn(x0, y0, x1, y1, this::addVisible);
+     boolean detailed = scale >= DETAIL_SCALE && visibleCount <= MAX_LABELS;
+
+     Graphics2D g2 = layer.createGraphics();
+     try {
+         g2.setColor(getBackground());
+         g2.fillRect(0, 0, w, h);
+         if (detailed) {
+             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+             g2.setStroke(EDGE_STROKE);
          }
+
+         g2.setColor(Color.GRAY);
+         idx.edgesIn(x0, y0, x1, y1, e -> {
+             int a = idx.from(e), b = idx.to(e);
+             g2.drawLine(screenX(idx.x(a)), screenY(idx.y(a)), screenX(idx.x(b)), screenY(idx.y(b)));
+         });
+
+         g2.setFont(LABEL_FONT);
+         int dot = Math.max(2, (int) Math.round(6 * scale));
+         for (int k = 0; k < visibleCount; k++) {
+             int i = visible[k];
+             int id = idx.id(i);
+
+             Color c = kinds[i] == TERMINAL_NODE ? TERMINAL : kinds[i] == RUNWAY_NODE ? RUNWAY : Color.WHITE;
+             if (!highlights.isEmpty()) {
+                 Color highlight = highlights.get(id);
+                 if (highlight != null) c = highlight;
+             }
+
+             int sx = screenX(idx.x(i)), sy = screenY(idx.y(i));
+             if (detailed) {
+                 drawNode(g2, sx, sy, backend.getNodeName(id), c);
+             } else {
+                 g2.setColor(c);
+                 g2.fillRect(sx - dot / 2, sy - dot / 2, dot, dot);
+             }
+             if (id == selected) {
+                 g2.setColor(Color.YELLOW);
+                 g2.drawOval(sx - HIT_RADIUS - 6, sy - HIT_RADIUS - 6, 2 * HIT_RADIUS + 12, 2 * HIT_RADIUS + 12);
+             }
+         }
+     } finally {
+         g2.dispose();
      }
  }
 
- private void drawNode(Graphics2D g2, Point p, String name, Color c) {
+ private void addVisible(int i) {
+     if (visibleCount == visible.length) visible = Arrays.copyOf(visible, visibleCount * 2);
+     visible[visibleCount++] = i;
+ }
+
+ private void drawNode(Graphics2D g2, int x, int y, String name, Color c) {
      int radius = (c == Color.WHITE || c.getBlue() > 200 || c.getRed() > 200 && c.getGreen() < 100) ? 10 : 16;
+     radius = Math.max(3, (int) Math.round(radius * Math.min(1, scale)));
      g2.setColor(c);
-     g2.fillOval(p.x - radius, p.y - radius, radius * 2, radius * 2);
+     g2.fillOval(x - radius, y - radius, radius * 2, radius * 2);
      g2.setColor(Color.LIGHT_GRAY);
-     g2.setFont(new Font("SansSerif", Font.PLAIN, 11));
-     g2.drawString(name, p.x + 12, p.y + 5); 
+     g2.drawString(name, x + 12, y + 5); 
+ }
+
+ @Override
+ public String toString() {
+     return String.format("Map: %.2fx zoom, %d nodes drawn; %s", scale, visibleCount, index());
  }
 }
 
@@ -793,26 +1842,52 @@ class MapPanel extends JPanel {
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            SimulationEngine.runDemo(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--convert")) {
+            try {
+                BinarySchedule.runDemo(args);
+            } catch (IOException e) {
+                System.err.println("Conversion failed: " + e.getMessage());
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--parallel")) {
+            try {
+                ParallelDispatcher.runDemo(args);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--ingest")) {
+            try {
+                FlightIngestServer.runDemo(args);
+            } catch (IOException e) {
+                System.err.println("Ingest demo failed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--layout")) {
+            try {
+                AirportLayout.runDemo(args);
+            } catch (IOException e) {
+                System.err.println("Layout demo failed: " + e.getMessage());
+            }
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
             
-            AirportBackend backend = new AirportBackend();
-            
-            backend.addLocation(0, "Runway 1 Exit", 120, 30);
-            backend.addLocation(1, "Runway 2 Exit", 280, 30);
-            backend.addLocation(2, "Taxiway Alpha", 200, 120);
-            backend.addLocation(3, "Taxiway Bravo", 300, 180);
-            backend.addLocation(4, "Terminal 1", 100, 250);
-            backend.addLocation(5, "Terminal 2", 350, 250);
-
-            backend.addPath(0, 2, 100);
-            backend.addPath(1, 2, 150);
-            backend.addPath(2, 3, 50);
-            backend.addPath(2, 4, 200);
-            backend.addPath(3, 5, 80);
-            backend.addPath(4, 5, 120);
-            
-            backend.setNodeCapacity(4, 2);
-            backend.setNodeCapacity(5, 3);
+            AirportLayout layout = loadLayout();
+            AirportBackend backend = layout != null ? layout.toBackend() : createDefaultLayout();
+            if (layout != null) backend.setCooperativeRouting(Boolean.getBoolean("runway.cooperative")); // the demo layout reads it itself
 
             AirportGUI gui = new AirportGUI();
             backend.setGUI(gui);
@@ -823,10 +1898,85 @@ public class Main {
             TrafficController atc = new TrafficController(backend, gui);
             gui.setController(atc);
 
-            atc.addRunway(1, 3, 0);
-            atc.addRunway(2, 1, 1);
+            if (layout != null) layout.addRunways(atc);
+            else addDefaultRunways(atc);
+            openJournal(atc, gui);
+            startIngest(atc, gui);
 
             gui.setVisible(true);
         });
     }
-}
\ No newline at end of file
+
+    // Demo airfield, shared by the GUI and the headless simulation
+    static AirportBackend createDefaultLayout() {
+        AirportBackend backend = new AirportBackend();
+        
+        backend.addLocation(0, "Runway 1 Exit", 120, 30);
+        backend.addLocation(1, "Runway 2 Exit", 280, 30);
+        backend.addLocation(2, "Taxiway Alpha", 200, 120);
+        backend.addLocation(3, "Taxiway Bravo", 300, 180);
+        backend.addLocation(4, "Terminal 1", 100, 250);
+        backend.addLocation(5, "Terminal 2", 350, 250);
+
+        backend.addPath(0, 2, 100);
+        backend.addPath(1, 2, 150);
+        backend.addPath(2, 3, 50);
+        backend.addPath(2, 4, 200);
+        backend.addPath(3, 5, 80);
+        backend.addPath(4, 5, 120);
+        
+        backend.setNodeCapacity(4, 2);
+        backend.setNodeCapacity(5, 3);
+        backend.setCooperativeRouting(Boolean.getBoolean("runway.cooperative"));
+        return backend;
+    }
+
+    // -Drunway.layout=<file.layout|file.rwl> replaces the demo airfield (see AirportLayout)
+    static AirportLayout loadLayout() {
+        String path = System.getProperty("runway.layout");
+        if (path == null) return null;
+        try {
+            return AirportLayout.read(java.nio.file.Paths.get(path));
+        } catch (IOException e) {
+            System.err.println("Layout not loaded, using the demo airfield: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // -Drunway.journal=<dir> keeps the shift across restarts: the journal is replayed into
+    // the controller on start and records every transition while running
+    static void openJournal(TrafficController atc, AirportGUI gui) {
+        String dir = System.getProperty("runway.journal");
+        if (dir == null) return;
+        try {
+            EventJournal journal = EventJournal.open(java.nio.file.Paths.get(dir));
+            atc.restore(journal.getState());
+            atc.setJournal(journal);
+            gui.updateMaintenanceButton();
+            gui.logToATC("SYSTEM: " + journal);
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "journal-close"));
+        } catch (IOException e) {
+            System.err.println("Journal disabled: " + e.getMessage());
+        }
+    }
+
+    // -Drunway.ingest=<port> accepts flight requests from scheduling feeds on the loopback
+    // interface (see FlightIngestServer); batches are applied on the EDT like a CSV load
+    static void startIngest(TrafficController atc, AirportGUI gui) {
+        Integer port = Integer.getInteger("runway.ingest");
+        if (port == null) return;
+        try {
+            FlightIngestServer server = new FlightIngestServer(atc, port, SwingUtilities::invokeLater);
+            server.start();
+            gui.logToATC("SYSTEM: Flight ingest listening on " + server.getAddress());
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close, "ingest-close"));
+        } catch (IOException e) {
+            System.err.println("Flight ingest disabled: " + e.getMessage());
+        }
+    }
+
+    static void addDefaultRunways(TrafficController atc) {
+        atc.addRunway(1, 3, 0);
+        atc.addRunway(2, 1, 1);
+    }
+}
@@ -0,0 +1,259 @@
+package runway;
+
+import javax.management.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+// ==========================================
+// METRICS (histograms, counters, gauges)
+// ==========================================
+
+// Named metrics shared by the controller, the GUI and exporters. Recording is lock-free
+// (parallel dispatch workers record concurrently); readers take a snapshot, a flat
+// name -> number map that StatsPanel, JMX and the CSV / JSON dump all render from.
+final class MetricsRegistry {
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    public void gauge(String name, DoubleSupplier value) {
+        gauges.putIfAbsent(name, value);
+    }
+
+    // Sorted flat view: counters and gauges by name, histograms as name.count / .mean /
+    // .p50 / .p90 / .p99 / .max
+    public Snapshot snapshot() {
+        TreeMap<String, Number> values = new TreeMap<>();
+        counters.forEach((n, c) -> values.put(n, c.sum()));
+        gauges.forEach((n, g) -> values.put(n, g.getAsDouble()));
+        histograms.forEach((n, h) -> h.snapshotInto(n, values));
+        return new Snapshot(System.currentTimeMillis(), values);
+    }
+
+    static final class Snapshot {
+        final long takenAt;
+        final SortedMap<String, Number> values;
+
+        Snapshot(long takenAt, SortedMap<String, Number> values) {
+            this.takenAt = takenAt;
+            this.values = Collections.unmodifiableSortedMap(values);
+        }
+
+        public double get(String name) {
+            Number n = values.get(name);
+            return n == null ? 0 : n.doubleValue();
+        }
+
+        public long getLong(String name) {
+            Number n = values.get(name);
+            return n == null ? 0 : n.longValue();
+        }
+    }
+
+    // ==========================================
+    // Fixed-bucket histogram
+    // ==========================================
+
+    // Log-linear buckets: exact below 8, then 8 sub-buckets per power of two (~12% wide),
+    // covering the whole positive long range in 488 counters. record() is a few bit ops
+    // and one atomic increment; no allocation, no locks.
+    static final class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong(0);
+
+        public void record(long value) {
+            if (value < 0) value = 0;
+            counts.incrementAndGet(bucketOf(value));
+            total.increment();
+            sum.add(value);
+            long m;
+            while (value > (m = max.get()) && !max.compareAndSet(m, value)) { }
+        }
+
+        static int bucketOf(long v) {
+            if (v < SUB) return (int) v;
+            int e = 63 - Long.numberOfLeadingZeros(v); // >= SUB_BITS
+            int sub = (int) (v >>> (e - SUB_BITS)) & (SUB - 1);
+            return (e - SUB_BITS + 1) * SUB + sub;
+        }
+
+        // Upper edge of a bucket (values reported at the conservative end)
+        static long bucketHigh(int b) {
+            if (b < SUB) return b;
+            int e = b / SUB + SUB_BITS - 1;
+            long low = (long) (SUB + b % SUB) << (e - SUB_BITS);
+            return low + (1L << (e - SUB_BITS)) - 1;
+        }
+
+        public long getCount() { return total.sum(); }
+        public long getMax() { return max.get(); }
+
+        public double getMean() {
+            long n = total.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        // Value at quantile q (0..1), accurate to the bucket width
+        public long percentile(double q) {
+            long n = total.sum();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(q * n);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += counts.get(b);
+                if (seen >= rank) return Math.min(bucketHigh(b), max.get());
+            }
+            return max.get();
+        }
+
+        void snapshotInto(String name, Map<String, Number> out) {
+            out.put(name + ".count", getCount());
+            out.put(name + ".mean", getMean());
+            out.put(name + ".p50", percentile(0.50));
+            out.put(name + ".p90", percentile(0.90));
+            out.put(name + ".p99", percentile(0.99));
+            out.put(name + ".max", getMax());
+        }
+    }
+
+    // ==========================================
+    // Exporters
+    // ==========================================
+
+    // Publishes every snapshot value as a read-only JMX attribute (e.g. in JConsole).
+    // A DynamicMBean, so the attribute set follows whatever metrics exist at read time.
+    public ObjectName registerMBean(String objectName) throws JMException {
+        ObjectName name = new ObjectName(objectName);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(name)) server.unregisterMBean(name);
+        server.registerMBean(new MetricsMBean(), name);
+        return name;
+    }
+
+    private final class MetricsMBean implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Number v = snapshot().values.get(attribute);
+            if (v == null) throw new AttributeNotFoundException(attribute);
+            return v.doubleValue();
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Snapshot s = snapshot();
+            AttributeList list = new AttributeList();
+            for (String a : attributes) {
+                Number v = s.values.get(a);
+                if (v != null) list.add(new Attribute(a, v.doubleValue()));
+            }
+            return list;
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attrs = new ArrayList<>();
+            for (String n : snapshot().values.keySet()) {
+                attrs.add(new MBeanAttributeInfo(n, "double", n, true, false, false));
+            }
+            return new MBeanInfo(MetricsRegistry.class.getName(), "Airport runway metrics",
+                    attrs.toArray(new MBeanAttributeInfo[0]), null, null, null);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) { return new AttributeList(); }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+    }
+
+    // Appends one snapshot per period to file: CSV (header written when the metric set
+    // changes) or, for *.json, one JSON object per line. Returns the scheduler to stop it.
+    public ScheduledExecutorService startDump(Path file, long periodMillis) {
+        boolean json = file.getFileName().toString().endsWith(".json");
+        ScheduledExecutorService ex = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicReference<Set<String>> header = new AtomicReference<>(); // columns of the last CSV header
+        ex.scheduleAtFixedRate(() -> {
+            Snapshot s = snapshot();
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (json) {
+                    out.write(toJson(s));
+                } else {
+                    if (!s.values.keySet().equals(header.get())) {
+                        header.set(new TreeSet<>(s.values.keySet()));
+                        out.write("time," + String.join(",", header.get()));
+                        out.newLine();
+                    }
+                    out.write(toCsvRow(s));
+                }
+                out.newLine();
+            } catch (IOException e) {
+                ex.shutdown(); // metrics must never take the tower down
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return ex;
+    }
+
+    static String toCsvRow(Snapshot s) {
+        StringBuilder sb = new StringBuilder().append(s.takenAt);
+        for (Number v : s.values.values()) sb.append(',').append(format(v));
+        return sb.toString();
+    }
+
+    static String toJson(Snapshot s) {
+        StringBuilder sb = new StringBuilder("{\"time\":").append(s.takenAt);
+        for (Map.Entry<String, Number> e : s.values.entrySet()) {
+            sb.append(",\"").append(e.getKey()).append("\":").append(format(e.getValue()));
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String format(Number v) {
+        if (v instanceof Double || v instanceof Float) {
+            double d = v.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) return "0";
+            return d == Math.rint(d) ? Long.toString((long) d) : String.format(Locale.ROOT, "%.3f", d);
+        }
+        return v.toString();
+    }
+}
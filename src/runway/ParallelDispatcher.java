@@ -0,0 +1,106 @@
+package runway;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+// ==========================================
+// PARALLEL DISPATCH (one worker per runway)
+// ==========================================
+
+// Runs TrafficController.dispatchNext() on virtual threads, one per runway by default.
+// Workers share the controller's priority queue, claim runways and gates atomically, and
+// hold a runway for occupancyMicros per movement, so throughput scales with runway count.
+// The controller's clock and sink must be thread-safe (ScheduledClock, HeadlessSink);
+// the single-threaded processNextFlight() path stays the deterministic mode.
+final class ParallelDispatcher {
+    private static final long POLL_MILLIS = 50; // idle workers re-check the stop flag this often
+
+    private final TrafficController controller;
+    private final int workers;
+    private final long occupancyNanos;
+    private final List<Thread> threads = new ArrayList<>();
+    private final LongAdder dispatched = new LongAdder();
+    private volatile boolean running = false;
+
+    ParallelDispatcher(TrafficController controller, long occupancyMicros) {
+        this(controller, controller.getRunwayCount(), occupancyMicros);
+    }
+
+    ParallelDispatcher(TrafficController controller, int workers, long occupancyMicros) {
+        this.controller = controller;
+        this.workers = Math.max(1, workers);
+        this.occupancyNanos = occupancyMicros * 1000;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        controller.setGateWaitLimit(workers - 1); // one worker always keeps dispatching
+        for (int i = 0; i < workers; i++) {
+            threads.add(Thread.ofVirtual().name("dispatch-" + (i + 1)).start(this::workLoop));
+        }
+    }
+
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        for (Thread t : threads) t.interrupt();
+        for (Thread t : threads) t.join();
+        threads.clear();
+    }
+
+    public long getDispatched() { return dispatched.sum(); }
+    public int getWorkers() { return workers; }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                if (controller.dispatchNext(POLL_MILLIS, occupancyNanos)) dispatched.increment();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // ==========================================
+    // Throughput demo: Main --parallel [flights] [runways] [occupancyMicros]
+    // ==========================================
+
+    static void runDemo(String[] args) throws InterruptedException {
+        int flights = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int runwayCount = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        long occupancyMicros = args.length > 3 ? Long.parseLong(args[3]) : 100;
+
+        AirportBackend backend = Main.createDefaultLayout();
+        backend.setNodeCapacity(4, Math.max(3, 2 * runwayCount));
+        backend.setNodeCapacity(5, Math.max(3, 2 * runwayCount));
+
+        ScheduledClock clock = new ScheduledClock(0); // ground phases complete immediately
+        HeadlessSink sink = new HeadlessSink();
+        TrafficController atc = new TrafficController(backend, sink, clock);
+        for (int r = 1; r <= runwayCount; r++) atc.addRunway(r, 3, (r - 1) % 2);
+
+        Random rnd = new Random(42);
+        for (int i = 0; i < flights; i++) {
+            int prio = rnd.nextInt(20) == 0 ? 1 : (rnd.nextInt(5) == 0 ? 2 : 3);
+            atc.requestFlight("PAR-" + i, "Landing", prio, 1 + rnd.nextInt(3), rnd.nextBoolean() ? 4 : 5,
+                              30 + rnd.nextInt(71), rnd.nextInt(3) == 0);
+        }
+
+        ParallelDispatcher dispatcher = new ParallelDispatcher(atc, occupancyMicros);
+        long t0 = System.nanoTime();
+        dispatcher.start();
+        while (sink.getCompleted() < flights) Thread.sleep(1);
+        double wallMs = (System.nanoTime() - t0) / 1e6;
+        dispatcher.stop();
+        clock.shutdown();
+
+        System.out.println("Dispatched " + flights + " flights on " + runwayCount + " runways ("
+                + occupancyMicros + " us occupancy) in " + String.format("%.1f", wallMs) + " ms");
+        System.out.println("  throughput:     " + String.format("%.0f", flights / (wallMs / 1000)) + " flights/s");
+        System.out.println("  movements:      " + dispatcher.getDispatched() + " (" + dispatcher.getWorkers() + " workers)");
+        System.out.println("  " + backend.getRouteCache());
+        System.out.println("  " + backend.getGateAllocator());
+    }
+}
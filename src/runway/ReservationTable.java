@@ -0,0 +1,140 @@
+package runway;
+
+import java.util.Arrays;
+
+// ==========================================
+// RESERVATION TABLE (space-time, ring of ticks)
+// ==========================================
+
+// Which taxiway nodes and edges are promised to an aircraft at which moment, for
+// cooperative routing: each cleared flight reserves the (node, tick) and (edge, tick)
+// cells of its timed route, and the next flight is planned around them.
+//
+// Time is cut into ticks of tickMillis. The table keeps a window of `horizon` ticks
+// starting at the current one, as a ring: tick t lives in slot t % horizon, which holds
+// a small open-addressing set of the keys reserved at that tick. A slot still tagged with
+// an older tick is simply stale; it is wiped when the ring comes round to it again. So
+// reservations expire by themselves, memory is bounded by the traffic inside the window,
+// and a lookup costs one hash probe however many flights have been planned before.
+//
+// Keys pack two node ids: (v, v) for a node, (min, max) for the undirected edge between
+// two nodes, so aircraft on the same taxiway segment in opposite directions collide.
+//
+// Not thread-safe: AirportBackend uses it under its own monitor.
+final class ReservationTable {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long tickMillis;
+    private final int horizon, mask;
+    private final long[] slotTick;
+    private final long[][] keys; // per slot, allocated on first use
+    private final int[] counts;
+    private long base = 0;       // current tick; earlier ones are expired
+    private long reserved = 0;
+
+    // horizonTicks is rounded up to a power of two
+    ReservationTable(long tickMillis, int horizonTicks) {
+        this.tickMillis = tickMillis;
+        this.horizon = Integer.highestOneBit(Math.max(2, horizonTicks - 1)) << 1;
+        this.mask = horizon - 1;
+        this.slotTick = new long[horizon];
+        Arrays.fill(slotTick, -1);
+        this.keys = new long[horizon][];
+        this.counts = new int[horizon];
+    }
+
+    static long nodeKey(int node) {
+        return ((long) node << 32) | (node & 0xffffffffL);
+    }
+
+    static long edgeKey(int a, int b) {
+        int lo = Math.min(a, b), hi = Math.max(a, b);
+        return ((long) lo << 32) | (hi & 0xffffffffL);
+    }
+
+    public long getTickMillis() { return tickMillis; }
+    public int getHorizon() { return horizon; }
+    public long tickOf(long millis) { return Math.floorDiv(millis, tickMillis); }
+
+    // Moves the window forward; ticks before `tick` are no longer answered or stored
+    public void advanceTo(long tick) {
+        if (tick > base) base = tick;
+    }
+
+    public long getBase() { return base; }
+
+    private boolean inWindow(long tick) {
+        return tick >= base && tick < base + horizon;
+    }
+
+    // Ticks outside the window read as free: the past is gone, and the planner does not
+    // search beyond the horizon
+    public boolean isFree(long key, long tick) {
+        if (!inWindow(tick)) return true;
+        int s = (int) (tick & mask);
+        if (slotTick[s] != tick) return true;
+        long[] set = keys[s];
+        return set[slotOf(set, key)] != key;
+    }
+
+    // False if the tick is outside the window (nothing is stored)
+    public boolean reserve(long key, long tick) {
+        if (!inWindow(tick)) return false;
+        int s = (int) (tick & mask);
+        long[] set = keys[s];
+        if (slotTick[s] != tick) {
+            if (set == null) {
+                set = keys[s] = newSet(8);
+            } else if (counts[s] > 0) {
+                Arrays.fill(set, EMPTY);
+            }
+            counts[s] = 0;
+            slotTick[s] = tick;
+        }
+        int i = slotOf(set, key);
+        if (set[i] == key) return true;
+        set[i] = key;
+        reserved++;
+        if (++counts[s] * 2 > set.length) keys[s] = rehash(set);
+        return true;
+    }
+
+    private static long[] newSet(int capacity) {
+        long[] set = new long[capacity];
+        Arrays.fill(set, EMPTY);
+        return set;
+    }
+
+    // Slot holding key, or the empty slot where it would go
+    private static int slotOf(long[] set, long key) {
+        int m = set.length - 1;
+        for (int i = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & m; ; i = (i + 1) & m) {
+            if (set[i] == key || set[i] == EMPTY) return i;
+        }
+    }
+
+    private static long[] rehash(long[] set) {
+        long[] grown = newSet(set.length * 2);
+        for (long key : set) {
+            if (key != EMPTY) grown[slotOf(grown, key)] = key;
+        }
+        return grown;
+    }
+
+    // Reservations currently inside the window
+    public int size() {
+        int live = 0;
+        for (int s = 0; s < horizon; s++) {
+            if (inWindow(slotTick[s])) live += counts[s];
+        }
+        return live;
+    }
+
+    public long getReservedCount() { return reserved; }
+
+    @Override
+    public String toString() {
+        return String.format("Reservations: %d live of %d made, window %d ticks of %d ms",
+                size(), reserved, horizon, tickMillis);
+    }
+}
@@ -0,0 +1,81 @@
+package runway;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// ==========================================
+// ROUTE (search result)
+// ==========================================
+
+// Result of one search: the node sequence plus its total distance.
+// Both the animation (node list) and the ATC log (display string) are derived from it.
+final class Route {
+    private final int[] nodes; // node ids, start -> end; empty if unreachable
+    private final int distance;
+    private final int expandedNodes; // nodes settled by the search that produced this route
+    private final Map<Integer, String> names;
+    private final long[] arrivals, departures; // millis after clearance per node; null if untimed
+    private String display;
+
+    Route(int[] nodes, int distance, int expandedNodes, Map<Integer, String> names) {
+        this(nodes, distance, expandedNodes, names, null, null);
+    }
+
+    // Timed route from cooperative planning: the aircraft reaches nodes[i] at arrivals[i]
+    // and leaves it at departures[i] (later if it has to hold there for traffic)
+    Route(int[] nodes, int distance, int expandedNodes, Map<Integer, String> names, long[] arrivals, long[] departures) {
+        this.nodes = nodes;
+        this.distance = distance;
+        this.expandedNodes = expandedNodes;
+        this.names = names;
+        this.arrivals = arrivals;
+        this.departures = departures;
+    }
+
+    public boolean isReachable() { return nodes.length > 0; }
+    public int getDistance() { return distance; }
+    public int getExpandedNodes() { return expandedNodes; }
+    public int getStart() { return nodes[0]; }
+    public int getEnd() { return nodes[nodes.length - 1]; }
+    public int length() { return nodes.length; }
+    public int nodeAt(int i) { return nodes[i]; }
+
+    public boolean isTimed() { return arrivals != null; }
+    public long getArrivalMillis(int i) { return arrivals[i]; }
+    public long getDepartureMillis(int i) { return departures[i]; }
+
+    // Clearance to arrival at the end node; timed routes only
+    public long getDurationMillis() { return arrivals[arrivals.length - 1]; }
+
+    // Total time spent holding at nodes for other traffic; 0 for untimed routes
+    public long getHoldMillis() {
+        if (arrivals == null) return 0;
+        long held = 0;
+        for (int i = 0; i < arrivals.length - 1; i++) held += departures[i] - arrivals[i];
+        return held;
+    }
+
+    public List<Integer> getPathList() {
+        List<Integer> path = new ArrayList<>(nodes.length);
+        for (int id : nodes) path.add(id);
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        if (display == null) {
+            if (!isReachable()) {
+                display = "No Path";
+            } else {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < nodes.length; i++) {
+                    if (i > 0) sb.append(" -> ");
+                    sb.append(names.get(nodes[i]));
+                }
+                display = sb.toString();
+            }
+        }
+        return display;
+    }
+}
@@ -0,0 +1,85 @@
+package runway;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// ==========================================
+// ROUTE CACHE (LRU, graph-versioned)
+// ==========================================
+
+// Caches routes per (start, end) pair for one graph version at a time. A lookup or
+// insert under a newer version drops every entry first, so a closed or reopened runway
+// can never be answered with a stale route, and a stored entry is always current.
+//
+// Used under AirportBackend's monitor; the hit / miss counters are also read by the
+// metrics gauges on other threads, so they are LongAdders.
+final class RouteCache {
+    private final int capacity;
+    private final LinkedHashMap<Long, Route> entries;
+    private long version = 0; // graph version of every entry
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    RouteCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) { // access order = LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Route> eldest) {
+                return size() > RouteCache.this.capacity;
+            }
+        };
+    }
+
+    private static long key(int start, int end) {
+        return ((long) start << 32) | (end & 0xFFFFFFFFL);
+    }
+
+    // True if entries may be stored / returned for this version (older ones never are)
+    private boolean current(long version) {
+        if (version > this.version) {
+            entries.clear();
+            this.version = version;
+        }
+        return version == this.version;
+    }
+
+    // Returns the cached route, or null if absent or computed for an older graph
+    Route get(int start, int end, long version) {
+        Route route = current(version) ? entries.get(key(start, end)) : null;
+        if (route == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return route;
+    }
+
+    // True if a route for this version is cached; not counted as a hit or miss and, unlike
+    // get(), leaves the LRU order alone
+    boolean contains(int start, int end, long version) {
+        return version == this.version && entries.containsKey(key(start, end));
+    }
+
+    void put(int start, int end, long version, Route route) {
+        if (current(version)) entries.put(key(start, end), route);
+    }
+
+    void clear() { entries.clear(); }
+
+    int size() { return entries.size(); }
+    int getCapacity() { return capacity; }
+    long getHits() { return hits.sum(); }
+    long getMisses() { return misses.sum(); }
+
+    double getHitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        long h = hits.sum(), m = misses.sum();
+        return String.format("Route cache: %d hits / %d misses (%.1f%%), %d/%d entries",
+                h, m, h + m == 0 ? 0.0 : 100.0 * h / (h + m), entries.size(), capacity);
+    }
+}
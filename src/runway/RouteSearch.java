@@ -0,0 +1,205 @@
+package runway;
+
+import java.util.Arrays;
+import java.util.Map;
+
+// ==========================================
+// ROUTE SEARCH (Dijkstra / A*)
+// ==========================================
+
+// Dijkstra / A* over a TaxiwayGraph using an indexed binary heap with decrease-key.
+// All scratch arrays are allocated once per graph; a generation stamp replaces
+// the per-query "fill with infinity", so a search allocates nothing but its result.
+final class RouteSearch {
+    private final TaxiwayGraph graph;
+    private final int[] dist;
+    private final int[] key;     // heap key: dist for Dijkstra, dist + h for A*
+    private final int[] prev;
+    private final int[] stamp;   // dist/prev are valid only where stamp == generation
+    private final int[] heap;    // dense node indices ordered by dist
+    private final int[] heapPos; // position in heap, -1 once settled
+    private int heapSize;
+    private int generation;
+
+    RouteSearch(TaxiwayGraph graph) {
+        int n = graph.size();
+        this.graph = graph;
+        this.dist = new int[n];
+        this.key = new int[n];
+        this.prev = new int[n];
+        this.stamp = new int[n];
+        this.heap = new int[n];
+        this.heapPos = new int[n];
+    }
+
+    TaxiwayGraph getGraph() { return graph; }
+
+    Route search(int startNode, int endNode, Map<Integer, String> names) {
+        return search(startNode, endNode, names, false);
+    }
+
+    // useHeuristic = true runs A* with the graph's Euclidean heuristic (falls back to
+    // plain Dijkstra when the graph has no usable coordinates)
+    Route search(int startNode, int endNode, Map<Integer, String> names, boolean useHeuristic) {
+        int s = graph.indexOf(startNode);
+        int t = graph.indexOf(endNode);
+        if (s < 0 || t < 0) return new Route(new int[0], Integer.MAX_VALUE, 0, names);
+
+        double scale = useHeuristic ? graph.heuristicScale : 0;
+        nextGeneration();
+        heapSize = 0;
+        int expanded = 0;
+        visit(s, 0, -1, heuristic(s, t, scale));
+        push(s);
+
+        int[] offsets = graph.offsets, targets = graph.targets, weights = graph.weights;
+        while (heapSize > 0) {
+            int u = pop();
+            expanded++;
+            if (u == t) break;
+            int du = dist[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int w = weights[e];
+                if (w == Integer.MAX_VALUE) continue; // closed taxiway
+
+                int v = targets[e];
+                int nd = du + w;
+                if (stamp[v] != generation) {
+                    visit(v, nd, u, nd + heuristic(v, t, scale));
+                    push(v);
+                } else if (nd < dist[v] && heapPos[v] >= 0) {
+                    key[v] -= dist[v] - nd;
+                    dist[v] = nd;
+                    prev[v] = u;
+                    siftUp(heapPos[v]);
+                }
+            }
+        }
+
+        if (stamp[t] != generation) return new Route(new int[0], Integer.MAX_VALUE, expanded, names);
+        int hops = 0;
+        for (int c = t; c != -1; c = prev[c]) hops++;
+        int[] nodes = new int[hops];
+        for (int c = t; c != -1; c = prev[c]) nodes[--hops] = graph.ids[c];
+        return new Route(nodes, dist[t], expanded, names);
+    }
+
+    // Single-source Dijkstra: settles every node reachable from startNode, so routeTo() can
+    // read any number of targets off one tree. The settle order up to a target is the one
+    // search(start, target) follows, so ties break the same way and the paths are identical.
+    // Returns the number of nodes settled (0 if the start is unknown).
+    int searchFrom(int startNode) {
+        int s = graph.indexOf(startNode);
+        nextGeneration();
+        heapSize = 0;
+        if (s < 0) return 0;
+        int settled = 0;
+        visit(s, 0, -1, 0);
+        push(s);
+
+        int[] offsets = graph.offsets, targets = graph.targets, weights = graph.weights;
+        while (heapSize > 0) {
+            int u = pop();
+            settled++;
+            int du = dist[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int w = weights[e];
+                if (w == Integer.MAX_VALUE) continue;
+                int v = targets[e];
+                int nd = du + w;
+                if (stamp[v] != generation) {
+                    visit(v, nd, u, nd);
+                    push(v);
+                } else if (nd < dist[v] && heapPos[v] >= 0) {
+                    key[v] = dist[v] = nd;
+                    prev[v] = u;
+                    siftUp(heapPos[v]);
+                }
+            }
+        }
+        return settled;
+    }
+
+    // Route to endNode from the last searchFrom() tree
+    Route routeTo(int endNode, int settled, Map<Integer, String> names) {
+        int t = graph.indexOf(endNode);
+        if (t < 0 || stamp[t] != generation) return new Route(new int[0], Integer.MAX_VALUE, settled, names);
+        int hops = 0;
+        for (int c = t; c != -1; c = prev[c]) hops++;
+        int[] nodes = new int[hops];
+        for (int c = t; c != -1; c = prev[c]) nodes[--hops] = graph.ids[c];
+        return new Route(nodes, dist[t], settled, names);
+    }
+
+    // Rounded down so integer keys never overestimate
+    private int heuristic(int v, int t, double scale) {
+        return scale == 0 ? 0 : (int) (scale * graph.euclid(v, t));
+    }
+
+    private void nextGeneration() {
+        if (++generation == Integer.MAX_VALUE) { // wrap-around: clear stamps once
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    private void visit(int v, int d, int p, int k) {
+        stamp[v] = generation;
+        dist[v] = d;
+        key[v] = k;
+        prev[v] = p;
+    }
+
+    // --- indexed min-heap on key[] ---
+
+    private void push(int v) {
+        heap[heapSize] = v;
+        heapPos[v] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapPos[top] = -1;
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            heap[0] = last;
+            heapPos[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        int d = key[v];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int pv = heap[parent];
+            if (key[pv] <= d) break;
+            heap[i] = pv;
+            heapPos[pv] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapPos[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        int d = key[v];
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < heapSize && key[heap[right]] < key[heap[child]]) child = right;
+            int cv = heap[child];
+            if (d <= key[cv]) break;
+            heap[i] = cv;
+            heapPos[cv] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapPos[v] = i;
+    }
+}
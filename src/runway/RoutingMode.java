@@ -0,0 +1,5 @@
+package runway;
+
+// Search AirportBackend.findRoute runs: plain Dijkstra, A* over node coordinates,
+// or a query against the contraction hierarchy built for large graphs
+enum RoutingMode { DIJKSTRA, A_STAR, CONTRACTION_HIERARCHY }
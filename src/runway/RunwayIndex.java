@@ -0,0 +1,139 @@
+package runway;
+
+import java.util.*;
+
+// ==========================================
+// RUNWAY INDEX (capacity classes + occupancy)
+// ==========================================
+
+// Runways grouped by maxSizeCapacity in a NavigableMap, so "smallest adequate runway"
+// starts at ceilingKey(size) instead of scanning every runway.
+//
+// Each runway carries an occupancy timeline: the movement occupies it until busyUntil,
+// and the next movement must also wait a wake-separation time that depends on the
+// leader's and the follower's size class (a light aircraft behind a heavy one waits
+// longest). Within a capacity class, one TreeSet per follower size orders runways by the
+// time they are ready for that size, so "smallest adequate runway free at t" is a
+// first() per class: O(classes * log n).
+final class RunwayIndex {
+    static final int SIZE_CLASSES = 3; // 1 = small ... 3 = large
+
+    // Runway occupancy per movement, by aircraft size (clock millis; the app's clock is
+    // compressed, ground phases take 3-5 s)
+    static final long[] DEFAULT_OCCUPANCY = {0, 400, 500, 600};
+
+    // Extra time after the leader clears before the follower may use the runway:
+    // DEFAULT_SEPARATION[leaderSize][followerSize]
+    static final long[][] DEFAULT_SEPARATION = {
+            {0, 0, 0, 0},
+            {0, 200, 200, 200},   // small leader
+            {0, 400, 200, 200},   // medium leader
+            {0, 800, 600, 400},   // large leader
+    };
+
+    private final long[] occupancy;
+    private final long[][] separation;
+
+    // capacity -> runways of that class, one ordering per follower size (index 1..3)
+    private final NavigableMap<Integer, List<TreeSet<Runway>>> classes = new TreeMap<>();
+    private final List<Runway> all = new ArrayList<>();
+
+    private long movements = 0;
+
+    RunwayIndex() { this(DEFAULT_OCCUPANCY, DEFAULT_SEPARATION); }
+
+    RunwayIndex(long[] occupancy, long[][] separation) {
+        this.occupancy = occupancy;
+        this.separation = separation;
+    }
+
+    public void add(Runway r) {
+        List<TreeSet<Runway>> byFollower = classes.computeIfAbsent(r.maxSizeCapacity, c -> newClass());
+        for (int s = 1; s <= Math.min(r.maxSizeCapacity, SIZE_CLASSES); s++) byFollower.get(s).add(r);
+        all.add(r);
+    }
+
+    private List<TreeSet<Runway>> newClass() {
+        List<TreeSet<Runway>> byFollower = new ArrayList<>(SIZE_CLASSES + 1);
+        byFollower.add(null);
+        for (int s = 1; s <= SIZE_CLASSES; s++) {
+            final int follower = s;
+            byFollower.add(new TreeSet<>((a, b) -> {
+                int c = Long.compare(readyFor(a, follower), readyFor(b, follower));
+                return c != 0 ? c : Integer.compare(a.id, b.id);
+            }));
+        }
+        return byFollower;
+    }
+
+    public int size() { return all.size(); }
+    public List<Runway> getRunways() { return Collections.unmodifiableList(all); }
+
+    // Earliest time r can accept a movement of the given size
+    long readyFor(Runway r, int size) {
+        if (r.lastSize == 0) return r.busyUntil;
+        return r.busyUntil + separation[r.lastSize][size];
+    }
+
+    // True if any runway is big enough for this size at all
+    public boolean fits(int size) {
+        return classes.ceilingKey(size) != null;
+    }
+
+    // Smallest adequate runway that is ready at time t (earliest-ready within the class),
+    // or null if every adequate runway is still occupied or in separation
+    public Runway freeAt(int size, long t) {
+        for (List<TreeSet<Runway>> byFollower : classes.tailMap(size, true).values()) {
+            Runway r = byFollower.get(size).first();
+            if (readyFor(r, size) <= t) return r;
+        }
+        return null;
+    }
+
+    // Earliest time any adequate runway becomes ready (Long.MAX_VALUE if none fits)
+    public long nextFree(int size) {
+        long best = Long.MAX_VALUE;
+        for (List<TreeSet<Runway>> byFollower : classes.tailMap(size, true).values()) {
+            best = Math.min(best, readyFor(byFollower.get(size).first(), size));
+        }
+        return best;
+    }
+
+    // Books the runway for one movement starting at t
+    public void occupy(Runway r, int size, long t) {
+        if (readyFor(r, size) > t) throw new IllegalStateException("Runway " + r.id + " is not free at " + t);
+        List<TreeSet<Runway>> byFollower = classes.get(r.maxSizeCapacity);
+        for (int s = 1; s <= Math.min(r.maxSizeCapacity, SIZE_CLASSES); s++) byFollower.get(s).remove(r); // re-keyed below
+        r.busyUntil = t + occupancy[size];
+        r.lastSize = size;
+        r.movements++;
+        r.busyMillis += occupancy[size];
+        for (int s = 1; s <= Math.min(r.maxSizeCapacity, SIZE_CLASSES); s++) byFollower.get(s).add(r);
+        movements++;
+    }
+
+    // Parallel mode: claims (CAS) a free runway, smallest adequate class first; null if all are taken
+    public Runway claimFree(int size) {
+        for (List<TreeSet<Runway>> byFollower : classes.tailMap(size, true).values()) {
+            for (Runway r : byFollower.get(size)) {
+                if (!r.occupied.get() && r.occupied.compareAndSet(false, true)) return r;
+            }
+        }
+        return null;
+    }
+
+    public long getMovements() { return movements; }
+
+    // Share of [0, now] the runways spent occupied, averaged over all runways
+    public double getUtilization(long now) {
+        if (all.isEmpty() || now <= 0) return 0;
+        long busy = 0;
+        for (Runway r : all) busy += r.busyMillis;
+        return (double) busy / ((double) now * all.size());
+    }
+
+    @Override
+    public String toString() {
+        return "Runways: " + all.size() + " in " + classes.size() + " capacity classes, " + movements + " movements";
+    }
+}
@@ -0,0 +1,25 @@
+package runway;
+
+// ==========================================
+// SCHEDULE BATCH
+// ==========================================
+
+// One block of parsed schedule rows in column form. Only the flight id becomes a String;
+// numeric fields are decoded straight from the input bytes.
+final class ScheduleBatch {
+    final String[] ids;
+    final int[] priority, size, gate, fuel;
+    final boolean[] turnaround;
+    int count = 0;
+
+    ScheduleBatch(int capacity) {
+        ids = new String[capacity];
+        priority = new int[capacity];
+        size = new int[capacity];
+        gate = new int[capacity];
+        fuel = new int[capacity];
+        turnaround = new boolean[capacity];
+    }
+
+    boolean isFull() { return count == ids.length; }
+}
@@ -0,0 +1,46 @@
+package runway;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// ==========================================
+// SCHEDULED CLOCK (thread-safe)
+// ==========================================
+
+// Wall-clock time that is safe to use from many threads (parallel dispatch). Deferred
+// tasks run on one daemon scheduler thread, with delays multiplied by timeScale
+// (1 = real time, 0 = as soon as possible, for throughput runs).
+class ScheduledClock implements SimClock {
+    private final ScheduledExecutorService scheduler;
+    private final double timeScale;
+
+    ScheduledClock(double timeScale) {
+        this.timeScale = timeScale;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sim-clock");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public long now() { return System.currentTimeMillis(); }
+
+    @Override
+    public void schedule(long delayMillis, Runnable task) {
+        long delay = (long) (delayMillis * timeScale);
+        if (delay <= 0) scheduler.execute(task);
+        else scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String timestamp(long millis) {
+        return WALL_STAMP.format(Instant.ofEpochMilli(millis));
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
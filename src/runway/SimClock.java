@@ -0,0 +1,21 @@
+package runway;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// ==========================================
+// TIME SOURCE (wall clock or virtual)
+// ==========================================
+
+// Time source for TrafficController: "now", deferred ground phases, and the
+// HH:mm:ss stamp shown in the flight table. Flights keep their time as clock millis
+// (see FlightStore) and are formatted only when a board row is built.
+interface SimClock {
+    DateTimeFormatter WALL_STAMP = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    long now(); // millis
+    void schedule(long delayMillis, Runnable task);
+    String timestamp(long millis); // a time from now()
+
+    default String timestamp() { return timestamp(now()); }
+}
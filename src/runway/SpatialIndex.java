@@ -0,0 +1,238 @@
+package runway;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// ==========================================
+// SPATIAL INDEX (uniform grid over the map)
+// ==========================================
+
+// Nodes and taxiway edges bucketed into a uniform grid in map coordinates, sized for a
+// few nodes per cell, so a viewport query touches only the cells it overlaps instead of
+// every coordinate in the layout. Cell contents are flattened into one array per kind
+// (cellStart[c] .. cellStart[c + 1]), so the index is a handful of int arrays even at
+// 100k nodes.
+//
+// An edge is listed in every cell its bounding box covers; one spanning more than
+// MAX_EDGE_CELLS cells goes to a short list that every query checks instead. Each
+// undirected path is indexed once.
+//
+// Immutable after build() except for the edge de-duplication stamps, so queries are
+// meant for one thread (MapPanel uses it on the EDT and rebuilds it when the graph
+// version changes).
+final class SpatialIndex {
+    private static final int NODES_PER_CELL = 4;
+    private static final int MAX_EDGE_CELLS = 16;
+
+    // Nodes, by index: id, position
+    private final int[] ids, xs, ys;
+    // Edges, by index: endpoints as node indices
+    private final int[] from, to;
+
+    private final int minX, minY, maxX, maxY, cell, cols, rows;
+    private final int[] nodeStart, nodeCells;  // cell -> node indices
+    private final int[] edgeStart, edgeCells;  // cell -> edge indices
+    private final int[] longEdges;
+
+    private final int[] edgeStamp;
+    private int stamp = 0;
+
+    private SpatialIndex(int[] ids, int[] xs, int[] ys, int[] from, int[] to) {
+        this.ids = ids;
+        this.xs = xs;
+        this.ys = ys;
+        this.from = from;
+        this.to = to;
+        int n = ids.length;
+
+        int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            x0 = Math.min(x0, xs[i]);
+            y0 = Math.min(y0, ys[i]);
+            x1 = Math.max(x1, xs[i]);
+            y1 = Math.max(y1, ys[i]);
+        }
+        if (n == 0) x0 = y0 = x1 = y1 = 0;
+        minX = x0;
+        minY = y0;
+        maxX = x1;
+        maxY = y1;
+        double area = Math.max(1.0, (double) (x1 - x0 + 1) * (y1 - y0 + 1));
+        cell = (int) Math.max(1, Math.ceil(Math.sqrt(area * NODES_PER_CELL / Math.max(1, n))));
+        cols = (x1 - x0) / cell + 1;
+        rows = (y1 - y0) / cell + 1;
+
+        int[] nodeCell = new int[n];
+        nodeStart = new int[cols * rows + 1];
+        for (int i = 0; i < n; i++) {
+            nodeCell[i] = cellOf(xs[i], ys[i]);
+            nodeStart[nodeCell[i] + 1]++;
+        }
+        for (int c = 0; c < cols * rows; c++) nodeStart[c + 1] += nodeStart[c];
+        nodeCells = new int[n];
+        int[] fill = Arrays.copyOf(nodeStart, nodeStart.length - 1);
+        for (int i = 0; i < n; i++) nodeCells[fill[nodeCell[i]]++] = i;
+
+        // Edges: count, prefix-sum, fill (long ones set aside)
+        int m = from.length, longCount = 0;
+        edgeStart = new int[cols * rows + 1];
+        boolean[] isLong = new boolean[m];
+        for (int e = 0; e < m; e++) {
+            int cx0 = col(Math.min(xs[from[e]], xs[to[e]])), cx1 = col(Math.max(xs[from[e]], xs[to[e]]));
+            int cy0 = row(Math.min(ys[from[e]], ys[to[e]])), cy1 = row(Math.max(ys[from[e]], ys[to[e]]));
+            if ((cx1 - cx0 + 1) * (cy1 - cy0 + 1) > MAX_EDGE_CELLS) {
+                isLong[e] = true;
+                longCount++;
+                continue;
+            }
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) edgeStart[cy * cols + cx + 1]++;
+            }
+        }
+        for (int c = 0; c < cols * rows; c++) edgeStart[c + 1] += edgeStart[c];
+        edgeCells = new int[edgeStart[cols * rows]];
+        longEdges = new int[longCount];
+        fill = Arrays.copyOf(edgeStart, edgeStart.length - 1);
+        longCount = 0;
+        for (int e = 0; e < m; e++) {
+            if (isLong[e]) {
+                longEdges[longCount++] = e;
+                continue;
+            }
+            int cx0 = col(Math.min(xs[from[e]], xs[to[e]])), cx1 = col(Math.max(xs[from[e]], xs[to[e]]));
+            int cy0 = row(Math.min(ys[from[e]], ys[to[e]])), cy1 = row(Math.max(ys[from[e]], ys[to[e]]));
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) edgeCells[fill[cy * cols + cx]++] = e;
+            }
+        }
+        edgeStamp = new int[m];
+    }
+
+    // Snapshot of the nodes that have coordinates and the paths between them
+    static SpatialIndex build(Map<Integer, Point> coords, Map<Integer, List<Edge>> adj) {
+        int n = coords.size();
+        int[] ids = new int[n], xs = new int[n], ys = new int[n];
+        Map<Integer, Integer> index = new java.util.HashMap<>(n * 2);
+        int i = 0;
+        for (Map.Entry<Integer, Point> node : coords.entrySet()) {
+            ids[i] = node.getKey();
+            xs[i] = node.getValue().x;
+            ys[i] = node.getValue().y;
+            index.put(ids[i], i++);
+        }
+
+        int m = 0;
+        int[] from = new int[Math.max(16, n * 2)], to = new int[from.length];
+        for (Map.Entry<Integer, List<Edge>> u : adj.entrySet()) {
+            Integer a = index.get(u.getKey());
+            if (a == null || u.getValue() == null) continue;
+            for (Edge e : u.getValue()) {
+                if (e.targetNode <= u.getKey()) continue; // addPath stores both directions
+                Integer b = index.get(e.targetNode);
+                if (b == null) continue;
+                if (m == from.length) {
+                    from = Arrays.copyOf(from, m * 2);
+                    to = Arrays.copyOf(to, m * 2);
+                }
+                from[m] = a;
+                to[m++] = b;
+            }
+        }
+        return new SpatialIndex(ids, xs, ys, Arrays.copyOf(from, m), Arrays.copyOf(to, m));
+    }
+
+    public int size() { return ids.length; }
+    public int getEdgeCount() { return from.length; }
+
+    public int id(int i) { return ids[i]; }
+    public int x(int i) { return xs[i]; }
+    public int y(int i) { return ys[i]; }
+    public int from(int e) { return from[e]; }
+    public int to(int e) { return to[e]; }
+
+    // Bounding box of all nodes (map coordinates)
+    public int getMinX() { return minX; }
+    public int getMinY() { return minY; }
+    public int getMaxX() { return maxX; }
+    public int getMaxY() { return maxY; }
+
+    // --- queries (map coordinates, inclusive) ---
+
+    // Indices of the nodes inside the rectangle
+    public void nodesIn(int x0, int y0, int x1, int y1, IntConsumer visitor) {
+        if (x1 < minX || y1 < minY || x0 > maxX || y0 > maxY || ids.length == 0) return;
+        int cx0 = col(x0), cx1 = col(x1), cy0 = row(y0), cy1 = row(y1);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int c = cy * cols + cx0, end = cy * cols + cx1; c <= end; c++) {
+                for (int k = nodeStart[c]; k < nodeStart[c + 1]; k++) {
+                    int i = nodeCells[k];
+                    if (xs[i] >= x0 && xs[i] <= x1 && ys[i] >= y0 && ys[i] <= y1) visitor.accept(i);
+                }
+            }
+        }
+    }
+
+    // Indices of the edges whose bounding box meets the rectangle, each reported once
+    public void edgesIn(int x0, int y0, int x1, int y1, IntConsumer visitor) {
+        if (++stamp == 0) {
+            Arrays.fill(edgeStamp, 0);
+            stamp = 1;
+        }
+        for (int e : longEdges) {
+            if (overlaps(e, x0, y0, x1, y1)) visitor.accept(e);
+        }
+        if (x1 < minX || y1 < minY || x0 > maxX || y0 > maxY || ids.length == 0) return;
+        int cx0 = col(x0), cx1 = col(x1), cy0 = row(y0), cy1 = row(y1);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int c = cy * cols + cx0, end = cy * cols + cx1; c <= end; c++) {
+                for (int k = edgeStart[c]; k < edgeStart[c + 1]; k++) {
+                    int e = edgeCells[k];
+                    if (edgeStamp[e] == stamp) continue;
+                    edgeStamp[e] = stamp;
+                    if (overlaps(e, x0, y0, x1, y1)) visitor.accept(e);
+                }
+            }
+        }
+    }
+
+    // Index of the node closest to (x, y) within maxDistance, or -1
+    public int nearest(int x, int y, int maxDistance) {
+        long best = (long) maxDistance * maxDistance;
+        int hit = -1;
+        if (ids.length == 0) return hit;
+        int cx0 = col(x - maxDistance), cx1 = col(x + maxDistance);
+        int cy0 = row(y - maxDistance), cy1 = row(y + maxDistance);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int c = cy * cols + cx0, end = cy * cols + cx1; c <= end; c++) {
+                for (int k = nodeStart[c]; k < nodeStart[c + 1]; k++) {
+                    int i = nodeCells[k];
+                    long dx = xs[i] - x, dy = ys[i] - y, d = dx * dx + dy * dy;
+                    if (d <= best) {
+                        best = d;
+                        hit = i;
+                    }
+                }
+            }
+        }
+        return hit;
+    }
+
+    private boolean overlaps(int e, int x0, int y0, int x1, int y1) {
+        int a = from[e], b = to[e];
+        return Math.max(xs[a], xs[b]) >= x0 && Math.min(xs[a], xs[b]) <= x1
+                && Math.max(ys[a], ys[b]) >= y0 && Math.min(ys[a], ys[b]) <= y1;
+    }
+
+    private int col(int x) { return Math.min(cols - 1, Math.max(0, (x - minX) / cell)); }
+    private int row(int y) { return Math.min(rows - 1, Math.max(0, (y - minY) / cell)); }
+    private int cellOf(int x, int y) { return row(y) * cols + col(x); }
+
+    @Override
+    public String toString() {
+        return String.format("Spatial index: %d nodes, %d edges (%d long) in %dx%d cells of %d",
+                ids.length, from.length, longEdges.length, cols, rows, cell);
+    }
+}
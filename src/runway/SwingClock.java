@@ -0,0 +1,28 @@
+package runway;
+
+import java.time.Instant;
+
+// ==========================================
+// SWING CLOCK
+// ==========================================
+
+// Wall-clock time; deferred tasks run on the EDT through javax.swing.Timer
+class SwingClock implements SimClock {
+    @Override
+    public long now() { return System.currentTimeMillis(); }
+
+    @Override
+    public void schedule(long delayMillis, Runnable task) {
+        javax.swing.Timer timer = new javax.swing.Timer((int) delayMillis, e -> {
+            ((javax.swing.Timer) e.getSource()).stop();
+            task.run();
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
+
+    @Override
+    public String timestamp(long millis) {
+        return WALL_STAMP.format(Instant.ofEpochMilli(millis));
+    }
+}
@@ -0,0 +1,214 @@
+package runway;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+
+// ==========================================
+// TAXI ANIMATION (pooled sprites, one frame clock)
+// ==========================================
+
+// Aircraft moving along their taxi routes on the map, all advanced by one frame clock
+// (MapPanel's timer) instead of a timer per flight. A sprite's route is kept as the map
+// coordinates of its nodes and the time it reaches each one, from the edge weights at
+// TrafficController.TAXI_UNITS_PER_SECOND, so a frame is one interpolation per sprite
+// with no graph lookups. After the last node the aircraft stays DWELL_MILLIS, then goes.
+// A timed route (cooperative routing) brings its own times, and a hold at a node becomes
+// a second point at the same place.
+//
+// Sprites are slots in parallel arrays; a finished sprite's slot, route buffers
+// included, is reused by the next route, so a steady stream of taxiing flights
+// allocates nothing per frame and almost nothing per route.
+//
+// Each advance() also accumulates the map-space box covering every sprite's previous
+// and new position, which MapPanel turns into one dirty rectangle per frame.
+//
+// Not thread-safe: MapPanel uses it on the EDT.
+final class TaxiAnimation {
+    static final long DWELL_MILLIS = 500;
+    private static final long MAX_EDGE_MILLIS = 10_000; // closed taxiways carry a huge weight
+
+    // Per slot: route (node coordinates, arrival millis after start) and progress
+    private int[][] routeX = new int[16][], routeY = new int[16][];
+    private long[][] arrival = new long[16][];
+    private int[] length = new int[16], segment = new int[16];
+    private long[] startedAt = new long[16];
+    private float[] x = new float[16], y = new float[16];
+
+    private int[] active = new int[16]; // slots in use
+    private int activeCount = 0;
+    private int[] free = new int[16];
+    private int freeCount = 0, slots = 0;
+
+    // Dirty box of the last advance (map coordinates), empty if minX > maxX
+    private float minX = 1, minY = 1, maxX = 0, maxY = 0;
+
+    // Starts an aircraft at the first node of path; false if no node of it is on the map
+    public boolean start(List<Integer> path, AirportBackend backend, long now) {
+        int n = path.size();
+        int slot = allocate(n);
+        int[] rx = routeX[slot], ry = routeY[slot];
+        long[] at = arrival[slot];
+        int len = 0;
+        int prev = -1;
+        for (int k = 0; k < n; k++) {
+            int node = path.get(k);
+            Point p = backend.getNodeCoord(node);
+            if (p == null) continue;
+            rx[len] = p.x;
+            ry[len] = p.y;
+            at[len] = len == 0 ? 0 : at[len - 1] + edgeMillis(backend, prev, node);
+            len++;
+            prev = node;
+        }
+        return begin(slot, len, now);
+    }
+
+    private boolean begin(int slot, int len, long now) {
+        int[] rx = routeX[slot], ry = routeY[slot];
+        if (len == 0) {
+            free[freeCount++] = slot;
+            return false;
+        }
+        length[slot] = len;
+        segment[slot] = 0;
+        startedAt[slot] = now;
+        x[slot] = rx[0];
+        y[slot] = ry[0];
+        active[activeCount++] = slot;
+        include(x[slot], y[slot]);
+        return true;
+    }
+
+    // Starts an aircraft on a route, following its timetable if it has one
+    public boolean start(Route route, AirportBackend backend, long now) {
+        if (!route.isTimed()) return start(route.getPathList(), backend, now);
+        int n = route.length();
+        int slot = allocate(2 * n);
+        int[] rx = routeX[slot], ry = routeY[slot];
+        long[] at = arrival[slot];
+        int len = 0;
+        for (int k = 0; k < n; k++) {
+            Point p = backend.getNodeCoord(route.nodeAt(k));
+            if (p == null) continue;
+            rx[len] = p.x;
+            ry[len] = p.y;
+            at[len++] = route.getArrivalMillis(k);
+            if (k < n - 1 && route.getDepartureMillis(k) > route.getArrivalMillis(k)) {
+                rx[len] = p.x;
+                ry[len] = p.y;
+                at[len++] = route.getDepartureMillis(k);
+            }
+        }
+        return begin(slot, len, now);
+    }
+
+    private static long edgeMillis(AirportBackend backend, int from, int to) {
+        List<Edge> edges = backend.getAdjList().get(from);
+        if (edges != null) {
+            for (Edge e : edges) {
+                if (e.targetNode == to) return Math.min(MAX_EDGE_MILLIS, (long) (e.weight * 1000 / TrafficController.TAXI_UNITS_PER_SECOND));
+            }
+        }
+        return MAX_EDGE_MILLIS / 10; // not adjacent (e.g. a hierarchy shortcut): nominal hop
+    }
+
+    // A free slot with route buffers for at least n nodes
+    private int allocate(int n) {
+        int slot;
+        if (freeCount > 0) {
+            slot = free[--freeCount];
+        } else {
+            slot = slots++;
+            if (slot == length.length) grow();
+        }
+        if (routeX[slot] == null || routeX[slot].length < n) {
+            int cap = Math.max(8, Integer.highestOneBit(Math.max(1, n - 1)) << 1);
+            routeX[slot] = new int[cap];
+            routeY[slot] = new int[cap];
+            arrival[slot] = new long[cap];
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int cap = length.length * 2;
+        routeX = Arrays.copyOf(routeX, cap);
+        routeY = Arrays.copyOf(routeY, cap);
+        arrival = Arrays.copyOf(arrival, cap);
+        length = Arrays.copyOf(length, cap);
+        segment = Arrays.copyOf(segment, cap);
+        startedAt = Arrays.copyOf(startedAt, cap);
+        x = Arrays.copyOf(x, cap);
+        y = Arrays.copyOf(y, cap);
+        active = Arrays.copyOf(active, cap);
+        free = Arrays.copyOf(free, cap);
+    }
+
+    // Moves every aircraft to its position at now and retires finished ones. Returns
+    // false once nothing is left to animate (the caller can stop its clock).
+    public boolean advance(long now) {
+        for (int k = 0; k < activeCount; ) {
+            int s = active[k];
+            include(x[s], y[s]);
+            long elapsed = now - startedAt[s];
+            int last = length[s] - 1;
+            long[] at = arrival[s];
+            if (elapsed >= at[last] + DWELL_MILLIS) {
+                active[k] = active[--activeCount]; // order among sprites does not matter
+                free[freeCount++] = s;
+                continue;
+            }
+            int seg = segment[s];
+            while (seg < last && elapsed >= at[seg + 1]) seg++;
+            segment[s] = seg;
+            if (seg == last) {
+                x[s] = routeX[s][last];
+                y[s] = routeY[s][last];
+            } else {
+                float t = (float) (elapsed - at[seg]) / Math.max(1, at[seg + 1] - at[seg]);
+                x[s] = routeX[s][seg] + t * (routeX[s][seg + 1] - routeX[s][seg]);
+                y[s] = routeY[s][seg] + t * (routeY[s][seg + 1] - routeY[s][seg]);
+            }
+            include(x[s], y[s]);
+            k++;
+        }
+        return activeCount > 0;
+    }
+
+    private void include(float px, float py) {
+        if (minX > maxX) {
+            minX = maxX = px;
+            minY = maxY = py;
+            return;
+        }
+        minX = Math.min(minX, px);
+        maxX = Math.max(maxX, px);
+        minY = Math.min(minY, py);
+        maxY = Math.max(maxY, py);
+    }
+
+    // --- dirty box ---
+
+    public boolean hasDirty() { return minX <= maxX; }
+    public float getDirtyMinX() { return minX; }
+    public float getDirtyMinY() { return minY; }
+    public float getDirtyMaxX() { return maxX; }
+    public float getDirtyMaxY() { return maxY; }
+
+    public void clearDirty() {
+        minX = minY = 1;
+        maxX = maxY = 0;
+    }
+
+    // --- sprites in view of the painter: index k in 0 .. size() - 1 ---
+
+    public int size() { return activeCount; }
+    public float x(int k) { return x[active[k]]; }
+    public float y(int k) { return y[active[k]]; }
+
+    @Override
+    public String toString() {
+        return "Taxi animation: " + activeCount + " aircraft, " + slots + " pooled slots";
+    }
+}
@@ -0,0 +1,98 @@
+package runway;
+
+import java.awt.Point;
+import java.util.*;
+
+// ==========================================
+// COMPACT GRAPH (CSR)
+// ==========================================
+
+// Compressed-sparse-row snapshot of the taxiway graph.
+// Node ids are remapped to dense indices (sorted by id) so a search only touches int arrays.
+final class TaxiwayGraph {
+    final int[] ids;      // dense index -> node id (sorted)
+    final int[] offsets;  // edges of node i are [offsets[i], offsets[i + 1])
+    final int[] targets;  // dense index of the edge target
+    final int[] weights;  // Integer.MAX_VALUE marks a closed edge
+    final double[] xs, ys; // node coordinates, NaN if the node has none
+
+    // A* heuristic: h(v) = heuristicScale * euclid(v, target).
+    // The scale is the smallest weight-per-pixel ratio over all open edges, which makes
+    // the heuristic consistent (and so admissible). 0 means "no usable heuristic".
+    final double heuristicScale;
+
+    private TaxiwayGraph(int[] ids, int[] offsets, int[] targets, int[] weights, double[] xs, double[] ys) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.xs = xs;
+        this.ys = ys;
+        this.heuristicScale = computeHeuristicScale();
+    }
+
+    static TaxiwayGraph build(Map<Integer, List<Edge>> adjList) {
+        return build(adjList, Collections.emptyMap());
+    }
+
+    static TaxiwayGraph build(Map<Integer, List<Edge>> adjList, Map<Integer, Point> coords) {
+        int n = adjList.size();
+        int[] ids = new int[n];
+        int i = 0;
+        int edgeCount = 0;
+        for (Map.Entry<Integer, List<Edge>> entry : adjList.entrySet()) {
+            ids[i++] = entry.getKey();
+            edgeCount += entry.getValue().size();
+        }
+        Arrays.sort(ids);
+
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[edgeCount];
+        int[] weights = new int[edgeCount];
+        int e = 0;
+        for (i = 0; i < n; i++) {
+            offsets[i] = e;
+            for (Edge edge : adjList.get(ids[i])) {
+                targets[e] = Arrays.binarySearch(ids, edge.targetNode);
+                weights[e] = edge.weight;
+                e++;
+            }
+        }
+        offsets[n] = e;
+
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (i = 0; i < n; i++) {
+            Point p = coords.get(ids[i]);
+            xs[i] = p == null ? Double.NaN : p.x;
+            ys[i] = p == null ? Double.NaN : p.y;
+        }
+        return new TaxiwayGraph(ids, offsets, targets, weights, xs, ys);
+    }
+
+    int size() { return ids.length; }
+    int edgeCount() { return targets.length; }
+
+    double euclid(int a, int b) {
+        return Math.hypot(xs[a] - xs[b], ys[a] - ys[b]);
+    }
+
+    private double computeHeuristicScale() {
+        double scale = Double.POSITIVE_INFINITY;
+        for (int u = 0; u < ids.length; u++) {
+            if (Double.isNaN(xs[u])) return 0; // a node without coordinates breaks the bound
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (weights[e] == Integer.MAX_VALUE) continue; // closing an edge only raises costs
+                double len = euclid(u, targets[e]);
+                if (len > 0) scale = Math.min(scale, weights[e] / len);
+            }
+        }
+        return Double.isInfinite(scale) ? 0 : scale;
+    }
+
+    // Dense index for a node id, or -1 if the node is unknown
+    int indexOf(int nodeId) {
+        int idx = Arrays.binarySearch(ids, nodeId);
+        return idx >= 0 ? idx : -1;
+    }
+}
@@ -0,0 +1,24 @@
+package runway;
+
+import java.util.List;
+
+// ==========================================
+// CONTROLLER OUTPUT (GUI or headless)
+// ==========================================
+
+// Everything TrafficController reports goes through this interface, so the same
+// dispatch logic can drive the Swing frontend or a headless simulation.
+interface TrafficSink {
+    void logToATC(String message);
+    void addFlightRow(String id, String time, String fuel, String status, String term);
+    void updateFlightStatus(String id, String newStatus);
+
+    // Bulk insert of {id, time, fuel, status, terminal} rows (schedule loads)
+    default void addFlightRows(List<String[]> rows) {
+        for (String[] r : rows) addFlightRow(r[0], r[1], r[2], r[3], r[4]);
+    }
+
+    default void showRoute(Route route) {}
+    default void flightCompleted(String id) {} // docked, departed or diverted
+    default void queueEmpty() {}
+}